@@ -0,0 +1,134 @@
+package com.ar.ds.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of a single lookup of InterpolationSearch and ExponentialSearch against BinarySearch.search.
+ * Each operation searches QUERY_COUNT random keys, half of them present, so the branch predictor
+ * cannot learn the path of a single key.
+ *
+ * UNIFORM keys are sequential ids with random gaps of up to 8, the best case of interpolation search.
+ * EXPONENTIAL keys grow like 1.00001^i, where each interpolation misses and its bisection guard takes over.
+ * Exponential search gallops from the start of the array, its cost follows the position of the key.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" } )
+public class SearchBenchmark
+{
+	public static final long SEED = 0x5EEDL;
+	public static final int QUERY_COUNT = 1024;
+
+	public enum KeyDistribution
+	{
+		UNIFORM, EXPONENTIAL
+	}
+
+	@Param( { "1000", "1000000", "100000000" } )
+	public int size;
+
+	@Param( { "UNIFORM", "EXPONENTIAL" } )
+	public KeyDistribution distribution;
+
+	private int[] _array;
+	private int[] _queries;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random( SEED );
+
+		_array = new int[ size ];
+
+		double value = 0.0;
+
+		for( int i = 0; i < size; i++ )
+		{
+			if( distribution == KeyDistribution.UNIFORM )
+			{
+				_array[ i ] = i == 0 ? 0 : _array[ i - 1 ] + 1 + random.nextInt( 8 );
+			}
+			else
+			{
+				value = Math.max( value + 1.0, Math.pow( 1.00001, i ) );
+				_array[ i ] = ( int ) Math.min( value, Integer.MAX_VALUE - size + i );
+			}
+		}
+
+		_queries = new int[ QUERY_COUNT ];
+
+		for( int i = 0; i < QUERY_COUNT; i++ )
+		{
+			int key = _array[ random.nextInt( size ) ];
+			_queries[ i ] = random.nextBoolean() ? key : key + 1;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( QUERY_COUNT )
+	public int binary()
+	{
+		int sum = 0;
+
+		for( int key : _queries )
+		{
+			sum += BinarySearch.search( _array, key );
+		}
+
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( QUERY_COUNT )
+	public int interpolation()
+	{
+		int sum = 0;
+
+		for( int key : _queries )
+		{
+			sum += InterpolationSearch.search( _array, key );
+		}
+
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation( QUERY_COUNT )
+	public int exponential()
+	{
+		int sum = 0;
+
+		for( int key : _queries )
+		{
+			sum += ExponentialSearch.search( _array, key );
+		}
+
+		return sum;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SearchBenchmark]";
+	}
+}
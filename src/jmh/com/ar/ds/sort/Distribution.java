@@ -0,0 +1,143 @@
+package com.ar.ds.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Input distributions of the sort benchmarks. All are generated from a fixed seed,
+ * so every algorithm sees exactly the same input.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public enum Distribution
+{
+	/**
+	 * Uniform over all ints.
+	 */
+	RANDOM
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					for( int i = 0; i < array.length; i++ )
+					{
+						array[ i ] = random.nextInt();
+					}
+				}
+			},
+
+	SORTED
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					for( int i = 0; i < array.length; i++ )
+					{
+						array[ i ] = i;
+					}
+				}
+			},
+
+	REVERSED
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					for( int i = 0; i < array.length; i++ )
+					{
+						array[ i ] = array.length - i;
+					}
+				}
+			},
+
+	/**
+	 * About sqrt(n) ascending runs of sqrt(n) elements each.
+	 */
+	SAWTOOTH
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					int period = Math.max( 2, ( int ) Math.sqrt( array.length ) );
+
+					for( int i = 0; i < array.length; i++ )
+					{
+						array[ i ] = i % period;
+					}
+				}
+			},
+
+	/**
+	 * Only FEW_UNIQUE_VALUES distinct values.
+	 */
+	FEW_UNIQUE
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					for( int i = 0; i < array.length; i++ )
+					{
+						array[ i ] = random.nextInt( FEW_UNIQUE_VALUES );
+					}
+				}
+			},
+
+	/**
+	 * Value k is drawn with a probability proportional to 1 / k, the smallest values dominate.
+	 */
+	ZIPF
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					int m = Math.max( 1, Math.min( array.length, ZIPF_MAX_VALUES ) );
+					double[] cdf = new double[ m ];
+					double sum = 0.0;
+
+					for( int k = 0; k < m; k++ )
+					{
+						sum += 1.0 / ( k + 1 );
+						cdf[ k ] = sum;
+					}
+
+					for( int i = 0; i < array.length; i++ )
+					{
+						int k = Arrays.binarySearch( cdf, random.nextDouble() * sum );
+
+						array[ i ] = k < 0 ? Math.min( -k - 1, m - 1 ) : k;
+					}
+				}
+			},
+
+	/**
+	 * Ascending up to the middle, descending after it.
+	 */
+	ORGAN_PIPE
+			{
+				@Override
+				void fill( int[] array, Random random )
+				{
+					int n = array.length;
+
+					for( int i = 0; i < n; i++ )
+					{
+						array[ i ] = i < n / 2 ? i : n - i;
+					}
+				}
+			};
+
+	public static final int FEW_UNIQUE_VALUES = 16;
+	public static final int ZIPF_MAX_VALUES = 1 << 20;
+
+	abstract void fill( int[] array, Random random );
+
+	public int[] generate( int n, long seed )
+	{
+		int[] array = new int[ n ];
+
+		fill( array, new Random( seed ) );
+
+		return array;
+	}
+}
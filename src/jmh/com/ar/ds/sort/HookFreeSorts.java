@@ -0,0 +1,197 @@
+package com.ar.ds.sort;
+
+/**
+ * Copies of the int paths of QuickSort(), MergeSort() and HeapSort() with the SortProbe hooks
+ * removed, the baseline of InstrumentationBenchmark. Apart from the hooks they must stay identical
+ * to QuickSort.quicksort, MergeSort.internalSort and HeapSort.sort, otherwise the comparison
+ * measures something else.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class HookFreeSorts
+{
+	private HookFreeSorts()
+	{
+	}
+
+	/**
+	 * Hook free copy of the sort with the given simple class name.
+	 */
+	static ISort create( String name )
+	{
+		if( name.equals( "QuickSort" ) )
+		{
+			return new ISort()
+			{
+				@Override
+				public void sort( int[] array )
+				{
+					quicksort( array, 0, array.length - 1 );
+				}
+			};
+		}
+
+		if( name.equals( "MergeSort" ) )
+		{
+			return new ISort()
+			{
+				@Override
+				public void sort( int[] array )
+				{
+					mergeSort( array, new int[ array.length ], 0, array.length - 1 );
+				}
+			};
+		}
+
+		if( name.equals( "HeapSort" ) )
+		{
+			return new ISort()
+			{
+				@Override
+				public void sort( int[] array )
+				{
+					heapSort( array, 0, array.length - 1 );
+				}
+			};
+		}
+
+		throw new IllegalArgumentException( "No hook free copy of " + name );
+	}
+
+	static void quicksort( int[] array, int left, int right )
+	{
+		if( left < right )
+		{
+			int split = partition( array, left, right );
+
+			quicksort( array, left, split );
+			quicksort( array, split + 1, right );
+		}
+	}
+
+	static int partition( int[] array, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		int pivot = array[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( array[ i ] < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( array[ j ] > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( array, i, j );
+		}
+	}
+
+	static void mergeSort( int[] array, int[] tmpArray, int left, int right )
+	{
+		if( left < right )
+		{
+			int center = ( left + right ) >>> 1;
+
+			mergeSort( array, tmpArray, left, center );
+			mergeSort( array, tmpArray, center + 1, right );
+
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+		}
+	}
+
+	static void merge( int[] leftArray, int leftPos, int leftEnd, int[] rightArray, int rightPos, int rightEnd, int[] target, int tmpPos )
+	{
+		while( leftPos <= leftEnd && rightPos <= rightEnd )
+		{
+			if( leftArray[ leftPos ] <= rightArray[ rightPos ] )
+			{
+				target[ tmpPos++ ] = leftArray[ leftPos++ ];
+			}
+			else
+			{
+				target[ tmpPos++ ] = rightArray[ rightPos++ ];
+			}
+		}
+
+		while( leftPos <= leftEnd )
+		{
+			target[ tmpPos++ ] = leftArray[ leftPos++ ];
+		}
+
+		while( rightPos <= rightEnd )
+		{
+			target[ tmpPos++ ] = rightArray[ rightPos++ ];
+		}
+	}
+
+	static void heapSort( int[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
+		{
+			burry( array, left, i, n );
+		}
+
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( array, left + i, left );
+			burry( array, left, 0, i );
+		}
+	}
+
+	static void burry( int[] array, int offset, int i, int n )
+	{
+		while( i <= ( n / 2 ) - 1 )
+		{
+			int kindIndex = ( ( i + 1 ) * 2 ) - 1;
+
+			if( kindIndex + 1 <= n - 1 )
+			{
+				if( array[ offset + kindIndex ] < array[ offset + kindIndex + 1 ] )
+				{
+					kindIndex++;
+				}
+			}
+
+			if( array[ offset + i ] < array[ offset + kindIndex ] )
+			{
+				swap( array, offset + i, offset + kindIndex );
+				i = kindIndex;
+			}
+			else
+			{
+				break;
+			}
+		}
+	}
+
+	private static void swap( int[] array, int i, int j )
+	{
+		int tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[HookFreeSorts]";
+	}
+}
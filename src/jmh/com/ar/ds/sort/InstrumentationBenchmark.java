@@ -0,0 +1,94 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation with the probes disabled, which is the default.
+ *
+ * baseline runs HookFreeSorts, copies of the sorts with the SortProbe hooks removed. bare runs the
+ * hooked sorts directly and decorated goes through InstrumentedSort. bare matching baseline within
+ * the error shows that the disabled hooks are folded away by the JIT. decorated adds the per call
+ * bookkeeping of the decorator: two nanoTime calls and three LongAdder updates.
+ * ProbedInstrumentationBenchmark runs the same methods with the probes enabled for comparison.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( value = 3 )
+public class InstrumentationBenchmark
+{
+	@Param( { "QuickSort", "MergeSort", "HeapSort" } )
+	public String algorithm;
+
+	@Param( { "100", "10000", "1000000" } )
+	public int size;
+
+	private ISort _baseline;
+	private ISort _sort;
+	private ISort _instrumented;
+	private int[] _input;
+	private int[] _array;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		_baseline = HookFreeSorts.create( algorithm );
+		_sort = SortBenchmark.create( algorithm );
+		_instrumented = new InstrumentedSort( SortBenchmark.create( algorithm ) );
+		_input = Distribution.RANDOM.generate( size, SortBenchmark.SEED );
+		_array = new int[ size ];
+	}
+
+	@Benchmark
+	public int[] baseline()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_baseline.sort( _array );
+
+		return _array;
+	}
+
+	@Benchmark
+	public int[] bare()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_sort.sort( _array );
+
+		return _array;
+	}
+
+	@Benchmark
+	public int[] decorated()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_instrumented.sort( _array );
+
+		return _array;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[InstrumentationBenchmark]";
+	}
+}
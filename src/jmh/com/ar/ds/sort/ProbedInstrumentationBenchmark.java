@@ -0,0 +1,19 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * InstrumentationBenchmark with the probes inside the sorts enabled.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@Fork( value = 3, jvmArgsAppend = "-Dcom.ar.ds.sort.probe=true" )
+public class ProbedInstrumentationBenchmark extends InstrumentationBenchmark
+{
+	@Override
+	public String toString()
+	{
+		return "[ProbedInstrumentationBenchmark]";
+	}
+}
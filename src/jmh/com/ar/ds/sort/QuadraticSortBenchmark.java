@@ -0,0 +1,68 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Θ(n2) sorts. Sizes stop at 10^5, a single bubble sort of 10^6 random
+ * ints already takes minutes and 10^8 would take years, so larger sizes are left out.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1 )
+public class QuadraticSortBenchmark
+{
+	@Param( { "BubbleSort", "InsertionSort", "SelectionSort" } )
+	public String algorithm;
+
+	@Param( { "10", "100", "1000", "10000", "100000" } )
+	public int size;
+
+	@Param( { "RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUE", "ZIPF", "ORGAN_PIPE" } )
+	public Distribution distribution;
+
+	private ISort _sort;
+	private int[] _input;
+	private int[] _array;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		_sort = SortBenchmark.create( algorithm );
+		_input = distribution.generate( size, SortBenchmark.SEED );
+		_array = new int[ size ];
+	}
+
+	@Benchmark
+	public int[] sort()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_sort.sort( _array );
+
+		return _array;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[QuadraticSortBenchmark]";
+	}
+}
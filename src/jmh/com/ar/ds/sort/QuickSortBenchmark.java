@@ -0,0 +1,70 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of QuickSort and QuickSort:kernel on the distributions where their pivots stay
+ * balanced, at the sizes of SortBenchmark. SAWTOOTH and ORGAN_PIPE drive both pivot rules
+ * towards Θ(n2), a single kernel sort of 10^8 SAWTOOTH ints takes about ten minutes, so these
+ * are left to QuickSortPatternBenchmark.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--add-modules", "jdk.incubator.vector" } )
+public class QuickSortBenchmark
+{
+	@Param( { "QuickSort", "QuickSort:kernel" } )
+	public String algorithm;
+
+	@Param( { "10", "1000", "100000", "10000000", "100000000" } )
+	public int size;
+
+	@Param( { "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ZIPF" } )
+	public Distribution distribution;
+
+	private ISort _sort;
+	private int[] _input;
+	private int[] _array;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		_sort = SortBenchmark.create( algorithm );
+		_input = distribution.generate( size, SortBenchmark.SEED );
+		_array = new int[ size ];
+	}
+
+	@Benchmark
+	public int[] sort()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_sort.sort( _array );
+
+		return _array;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[QuickSortBenchmark]";
+	}
+}
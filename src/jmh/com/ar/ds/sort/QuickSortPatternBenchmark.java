@@ -0,0 +1,71 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of QuickSort and QuickSort:kernel on SAWTOOTH and ORGAN_PIPE. The middle element
+ * pivot of QuickSort is close to the maximum of an organ pipe, so the sort takes Θ(n2) time and
+ * recursion n / 2 deep, 10^5 elements already overflow the default thread stack. The median of
+ * first, middle and last element of the kernel path falls on the ends of the teeth and the pipe.
+ * Sizes stop at 10^4, where a sort still takes milliseconds.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" } )
+public class QuickSortPatternBenchmark
+{
+	@Param( { "QuickSort", "QuickSort:kernel" } )
+	public String algorithm;
+
+	@Param( { "10", "1000", "10000" } )
+	public int size;
+
+	@Param( { "SAWTOOTH", "ORGAN_PIPE" } )
+	public Distribution distribution;
+
+	private ISort _sort;
+	private int[] _input;
+	private int[] _array;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		_sort = SortBenchmark.create( algorithm );
+		_input = distribution.generate( size, SortBenchmark.SEED );
+		_array = new int[ size ];
+	}
+
+	@Benchmark
+	public int[] sort()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_sort.sort( _array );
+
+		return _array;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[QuickSortPatternBenchmark]";
+	}
+}
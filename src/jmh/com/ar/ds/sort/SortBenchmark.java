@@ -0,0 +1,102 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the O(n log(n)) and linear sorts for every size and input distribution.
+ * Each operation copies the pristine input into the working array and sorts it,
+ * the copy is the same for every algorithm and small against the sort itself.
+ *
+ * 10^8 ints take 400 MB per array, the forks get a heap that holds input, working array
+ * and the scratch buffers of the merge sorts.
+ *
+ * Besides the default instances the algorithms IntroSort:kernel and MergeSort:kernel sort with the
+ * preferred sort kernel, MergeSort:reuse keeps its buffers between operations.
+ *
+ * QuickSort degrades to Θ(n2) on some distributions and is measured by QuickSortBenchmark and
+ * QuickSortPatternBenchmark, so every cell of a full run completes.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = { "-Xms8g", "-Xmx8g", "--add-modules", "jdk.incubator.vector" } )
+public class SortBenchmark
+{
+	public static final long SEED = 0x5EEDL;
+
+	@Param( { "MergeSort", "MergeSort:kernel", "MergeSort:reuse", "HeapSort", "BucketSort", "IntroSort", "IntroSort:kernel", "RadixSort", "NaturalMergeSort", "AdaptiveSort", "ParallelQuickSort", "ParallelMergeSort", "ParallelSampleSort" } )
+	public String algorithm;
+
+	@Param( { "10", "1000", "100000", "10000000", "100000000" } )
+	public int size;
+
+	@Param( { "RANDOM", "SORTED", "REVERSED", "SAWTOOTH", "FEW_UNIQUE", "ZIPF", "ORGAN_PIPE" } )
+	public Distribution distribution;
+
+	private ISort _sort;
+	private int[] _input;
+	private int[] _array;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException
+	{
+		_sort = create( algorithm );
+		_input = distribution.generate( size, SEED );
+		_array = new int[ size ];
+	}
+
+	@Benchmark
+	public int[] sort()
+	{
+		System.arraycopy( _input, 0, _array, 0, size );
+
+		_sort.sort( _array );
+
+		return _array;
+	}
+
+	/**
+	 * Creates the ISort of package com.ar.ds.sort with the given simple class name. The suffix
+	 * :kernel passes SortKernels.preferred() to the constructor, MergeSort:reuse is a MergeSort
+	 * that reuses its buffers.
+	 */
+	static ISort create( String name ) throws ReflectiveOperationException
+	{
+		if( name.equals( "MergeSort:reuse" ) )
+		{
+			return new MergeSort( null, true );
+		}
+
+		if( name.endsWith( ":kernel" ) )
+		{
+			Class<?> type = Class.forName( "com.ar.ds.sort." + name.substring( 0, name.length() - ":kernel".length() ) );
+
+			return ( ISort ) type.getDeclaredConstructor( ISortKernel.class ).newInstance( SortKernels.preferred() );
+		}
+
+		return ( ISort ) Class.forName( "com.ar.ds.sort." + name ).getDeclaredConstructor().newInstance();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortBenchmark]";
+	}
+}
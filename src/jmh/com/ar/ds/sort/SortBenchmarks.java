@@ -0,0 +1,74 @@
+package com.ar.ds.sort;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.LinuxPerfNormProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the sort benchmarks with the allocation profiler ( same as -prof gc ) and, where perf
+ * is installed and allowed to read the counters, the normalized hardware counters
+ * ( same as -prof perfnorm ). Results are written to sort-benchmarks.json.
+ *
+ * Any JMH command line option is passed on, e.g. -p size=1000,100000 -p distribution=RANDOM
+ * to narrow the parameter space.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class SortBenchmarks
+{
+	public static final String RESULT_FILE = "sort-benchmarks.json";
+
+	private SortBenchmarks()
+	{
+	}
+
+	public static void main( String[] args ) throws RunnerException, CommandLineOptionException
+	{
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent( new CommandLineOptions( args ) )
+				.include( SortBenchmark.class.getSimpleName() )
+				.include( QuickSortBenchmark.class.getSimpleName() )
+				.include( QuickSortPatternBenchmark.class.getSimpleName() )
+				.include( QuadraticSortBenchmark.class.getSimpleName() )
+				.addProfiler( GCProfiler.class )
+				.resultFormat( ResultFormatType.JSON )
+				.result( RESULT_FILE );
+
+		if( isPerfAvailable() )
+		{
+			options.addProfiler( LinuxPerfNormProfiler.class );
+		}
+
+		new Runner( options.build() ).run();
+	}
+
+	/**
+	 * The perf profilers check for the perf binary and its permissions when they are created.
+	 */
+	private static boolean isPerfAvailable()
+	{
+		try
+		{
+			new LinuxPerfNormProfiler( "" );
+			return true;
+		}
+		catch( ProfilerException e )
+		{
+			return false;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortBenchmarks]";
+	}
+}
@@ -0,0 +1,363 @@
+package com.ar.ds.map;
+
+import java.util.Arrays;
+
+/**
+ * Map from int to int in two parallel arrays, open addressing with linear probing, no boxing.
+ *
+ * The table is laid out like com.ar.ds.sets.IntHashSet: a power of two of slots, the home slot of a key
+ * is its golden ratio hash & mask, 0 marks a free slot and the entry of the key 0 is kept aside.
+ * Removal shifts the following entries of the probe sequence back instead of leaving tombstones.
+ *
+ * A missing key reads as 0, containsKey tells it apart from a stored 0. addTo makes counting cheap,
+ * a single probe instead of a get and a put. An entry takes 10.7 to 21.3 bytes at the default load
+ * factor, HashMap<Integer, Integer> takes about 70.
+ *
+ * http://en.wikipedia.org/wiki/Linear_probing
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class IntIntHashMap
+{
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+	public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * Receives the entries of a map.
+	 */
+	public interface IEntryConsumer
+	{
+		void accept( int key, int value );
+	}
+
+	private final float _loadFactor;
+
+	private int[] _keys;
+	private int[] _values;
+	private int _mask;
+	private int _assigned;
+	private int _resizeAt;
+	private boolean _hasZeroKey;
+	private int _zeroValue;
+
+	public IntIntHashMap()
+	{
+		this( DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR );
+	}
+
+	public IntIntHashMap( int expectedSize )
+	{
+		this( expectedSize, DEFAULT_LOAD_FACTOR );
+	}
+
+	/**
+	 * @param expectedSize number of entries that fit without a rehash
+	 * @param loadFactor   largest share of occupied slots, in ( 0, 1 )
+	 */
+	public IntIntHashMap( int expectedSize, float loadFactor )
+	{
+		if( expectedSize < 0 )
+		{
+			throw new IllegalArgumentException( "expectedSize must not be negative" );
+		}
+
+		if( !( loadFactor > 0 && loadFactor < 1 ) )
+		{
+			throw new IllegalArgumentException( "loadFactor must be in ( 0, 1 )" );
+		}
+
+		_loadFactor = loadFactor;
+
+		long slots = ( long ) Math.ceil( Math.max( expectedSize, 1 ) / ( double ) loadFactor ) + 1;
+
+		if( slots > MAX_CAPACITY )
+		{
+			throw new IllegalArgumentException( "expectedSize is too large: " + expectedSize );
+		}
+
+		allocate( Math.max( 4, Integer.highestOneBit( ( int ) slots - 1 ) << 1 ) );
+	}
+
+	private void allocate( int capacity )
+	{
+		_keys = new int[ capacity ];
+		_values = new int[ capacity ];
+		_mask = capacity - 1;
+		_resizeAt = Math.min( capacity - 1, ( int ) Math.ceil( capacity * _loadFactor ) );
+	}
+
+	private void grow()
+	{
+		int[] oldKeys = _keys;
+		int[] oldValues = _values;
+
+		if( oldKeys.length == MAX_CAPACITY )
+		{
+			throw new IllegalStateException( "IntIntHashMap is full" );
+		}
+
+		allocate( 2 * oldKeys.length );
+
+		int[] keys = _keys;
+		int[] values = _values;
+		int mask = _mask;
+
+		for( int i = 0; i < oldKeys.length; i++ )
+		{
+			int key = oldKeys[ i ];
+
+			if( key != 0 )
+			{
+				int slot = mix( key ) & mask;
+
+				while( keys[ slot ] != 0 )
+				{
+					slot = ( slot + 1 ) & mask;
+				}
+
+				keys[ slot ] = key;
+				values[ slot ] = oldValues[ i ];
+			}
+		}
+	}
+
+	private static int mix( int key )
+	{
+		int h = key * 0x9E3779B9;
+
+		return h ^ ( h >>> 16 );
+	}
+
+	/**
+	 * Slot of key, -( free slot + 1 ) where it would go if it is missing. key must not be 0.
+	 */
+	private int slotOf( int key )
+	{
+		int[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		int existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return slot;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return -( slot + 1 );
+	}
+
+	public int get( int key )
+	{
+		return getOrDefault( key, 0 );
+	}
+
+	public int getOrDefault( int key, int defaultValue )
+	{
+		if( key == 0 )
+		{
+			return _hasZeroKey ? _zeroValue : defaultValue;
+		}
+
+		int slot = slotOf( key );
+
+		return slot >= 0 ? _values[ slot ] : defaultValue;
+	}
+
+	public boolean containsKey( int key )
+	{
+		return key == 0 ? _hasZeroKey : slotOf( key ) >= 0;
+	}
+
+	/**
+	 * @return the previous value of key, 0 if there was none
+	 */
+	public int put( int key, int value )
+	{
+		if( key == 0 )
+		{
+			int previous = _hasZeroKey ? _zeroValue : 0;
+
+			_hasZeroKey = true;
+			_zeroValue = value;
+
+			return previous;
+		}
+
+		int slot = slotOf( key );
+
+		if( slot >= 0 )
+		{
+			int previous = _values[ slot ];
+			_values[ slot ] = value;
+
+			return previous;
+		}
+
+		insert( -slot - 1, key, value );
+
+		return 0;
+	}
+
+	/**
+	 * Adds increment to the value of key, which starts at 0 if it is missing.
+	 *
+	 * @return the new value
+	 */
+	public int addTo( int key, int increment )
+	{
+		if( key == 0 )
+		{
+			_zeroValue = ( _hasZeroKey ? _zeroValue : 0 ) + increment;
+			_hasZeroKey = true;
+
+			return _zeroValue;
+		}
+
+		int slot = slotOf( key );
+
+		if( slot >= 0 )
+		{
+			return _values[ slot ] += increment;
+		}
+
+		insert( -slot - 1, key, increment );
+
+		return increment;
+	}
+
+	private void insert( int slot, int key, int value )
+	{
+		if( _assigned == _resizeAt )
+		{
+			grow();
+			slot = -slotOf( key ) - 1;
+		}
+
+		_keys[ slot ] = key;
+		_values[ slot ] = value;
+		_assigned++;
+	}
+
+	/**
+	 * @return the removed value, 0 if key was missing
+	 */
+	public int remove( int key )
+	{
+		if( key == 0 )
+		{
+			int previous = _hasZeroKey ? _zeroValue : 0;
+
+			_hasZeroKey = false;
+			_zeroValue = 0;
+
+			return previous;
+		}
+
+		int slot = slotOf( key );
+
+		if( slot < 0 )
+		{
+			return 0;
+		}
+
+		int previous = _values[ slot ];
+
+		shiftConflictingEntries( slot );
+		_assigned--;
+
+		return previous;
+	}
+
+	/**
+	 * Moves the next entry of the probe sequence that stays reachable from its home slot into the gap,
+	 * until the gap reaches a free slot.
+	 */
+	private void shiftConflictingEntries( int gap )
+	{
+		int[] keys = _keys;
+		int[] values = _values;
+		int mask = _mask;
+		int distance = 0;
+
+		while( true )
+		{
+			int slot = ( gap + ++distance ) & mask;
+			int existing = keys[ slot ];
+
+			if( existing == 0 )
+			{
+				break;
+			}
+
+			if( ( ( slot - mix( existing ) ) & mask ) >= distance )
+			{
+				keys[ gap ] = existing;
+				values[ gap ] = values[ slot ];
+				gap = slot;
+				distance = 0;
+			}
+		}
+
+		keys[ gap ] = 0;
+		values[ gap ] = 0;
+	}
+
+	public int size()
+	{
+		return _assigned + ( _hasZeroKey ? 1 : 0 );
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all entries and keeps the capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill( _keys, 0 );
+		Arrays.fill( _values, 0 );
+
+		_assigned = 0;
+		_hasZeroKey = false;
+		_zeroValue = 0;
+	}
+
+	/**
+	 * Calls action with every entry in table order. The map must not change meanwhile.
+	 */
+	public void forEach( IEntryConsumer action )
+	{
+		if( _hasZeroKey )
+		{
+			action.accept( 0, _zeroValue );
+		}
+
+		int[] keys = _keys;
+		int[] values = _values;
+
+		for( int i = 0; i < keys.length; i++ )
+		{
+			if( keys[ i ] != 0 )
+			{
+				action.accept( keys[ i ], values[ i ] );
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[IntIntHashMap]";
+	}
+}
@@ -0,0 +1,334 @@
+package com.ar.ds.map;
+
+import java.util.Arrays;
+
+/**
+ * Map from long to objects in a key and a value array, open addressing with linear probing,
+ * the same table as IntIntHashMap with a 64 bit golden ratio hash.
+ *
+ * Keys are never boxed, only the values are references. get returns null for a missing key,
+ * null values are allowed and containsKey tells them apart. Removal shifts the following entries back
+ * and clears the value slot it frees, so removed values can be collected.
+ *
+ * An entry takes 16 to 32 bytes at the default load factor with compressed references,
+ * HashMap<Long, V> takes about 55 and one more object per key.
+ *
+ * http://en.wikipedia.org/wiki/Linear_probing
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class LongObjectHashMap<V>
+{
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+	public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * Receives the entries of a map.
+	 */
+	public interface IEntryConsumer<V>
+	{
+		void accept( long key, V value );
+	}
+
+	private final float _loadFactor;
+
+	private long[] _keys;
+	private Object[] _values;
+	private int _mask;
+	private int _assigned;
+	private int _resizeAt;
+	private boolean _hasZeroKey;
+	private V _zeroValue;
+
+	public LongObjectHashMap()
+	{
+		this( DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR );
+	}
+
+	public LongObjectHashMap( int expectedSize )
+	{
+		this( expectedSize, DEFAULT_LOAD_FACTOR );
+	}
+
+	/**
+	 * @param expectedSize number of entries that fit without a rehash
+	 * @param loadFactor   largest share of occupied slots, in ( 0, 1 )
+	 */
+	public LongObjectHashMap( int expectedSize, float loadFactor )
+	{
+		if( expectedSize < 0 )
+		{
+			throw new IllegalArgumentException( "expectedSize must not be negative" );
+		}
+
+		if( !( loadFactor > 0 && loadFactor < 1 ) )
+		{
+			throw new IllegalArgumentException( "loadFactor must be in ( 0, 1 )" );
+		}
+
+		_loadFactor = loadFactor;
+
+		long slots = ( long ) Math.ceil( Math.max( expectedSize, 1 ) / ( double ) loadFactor ) + 1;
+
+		if( slots > MAX_CAPACITY )
+		{
+			throw new IllegalArgumentException( "expectedSize is too large: " + expectedSize );
+		}
+
+		allocate( Math.max( 4, Integer.highestOneBit( ( int ) slots - 1 ) << 1 ) );
+	}
+
+	private void allocate( int capacity )
+	{
+		_keys = new long[ capacity ];
+		_values = new Object[ capacity ];
+		_mask = capacity - 1;
+		_resizeAt = Math.min( capacity - 1, ( int ) Math.ceil( capacity * _loadFactor ) );
+	}
+
+	private void grow()
+	{
+		long[] oldKeys = _keys;
+		Object[] oldValues = _values;
+
+		if( oldKeys.length == MAX_CAPACITY )
+		{
+			throw new IllegalStateException( "LongObjectHashMap is full" );
+		}
+
+		allocate( 2 * oldKeys.length );
+
+		long[] keys = _keys;
+		Object[] values = _values;
+		int mask = _mask;
+
+		for( int i = 0; i < oldKeys.length; i++ )
+		{
+			long key = oldKeys[ i ];
+
+			if( key != 0 )
+			{
+				int slot = mix( key ) & mask;
+
+				while( keys[ slot ] != 0 )
+				{
+					slot = ( slot + 1 ) & mask;
+				}
+
+				keys[ slot ] = key;
+				values[ slot ] = oldValues[ i ];
+			}
+		}
+	}
+
+	private static int mix( long key )
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		h ^= h >>> 32;
+
+		return ( int ) ( h ^ ( h >>> 16 ) );
+	}
+
+	/**
+	 * Slot of key, -( free slot + 1 ) where it would go if it is missing. key must not be 0.
+	 */
+	private int slotOf( long key )
+	{
+		long[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		long existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return slot;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return -( slot + 1 );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	public V get( long key )
+	{
+		if( key == 0 )
+		{
+			return _zeroValue;
+		}
+
+		int slot = slotOf( key );
+
+		return slot >= 0 ? ( V ) _values[ slot ] : null;
+	}
+
+	public boolean containsKey( long key )
+	{
+		return key == 0 ? _hasZeroKey : slotOf( key ) >= 0;
+	}
+
+	/**
+	 * @return the previous value of key, null if there was none
+	 */
+	@SuppressWarnings( "unchecked" )
+	public V put( long key, V value )
+	{
+		if( key == 0 )
+		{
+			V previous = _zeroValue;
+
+			_hasZeroKey = true;
+			_zeroValue = value;
+
+			return previous;
+		}
+
+		int slot = slotOf( key );
+
+		if( slot >= 0 )
+		{
+			V previous = ( V ) _values[ slot ];
+			_values[ slot ] = value;
+
+			return previous;
+		}
+
+		if( _assigned == _resizeAt )
+		{
+			grow();
+			slot = slotOf( key );
+		}
+
+		slot = -slot - 1;
+
+		_keys[ slot ] = key;
+		_values[ slot ] = value;
+		_assigned++;
+
+		return null;
+	}
+
+	/**
+	 * @return the removed value, null if key was missing
+	 */
+	@SuppressWarnings( "unchecked" )
+	public V remove( long key )
+	{
+		if( key == 0 )
+		{
+			V previous = _zeroValue;
+
+			_hasZeroKey = false;
+			_zeroValue = null;
+
+			return previous;
+		}
+
+		int slot = slotOf( key );
+
+		if( slot < 0 )
+		{
+			return null;
+		}
+
+		V previous = ( V ) _values[ slot ];
+
+		shiftConflictingEntries( slot );
+		_assigned--;
+
+		return previous;
+	}
+
+	/**
+	 * Moves the next entry of the probe sequence that stays reachable from its home slot into the gap,
+	 * until the gap reaches a free slot.
+	 */
+	private void shiftConflictingEntries( int gap )
+	{
+		long[] keys = _keys;
+		Object[] values = _values;
+		int mask = _mask;
+		int distance = 0;
+
+		while( true )
+		{
+			int slot = ( gap + ++distance ) & mask;
+			long existing = keys[ slot ];
+
+			if( existing == 0 )
+			{
+				break;
+			}
+
+			if( ( ( slot - mix( existing ) ) & mask ) >= distance )
+			{
+				keys[ gap ] = existing;
+				values[ gap ] = values[ slot ];
+				gap = slot;
+				distance = 0;
+			}
+		}
+
+		keys[ gap ] = 0;
+		values[ gap ] = null;
+	}
+
+	public int size()
+	{
+		return _assigned + ( _hasZeroKey ? 1 : 0 );
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all entries and keeps the capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill( _keys, 0 );
+		Arrays.fill( _values, null );
+
+		_assigned = 0;
+		_hasZeroKey = false;
+		_zeroValue = null;
+	}
+
+	/**
+	 * Calls action with every entry in table order. The map must not change meanwhile.
+	 */
+	@SuppressWarnings( "unchecked" )
+	public void forEach( IEntryConsumer<? super V> action )
+	{
+		if( _hasZeroKey )
+		{
+			action.accept( 0, _zeroValue );
+		}
+
+		long[] keys = _keys;
+		Object[] values = _values;
+
+		for( int i = 0; i < keys.length; i++ )
+		{
+			if( keys[ i ] != 0 )
+			{
+				action.accept( keys[ i ], ( V ) values[ i ] );
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[LongObjectHashMap]";
+	}
+}
@@ -0,0 +1,219 @@
+package com.ar.ds.search;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Looks up a whole batch of keys in the same sorted array. Each result is what BinarySearch.search
+ * returns: the index of the first occurrence of the key, -1 if there is none.
+ *
+ * Sorted batches are answered by a single sweep through the array, like a merge. Each key gallops
+ * forward from the result of the previous one, 1, 2, 4, ... elements, and is then binary searched
+ * within the last step. m keys cost O(m log(n / m)) instead of O(m log(n)).
+ *
+ * Unsorted batches are searched GROUP_SIZE keys at a time. The branch-free search of BinarySearch takes
+ * the same steps for every key of an array, so the keys of a group all advance by one step before
+ * any of them takes the next. Their loads do not depend on each other, the CPU keeps the cache misses
+ * of the whole group in flight at once instead of waiting for one after the other.
+ *
+ * Batches of at least parallelThreshold keys are split among the tasks of a fork-join pool.
+ *
+ * Requires input array to be sorted!
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class BatchSearch
+{
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+	public static final int GROUP_SIZE = 16;
+
+	private final ForkJoinPool _pool;
+	private final int _parallelThreshold;
+
+	public BatchSearch()
+	{
+		this( ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD );
+	}
+
+	/**
+	 * @param pool              searches large batches, null to always search sequentially
+	 * @param parallelThreshold smallest batch that is split among tasks, also their smallest share
+	 */
+	public BatchSearch( ForkJoinPool pool, int parallelThreshold )
+	{
+		if( parallelThreshold < 1 )
+		{
+			throw new IllegalArgumentException( "parallelThreshold must be at least 1" );
+		}
+
+		_pool = pool;
+		_parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Writes the result of queries[ i ] to out[ i ].
+	 */
+	public void search( int[] sortedArray, int[] queries, int[] out )
+	{
+		int m = queries.length;
+
+		if( out.length < m )
+		{
+			throw new IllegalArgumentException( "out is shorter than queries" );
+		}
+
+		boolean sorted = isSorted( queries );
+
+		if( _pool != null && m >= 2 * _parallelThreshold )
+		{
+			_pool.invoke( new SearchTask( sortedArray, queries, out, 0, m, sorted, _parallelThreshold ) );
+		}
+		else
+		{
+			search( sortedArray, queries, out, 0, m, sorted );
+		}
+	}
+
+	private static boolean isSorted( int[] queries )
+	{
+		for( int i = 1; i < queries.length; i++ )
+		{
+			if( queries[ i ] < queries[ i - 1 ] )
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	static void search( int[] array, int[] queries, int[] out, int from, int to, boolean sorted )
+	{
+		if( array.length == 0 )
+		{
+			Arrays.fill( out, from, to, -1 );
+		}
+		else if( sorted )
+		{
+			sweep( array, queries, out, from, to );
+		}
+		else
+		{
+			interleave( array, queries, out, from, to );
+		}
+	}
+
+	/**
+	 * Searches the sorted keys of [from, to), each one starting where the previous one was found.
+	 */
+	private static void sweep( int[] array, int[] queries, int[] out, int from, int to )
+	{
+		int n = array.length;
+		int position = 0;
+
+		for( int i = from; i < to; i++ )
+		{
+			int key = queries[ i ];
+
+			position = ExponentialSearch.lowerBound( array, position, n, key );
+			out[ i ] = position < n && array[ position ] == key ? position : -1;
+		}
+	}
+
+	/**
+	 * Searches the keys of [from, to) in groups of GROUP_SIZE that advance in lockstep.
+	 */
+	private static void interleave( int[] array, int[] queries, int[] out, int from, int to )
+	{
+		int n = array.length;
+		int[] base = new int[ GROUP_SIZE ];
+		int i = from;
+
+		for( ; i + GROUP_SIZE <= to; i += GROUP_SIZE )
+		{
+			Arrays.fill( base, 0 );
+
+			int length = n;
+
+			while( length > 1 )
+			{
+				int half = length >>> 1;
+
+				for( int j = 0; j < GROUP_SIZE; j++ )
+				{
+					base[ j ] += BinarySearch.lessThan( array[ base[ j ] + half - 1 ], queries[ i + j ] ) * half;
+				}
+
+				length -= half;
+			}
+
+			for( int j = 0; j < GROUP_SIZE; j++ )
+			{
+				int key = queries[ i + j ];
+				int position = base[ j ] + BinarySearch.lessThan( array[ base[ j ] ], key );
+
+				out[ i + j ] = position < n && array[ position ] == key ? position : -1;
+			}
+		}
+
+		for( ; i < to; i++ )
+		{
+			out[ i ] = BinarySearch.search( array, queries[ i ] );
+		}
+	}
+
+	public int getParallelThreshold()
+	{
+		return _parallelThreshold;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[BatchSearch]";
+	}
+
+	/**
+	 * Halves the keys of [from, to) until they are below twice the threshold.
+	 */
+	private static final class SearchTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int[] _queries;
+		private final int[] _out;
+		private final int _from;
+		private final int _to;
+		private final boolean _sorted;
+		private final int _threshold;
+
+		SearchTask( int[] array, int[] queries, int[] out, int from, int to, boolean sorted, int threshold )
+		{
+			_array = array;
+			_queries = queries;
+			_out = out;
+			_from = from;
+			_to = to;
+			_sorted = sorted;
+			_threshold = threshold;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if( _to - _from < 2 * _threshold )
+			{
+				search( _array, _queries, _out, _from, _to, _sorted );
+				return;
+			}
+
+			int middle = ( _from + _to ) >>> 1;
+
+			invokeAll( new SearchTask( _array, _queries, _out, _from, middle, _sorted, _threshold ),
+					new SearchTask( _array, _queries, _out, middle, _to, _sorted, _threshold ) );
+		}
+	}
+}
@@ -1,6 +1,22 @@
 package com.ar.ds.search;
 
 /**
+ * Binary search over sorted int, long and double arrays.
+ *
+ * lowerBound and upperBound return insertion points instead of hits, equalRange and countInRange
+ * build on them. They are iterative and branch-free: each step halves the range and moves its base
+ * by half times the sign bit of element - key, which is computed instead of branched on (the JIT
+ * compiles a conditional expression here to a jump). Every search of a range of length n takes the
+ * same ceil(log2(n)) + 1 probes, no matter where the key is found, so random keys cause no branch
+ * mispredictions. On arrays much larger than the caches each step has to wait for its load, where
+ * a branching search speculates ahead, see StaticSearchIndex for those.
+ *
+ * search is built on lowerBound and returns the first occurrence of a value that is stored more
+ * than once. The former recursive search returned whichever occurrence it probed first.
+ *
+ * Ranges are [from, to) as in java.util.Arrays. Doubles are compared in the order of Double.compare,
+ * the order Arrays.sort leaves them in: -0.0 before 0.0 and NaN after all other values.
+ *
  * @author Alan Ross
  * @version 0.1
  */
@@ -11,6 +27,9 @@ public final class BinarySearch
 
 	}
 
+	/**
+	 * Index of the first occurrence of value in the sorted array, -1 if there is none.
+	 */
 	public static int search( int[] array, int value )
 	{
 		return search( array, value, 0, array.length - 1 );
@@ -18,11 +37,12 @@ public final class BinarySearch
 
 	/**
 	 * Worst case performance	O(log n)
-	 * Best case performance	O(1)
+	 * Best case performance	O(log n)
 	 * Average case performance	O(log n)
-	 * Worst case space complexity
+	 * Worst case space complexity	O(1)
 	 * <p/>
 	 * Requires input array to be sorted!
+	 * Returns the index of the first occurrence of value in [low, high], -1 if there is none.
 	 */
 	public static int search( int[] array, int value, int low, int high )
 	{
@@ -31,19 +51,348 @@ public final class BinarySearch
 			return -1; // not found
 		}
 
-		int mid = low + ( high - low ) / 2;
+		int index = lowerBound( array, low, high + 1, value );
+
+		if( index <= high && array[ index ] == value )
+		{
+			return index; // found
+		}
+
+		return -1; // not found
+	}
+
+	public static int lowerBound( int[] array, int key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 */
+	public static int lowerBound( int[] array, int from, int to, int key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
+		{
+			int half = length >>> 1;
+
+			base += lessThan( array[ base + half - 1 ], key ) * half;
+			length -= half;
+		}
+
+		return array[ base ] < key ? base + 1 : base;
+	}
+
+	public static int upperBound( int[] array, int key )
+	{
+		return upperBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is greater than key, to if there is none.
+	 */
+	public static int upperBound( int[] array, int from, int to, int key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
+		{
+			int half = length >>> 1;
+
+			base += ( 1 - lessThan( key, array[ base + half - 1 ] ) ) * half;
+			length -= half;
+		}
+
+		return array[ base ] <= key ? base + 1 : base;
+	}
+
+	public static int[] equalRange( int[] array, int key )
+	{
+		return equalRange( array, 0, array.length, key );
+	}
+
+	/**
+	 * The range [ lowerBound, upperBound ) of the elements of [from, to) equal to key, as a pair.
+	 * It is empty and marks the insertion point if there are none.
+	 */
+	public static int[] equalRange( int[] array, int from, int to, int key )
+	{
+		int lower = lowerBound( array, from, to, key );
+
+		return new int[]{ lower, upperBound( array, lower, to, key ) };
+	}
+
+	public static int countInRange( int[] array, int min, int max )
+	{
+		return countInRange( array, 0, array.length, min, max );
+	}
+
+	/**
+	 * Number of elements of [from, to) with min <= element <= max, 0 if min > max.
+	 */
+	public static int countInRange( int[] array, int from, int to, int min, int max )
+	{
+		if( min > max )
+		{
+			rangeCheck( array.length, from, to );
+			return 0;
+		}
+
+		int lower = lowerBound( array, from, to, min );
+
+		return upperBound( array, lower, to, max ) - lower;
+	}
+
+	public static int lowerBound( long[] array, long key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 */
+	public static int lowerBound( long[] array, int from, int to, long key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
+		{
+			int half = length >>> 1;
+
+			base += lessThan( array[ base + half - 1 ], key ) * half;
+			length -= half;
+		}
+
+		return array[ base ] < key ? base + 1 : base;
+	}
+
+	public static int upperBound( long[] array, long key )
+	{
+		return upperBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is greater than key, to if there is none.
+	 */
+	public static int upperBound( long[] array, int from, int to, long key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
+		{
+			int half = length >>> 1;
+
+			base += ( 1 - lessThan( key, array[ base + half - 1 ] ) ) * half;
+			length -= half;
+		}
+
+		return array[ base ] <= key ? base + 1 : base;
+	}
+
+	public static int[] equalRange( long[] array, long key )
+	{
+		return equalRange( array, 0, array.length, key );
+	}
+
+	/**
+	 * The range [ lowerBound, upperBound ) of the elements of [from, to) equal to key, as a pair.
+	 * It is empty and marks the insertion point if there are none.
+	 */
+	public static int[] equalRange( long[] array, int from, int to, long key )
+	{
+		int lower = lowerBound( array, from, to, key );
+
+		return new int[]{ lower, upperBound( array, lower, to, key ) };
+	}
+
+	public static int countInRange( long[] array, long min, long max )
+	{
+		return countInRange( array, 0, array.length, min, max );
+	}
 
-		if( array[ mid ] > value )
+	/**
+	 * Number of elements of [from, to) with min <= element <= max, 0 if min > max.
+	 */
+	public static int countInRange( long[] array, int from, int to, long min, long max )
+	{
+		if( min > max )
 		{
-			return search( array, value, low, mid - 1 );
+			rangeCheck( array.length, from, to );
+			return 0;
 		}
-		else if( array[ mid ] < value )
+
+		int lower = lowerBound( array, from, to, min );
+
+		return upperBound( array, lower, to, max ) - lower;
+	}
+
+	public static int lowerBound( double[] array, double key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 */
+	public static int lowerBound( double[] array, int from, int to, double key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		long bits = sortableBits( key );
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
 		{
-			return search( array, value, mid + 1, high );
+			int half = length >>> 1;
+
+			base += lessThan( sortableBits( array[ base + half - 1 ] ), bits ) * half;
+			length -= half;
 		}
-		else
+
+		return sortableBits( array[ base ] ) < bits ? base + 1 : base;
+	}
+
+	public static int upperBound( double[] array, double key )
+	{
+		return upperBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is greater than key, to if there is none.
+	 */
+	public static int upperBound( double[] array, int from, int to, double key )
+	{
+		rangeCheck( array.length, from, to );
+
+		if( from == to )
+		{
+			return from;
+		}
+
+		long bits = sortableBits( key );
+		int base = from;
+		int length = to - from;
+
+		while( length > 1 )
+		{
+			int half = length >>> 1;
+
+			base += ( 1 - lessThan( bits, sortableBits( array[ base + half - 1 ] ) ) ) * half;
+			length -= half;
+		}
+
+		return sortableBits( array[ base ] ) <= bits ? base + 1 : base;
+	}
+
+	public static int[] equalRange( double[] array, double key )
+	{
+		return equalRange( array, 0, array.length, key );
+	}
+
+	/**
+	 * The range [ lowerBound, upperBound ) of the elements of [from, to) equal to key, as a pair.
+	 * It is empty and marks the insertion point if there are none.
+	 */
+	public static int[] equalRange( double[] array, int from, int to, double key )
+	{
+		int lower = lowerBound( array, from, to, key );
+
+		return new int[]{ lower, upperBound( array, lower, to, key ) };
+	}
+
+	public static int countInRange( double[] array, double min, double max )
+	{
+		return countInRange( array, 0, array.length, min, max );
+	}
+
+	/**
+	 * Number of elements of [from, to) with min <= element <= max, 0 if min > max.
+	 */
+	public static int countInRange( double[] array, int from, int to, double min, double max )
+	{
+		if( Double.compare( min, max ) > 0 )
+		{
+			rangeCheck( array.length, from, to );
+			return 0;
+		}
+
+		int lower = lowerBound( array, from, to, min );
+
+		return upperBound( array, lower, to, max ) - lower;
+	}
+
+	/**
+	 * 1 if a < b, else 0. Computed from the sign of a - b, which cannot overflow as a long.
+	 */
+	static int lessThan( int a, int b )
+	{
+		return ( int ) ( ( ( long ) a - b ) >>> 63 );
+	}
+
+	/**
+	 * 1 if a < b, else 0. Computed from the sign of a - b, corrected for overflow, without a compare.
+	 */
+	static int lessThan( long a, long b )
+	{
+		long difference = a - b;
+
+		return ( int ) ( ( difference ^ ( ( a ^ b ) & ( difference ^ a ) ) ) >>> 63 );
+	}
+
+	/**
+	 * Maps a double to a long in the same order as Double.compare, all NaNs to the same long.
+	 */
+	static long sortableBits( double value )
+	{
+		long bits = Double.doubleToLongBits( value );
+
+		return bits ^ ( ( bits >> 63 ) & Long.MAX_VALUE );
+	}
+
+	static void rangeCheck( int length, int from, int to )
+	{
+		if( from < 0 || to > length || from > to )
 		{
-			return mid; // found
+			throw new IndexOutOfBoundsException( "from: " + from + ", to: " + to + ", length: " + length );
 		}
 	}
 
@@ -52,4 +401,4 @@ public final class BinarySearch
 	{
 		return "[BinarySearch]";
 	}
-}
\ No newline at end of file
+}
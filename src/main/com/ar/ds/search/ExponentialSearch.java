@@ -0,0 +1,185 @@
+package com.ar.ds.search;
+
+/**
+ * Exponential ( galloping ) search:
+ * Probes from + 1, from + 2, from + 4, ... until it passes the key and binary searches the last step
+ * ( O(log d) for a bound d elements behind from ).
+ *
+ * The cost depends on how far the key is from the start, not on the length of the range, which fits
+ * streams whose length is not known yet and keys that are expected close to a hint, e.g. the result
+ * of the previous search. The end of the range is only ever used to stop, so Integer.MAX_VALUE like
+ * bounds cost nothing more than exact ones as long as the key is near.
+ *
+ * Results are the same as those of BinarySearch. Ranges are [from, to).
+ *
+ * Requires input array to be sorted!
+ *
+ * http://en.wikipedia.org/wiki/Exponential_search
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ExponentialSearch
+{
+	private ExponentialSearch()
+	{
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public static int search( int[] array, int key )
+	{
+		int index = lowerBound( array, 0, array.length, key );
+
+		return index < array.length && array[ index ] == key ? index : -1;
+	}
+
+	public static int lowerBound( int[] array, int key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 * Gallops forward from from.
+	 */
+	public static int lowerBound( int[] array, int from, int to, int key )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		if( from == to || array[ from ] >= key )
+		{
+			return from;
+		}
+
+		// array[ low - 1 ] < key, the bound is in [low, high]
+		int low = from + 1;
+		int high = low;
+		int step = 1;
+
+		while( high < to && array[ high ] < key )
+		{
+			low = high + 1;
+			step <<= 1;
+			high = step < to - from ? from + step : to;
+		}
+
+		return BinarySearch.lowerBound( array, low, Math.min( high, to ), key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 * Gallops from hint towards the bound, in whichever direction it lies.
+	 */
+	public static int lowerBound( int[] array, int from, int to, int key, int hint )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		if( hint < from || hint >= to )
+		{
+			throw new IndexOutOfBoundsException( "hint: " + hint + ", from: " + from + ", to: " + to );
+		}
+
+		if( array[ hint ] < key )
+		{
+			return lowerBound( array, hint + 1, to, key );
+		}
+
+		// array[ high ] >= key, the bound is in [low, high]
+		int high = hint;
+		int low = hint;
+		int step = 1;
+
+		while( low > from && array[ low - 1 ] >= key )
+		{
+			high = low - 1;
+			step <<= 1;
+			low = step < hint - from ? hint - step : from;
+		}
+
+		return BinarySearch.lowerBound( array, low, high, key );
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public static int search( long[] array, long key )
+	{
+		int index = lowerBound( array, 0, array.length, key );
+
+		return index < array.length && array[ index ] == key ? index : -1;
+	}
+
+	public static int lowerBound( long[] array, long key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 * Gallops forward from from.
+	 */
+	public static int lowerBound( long[] array, int from, int to, long key )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		if( from == to || array[ from ] >= key )
+		{
+			return from;
+		}
+
+		// array[ low - 1 ] < key, the bound is in [low, high]
+		int low = from + 1;
+		int high = low;
+		int step = 1;
+
+		while( high < to && array[ high ] < key )
+		{
+			low = high + 1;
+			step <<= 1;
+			high = step < to - from ? from + step : to;
+		}
+
+		return BinarySearch.lowerBound( array, low, Math.min( high, to ), key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 * Gallops from hint towards the bound, in whichever direction it lies.
+	 */
+	public static int lowerBound( long[] array, int from, int to, long key, int hint )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		if( hint < from || hint >= to )
+		{
+			throw new IndexOutOfBoundsException( "hint: " + hint + ", from: " + from + ", to: " + to );
+		}
+
+		if( array[ hint ] < key )
+		{
+			return lowerBound( array, hint + 1, to, key );
+		}
+
+		// array[ high ] >= key, the bound is in [low, high]
+		int high = hint;
+		int low = hint;
+		int step = 1;
+
+		while( low > from && array[ low - 1 ] >= key )
+		{
+			high = low - 1;
+			step <<= 1;
+			low = step < hint - from ? hint - step : from;
+		}
+
+		return BinarySearch.lowerBound( array, low, high, key );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ExponentialSearch]";
+	}
+}
@@ -0,0 +1,21 @@
+package com.ar.ds.search;
+
+/**
+ * Scans a single node of a static search tree: a block of NODE_SIZE sorted keys.
+ * Implementations keep no state and may be shared between threads.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface ISearchKernel
+{
+	/**
+	 * Keys per node, 64 bytes of ints or one cache line.
+	 */
+	int NODE_SIZE = 16;
+
+	/**
+	 * Number of the NODE_SIZE keys at keys[ offset ], ... that are less than key.
+	 */
+	int rank( int[] keys, int offset, int key );
+}
@@ -0,0 +1,253 @@
+package com.ar.ds.search;
+
+/**
+ * Interpolation search guarded by bisection, finished by a sequential scan.
+ *
+ * 1. The next probe is guessed from the key's place between the first and last value of the range,
+ * as in looking up a name in a phone book. On evenly spread keys, e.g. sequential ids with gaps,
+ * this needs O(log log n) probes.
+ * 2. A second probe SEQUENTIAL_THRESHOLD elements behind the first, on the side of the key, narrows
+ * the range down to that window if the guess was close.
+ * 3. If both probes did not at least halve the range the keys are skewed, a bisection step follows,
+ * so no search takes more than 3 * log2(n) probes, O(log n) like BinarySearch.
+ * 4. Ranges of up to SEQUENTIAL_THRESHOLD elements are scanned, the interpolation has usually
+ * landed that close and a scan through a cache line is cheaper than more divisions.
+ *
+ * Results are the same as those of BinarySearch. Ranges are [from, to).
+ *
+ * Requires input array to be sorted!
+ *
+ * http://en.wikipedia.org/wiki/Interpolation_search
+ * Van Sandt, Chronis, Patel: Efficiently Searching In-Memory Sorted Arrays: Revenge of the Interpolation Search?
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class InterpolationSearch
+{
+	public static final int SEQUENTIAL_THRESHOLD = 16;
+
+	private InterpolationSearch()
+	{
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public static int search( int[] array, int key )
+	{
+		int index = lowerBound( array, 0, array.length, key );
+
+		return index < array.length && array[ index ] == key ? index : -1;
+	}
+
+	public static int lowerBound( int[] array, int key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 */
+	public static int lowerBound( int[] array, int from, int to, int key )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		// The bound is in [low, high + 1]
+		int low = from;
+		int high = to - 1;
+
+		while( high - low >= SEQUENTIAL_THRESHOLD )
+		{
+			int lowValue = array[ low ];
+			int highValue = array[ high ];
+
+			if( key <= lowValue )
+			{
+				return low;
+			}
+
+			if( key > highValue )
+			{
+				return high + 1;
+			}
+
+			// lowValue < key <= highValue, the probe lands in [low, high]
+			int width = high - low;
+			int probe = low + ( int ) ( ( ( double ) key - lowValue ) / ( ( double ) highValue - lowValue ) * width );
+
+			// A second probe SEQUENTIAL_THRESHOLD further on brackets the key if the guess was close
+			if( array[ probe ] < key )
+			{
+				low = probe + 1;
+
+				int guard = probe + SEQUENTIAL_THRESHOLD;
+
+				if( guard <= high )
+				{
+					if( array[ guard ] < key )
+					{
+						low = guard + 1;
+					}
+					else
+					{
+						high = guard;
+					}
+				}
+			}
+			else
+			{
+				high = probe;
+
+				int guard = probe - SEQUENTIAL_THRESHOLD;
+
+				if( guard >= low )
+				{
+					if( array[ guard ] < key )
+					{
+						low = guard + 1;
+					}
+					else
+					{
+						high = guard;
+					}
+				}
+			}
+
+			if( high - low > width >>> 1 )
+			{
+				int middle = ( low + high ) >>> 1;
+
+				if( array[ middle ] < key )
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+		}
+
+		while( low <= high && array[ low ] < key )
+		{
+			low++;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public static int search( long[] array, long key )
+	{
+		int index = lowerBound( array, 0, array.length, key );
+
+		return index < array.length && array[ index ] == key ? index : -1;
+	}
+
+	public static int lowerBound( long[] array, long key )
+	{
+		return lowerBound( array, 0, array.length, key );
+	}
+
+	/**
+	 * Index of the first element of [from, to) that is not less than key, to if there is none.
+	 * The probe is computed in double precision, on very wide ranges it is only a close guess.
+	 */
+	public static int lowerBound( long[] array, int from, int to, long key )
+	{
+		BinarySearch.rangeCheck( array.length, from, to );
+
+		// The bound is in [low, high + 1]
+		int low = from;
+		int high = to - 1;
+
+		while( high - low >= SEQUENTIAL_THRESHOLD )
+		{
+			long lowValue = array[ low ];
+			long highValue = array[ high ];
+
+			if( key <= lowValue )
+			{
+				return low;
+			}
+
+			if( key > highValue )
+			{
+				return high + 1;
+			}
+
+			// lowValue < key <= highValue, the probe is clamped to [low, high] against rounding
+			int width = high - low;
+			int offset = ( int ) ( ( ( double ) key - lowValue ) / ( ( double ) highValue - lowValue ) * width );
+			int probe = low + Math.max( 0, Math.min( offset, width ) );
+
+			// A second probe SEQUENTIAL_THRESHOLD further on brackets the key if the guess was close
+			if( array[ probe ] < key )
+			{
+				low = probe + 1;
+
+				int guard = probe + SEQUENTIAL_THRESHOLD;
+
+				if( guard <= high )
+				{
+					if( array[ guard ] < key )
+					{
+						low = guard + 1;
+					}
+					else
+					{
+						high = guard;
+					}
+				}
+			}
+			else
+			{
+				high = probe;
+
+				int guard = probe - SEQUENTIAL_THRESHOLD;
+
+				if( guard >= low )
+				{
+					if( array[ guard ] < key )
+					{
+						low = guard + 1;
+					}
+					else
+					{
+						high = guard;
+					}
+				}
+			}
+
+			if( high - low > width >>> 1 )
+			{
+				int middle = ( low + high ) >>> 1;
+
+				if( array[ middle ] < key )
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+		}
+
+		while( low <= high && array[ low ] < key )
+		{
+			low++;
+		}
+
+		return low;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[InterpolationSearch]";
+	}
+}
@@ -0,0 +1,293 @@
+package com.ar.ds.search;
+
+import java.util.Arrays;
+
+/**
+ * Learned index over a sorted long array: a piecewise linear model of the position of a key,
+ * in the style of the PGM index. See LearnedIndex, this is the same for long keys.
+ *
+ * The model maps a key to its lower bound, the position of the first key that is not less.
+ * That is a step function, constant between two neighbouring distinct keys a < b, so the model is fit
+ * to two points per distinct key: ( a + 1, rank( b ) ) and ( b, rank( b ) ). A non decreasing line
+ * within epsilon of both is within epsilon for every key in between, present in the array or not.
+ *
+ * Segments are fit in one pass by a shrinking cone: a segment starts at its first point, every further
+ * point narrows the range of slopes that keep all points so far within epsilon. A pair of points that
+ * would empty the range starts the next segment, so each segment covers all keys from its first key up
+ * to the first key of the next one. The slope is the middle of the final range.
+ *
+ * A lookup binary searches the first keys of the segments, evaluates the line and then binary searches
+ * only the window of maxError positions on either side of the prediction. Keys that grow about linearly
+ * with their position, like timestamps or ids, need few segments of 20 bytes each.
+ *
+ * The input is not copied and must not change while the index is in use.
+ *
+ * http://pgm.di.unipi.it
+ * Ferragina, Vinciguerra: The PGM-index
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class LongLearnedIndex
+{
+	public static final int DEFAULT_EPSILON = 64;
+
+	private final long[] _keys;
+	private final int _size;
+	private final int _epsilon;
+
+	private long[] _segmentKeys;
+	private double[] _slopes;
+	private int[] _intercepts;
+	private int _segmentCount;
+	private int _maxError;
+
+	public LongLearnedIndex( long[] sorted )
+	{
+		this( sorted, DEFAULT_EPSILON );
+	}
+
+	/**
+	 * @param sorted  ascending keys
+	 * @param epsilon largest distance between a predicted and the real position
+	 */
+	public LongLearnedIndex( long[] sorted, int epsilon )
+	{
+		if( epsilon < 1 )
+		{
+			throw new IllegalArgumentException( "epsilon must be at least 1" );
+		}
+
+		int n = sorted.length;
+
+		for( int i = 1; i < n; i++ )
+		{
+			if( sorted[ i ] < sorted[ i - 1 ] )
+			{
+				throw new IllegalArgumentException( "array is not sorted at index " + i );
+			}
+		}
+
+		_keys = sorted;
+		_size = n;
+		_epsilon = epsilon;
+		_segmentKeys = new long[ 16 ];
+		_slopes = new double[ 16 ];
+		_intercepts = new int[ 16 ];
+
+		if( n > 0 )
+		{
+			fit();
+		}
+	}
+
+	private void fit()
+	{
+		long[] keys = _keys;
+		int n = _size;
+
+		// The first key anchors the first segment
+		long startKey = keys[ 0 ];
+		int startRank = 0;
+		// Slopes stay non negative, which keeps the model monotonic
+		double low = 0.0;
+		double high = Double.POSITIVE_INFINITY;
+
+		int i = 0;
+
+		while( i < n )
+		{
+			long previous = keys[ i ];
+
+			// Skip the duplicates, the next distinct key and its rank
+			while( i < n && keys[ i ] == previous )
+			{
+				i++;
+			}
+
+			if( i == n )
+			{
+				break;
+			}
+
+			// The pair ( previous + 1, i ) and ( key, i ), the same point if there is no gap
+			long key = keys[ i ];
+			double dy = i - startRank;
+			double gapDx = distance( startKey, previous ) + 1.0;
+			double keyDx = distance( startKey, key );
+
+			double pairLow = Math.max( low, Math.max( ( dy - _epsilon ) / gapDx, ( dy - _epsilon ) / keyDx ) );
+			double pairHigh = Math.min( high, Math.min( ( dy + _epsilon ) / gapDx, ( dy + _epsilon ) / keyDx ) );
+
+			if( pairLow <= pairHigh )
+			{
+				low = pairLow;
+				high = pairHigh;
+			}
+			else
+			{
+				addSegment( startKey, startRank, low, high );
+
+				startKey = previous + 1;
+				startRank = i;
+				low = 0.0;
+				high = Double.POSITIVE_INFINITY;
+
+				// The new anchor is exact, only the second point of the pair narrows the cone
+				if( key != startKey )
+				{
+					high = _epsilon / distance( startKey, key );
+				}
+			}
+		}
+
+		addSegment( startKey, startRank, low, high );
+
+		_segmentKeys = Arrays.copyOf( _segmentKeys, _segmentCount );
+		_slopes = Arrays.copyOf( _slopes, _segmentCount );
+		_intercepts = Arrays.copyOf( _intercepts, _segmentCount );
+
+		_maxError = measureMaxError();
+	}
+
+	private void addSegment( long startKey, int startRank, double low, double high )
+	{
+		if( _segmentCount == _segmentKeys.length )
+		{
+			int capacity = 2 * _segmentCount;
+
+			_segmentKeys = Arrays.copyOf( _segmentKeys, capacity );
+			_slopes = Arrays.copyOf( _slopes, capacity );
+			_intercepts = Arrays.copyOf( _intercepts, capacity );
+		}
+
+		// A segment of a single point keeps the infinite upper bound, any non negative slope fits it
+		double slope = high == Double.POSITIVE_INFINITY ? low : ( low + high ) / 2;
+
+		_segmentKeys[ _segmentCount ] = startKey;
+		_slopes[ _segmentCount ] = slope;
+		_intercepts[ _segmentCount ] = startRank;
+		_segmentCount++;
+	}
+
+	/**
+	 * Largest distance between the prediction and the real rank over all model points, rounded up.
+	 */
+	private int measureMaxError()
+	{
+		long[] keys = _keys;
+		int n = _size;
+		double maxError = 0.0;
+		int segment = 0;
+		int i = 0;
+
+		while( i < n )
+		{
+			long previous = keys[ i ];
+
+			while( i < n && keys[ i ] == previous )
+			{
+				i++;
+			}
+
+			if( i == n )
+			{
+				break;
+			}
+
+			long key = keys[ i ];
+
+			while( segment + 1 < _segmentCount && _segmentKeys[ segment + 1 ] <= previous + 1 )
+			{
+				segment++;
+			}
+
+			maxError = Math.max( maxError, Math.abs( predict( segment, previous + 1 ) - i ) );
+			maxError = Math.max( maxError, Math.abs( predict( segment, key ) - i ) );
+		}
+
+		return ( int ) Math.ceil( maxError );
+	}
+
+	private double predict( int segment, long key )
+	{
+		return _intercepts[ segment ] + _slopes[ segment ] * distance( _segmentKeys[ segment ], key );
+	}
+
+	/**
+	 * to - from for from <= to as a double. The long difference is exact, only a difference
+	 * beyond Long.MAX_VALUE wraps around and is read as unsigned.
+	 */
+	private static double distance( long from, long to )
+	{
+		long difference = to - from;
+
+		return difference >= 0 ? difference : difference + 0x1p64;
+	}
+
+	/**
+	 * Index of the first element that is not less than key, size() if there is none.
+	 */
+	public int lowerBound( long key )
+	{
+		int n = _size;
+
+		if( n == 0 || key <= _keys[ 0 ] )
+		{
+			return 0;
+		}
+
+		if( key > _keys[ n - 1 ] )
+		{
+			return n;
+		}
+
+		int segment = BinarySearch.upperBound( _segmentKeys, 0, _segmentCount, key ) - 1;
+		double position = predict( segment, key );
+
+		// One position of slack on each side for rounding
+		int from = ( int ) Math.max( 0.0, Math.floor( position ) - _maxError - 1 );
+		int to = ( int ) Math.min( n, Math.ceil( position ) + _maxError + 2 );
+
+		return BinarySearch.lowerBound( _keys, from, to, key );
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public int search( long key )
+	{
+		int index = lowerBound( key );
+
+		return index < _size && _keys[ index ] == key ? index : -1;
+	}
+
+	public int size()
+	{
+		return _size;
+	}
+
+	public int getEpsilon()
+	{
+		return _epsilon;
+	}
+
+	/**
+	 * Largest error of the fitted model, epsilon up to rounding. Lookups search twice this many positions.
+	 */
+	public int getMaxError()
+	{
+		return _maxError;
+	}
+
+	public int getSegmentCount()
+	{
+		return _segmentCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[LongLearnedIndex]";
+	}
+}
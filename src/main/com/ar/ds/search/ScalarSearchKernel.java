@@ -0,0 +1,35 @@
+package com.ar.ds.search;
+
+/**
+ * Search kernel without any vector instructions, used where the Vector API is not available.
+ * Adds up the sign bits of key - element for all keys of the node, there is no early exit
+ * and no branch for the predictor to miss.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ScalarSearchKernel implements ISearchKernel
+{
+	public ScalarSearchKernel()
+	{
+	}
+
+	@Override
+	public int rank( int[] keys, int offset, int key )
+	{
+		int rank = 0;
+
+		for( int i = offset; i < offset + NODE_SIZE; i++ )
+		{
+			rank += BinarySearch.lessThan( keys[ i ], key );
+		}
+
+		return rank;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ScalarSearchKernel]";
+	}
+}
@@ -0,0 +1,183 @@
+package com.ar.ds.search;
+
+/**
+ * Read only B+ tree over a sorted int array ( S+ tree ), without any pointers.
+ *
+ * The sorted array itself is the leaf level, cut into leaves of NODE_SIZE = 16 keys.
+ * Each inner node holds 16 keys and has 17 children, key j is the smallest key below child j + 1.
+ * All nodes of a level are stored one after the other, child j of node k is node 17k + j
+ * of the level below, so a lookup computes the next node instead of loading a pointer.
+ *
+ * A lookup reads one cache line per level, log17(n / 16) + 1 of them in total, 7 for 10^8 keys
+ * against the 27 of a binary search. Each node is scanned by the search kernel: the rank of the key
+ * in the node, the number of its keys that are less, is the child to descend into and needs no branch.
+ * Missing children are padded with Integer.MAX_VALUE, which is never less than a key.
+ *
+ * Building takes one pass over the inner nodes, O(n / 16), after the O(n) check that the input is sorted.
+ * The inner levels take n / 16 ints, 6.25% of the input. The input is not copied and must not change
+ * while the tree is in use.
+ *
+ * http://en.wikipedia.org/wiki/B%2B_tree
+ * https://en.algorithmica.org/hpc/data-structures/s-tree/
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class StaticBTree
+{
+	private static final int NODE_SIZE = ISearchKernel.NODE_SIZE;
+	private static final int FANOUT = NODE_SIZE + 1;
+
+	private final int[] _keys;
+	private final int _size;
+	private final int[] _nodes;
+	private final int[] _levelStart;
+	private final int _height;
+	private final ISearchKernel _kernel;
+
+	public StaticBTree( int[] sorted )
+	{
+		this( sorted, SearchKernels.preferred() );
+	}
+
+	/**
+	 * @param sorted ascending keys, kept as the leaf level
+	 * @param kernel scans the nodes
+	 */
+	public StaticBTree( int[] sorted, ISearchKernel kernel )
+	{
+		if( kernel == null )
+		{
+			throw new IllegalArgumentException( "kernel must not be null" );
+		}
+
+		int n = sorted.length;
+
+		for( int i = 1; i < n; i++ )
+		{
+			if( sorted[ i ] < sorted[ i - 1 ] )
+			{
+				throw new IllegalArgumentException( "array is not sorted at index " + i );
+			}
+		}
+
+		_keys = sorted;
+		_size = n;
+		_kernel = kernel;
+
+		// Nodes per level, level 0 are the leaves
+		int[] counts = new int[ 8 ];
+		int height = 0;
+
+		counts[ 0 ] = Math.max( 1, ( n + NODE_SIZE - 1 ) / NODE_SIZE );
+
+		while( counts[ height ] > 1 )
+		{
+			counts[ height + 1 ] = ( counts[ height ] + FANOUT - 1 ) / FANOUT;
+			height++;
+		}
+
+		// The root comes first, the level above the leaves last
+		int[] levelStart = new int[ height + 1 ];
+		int total = 0;
+
+		for( int level = height; level > 0; level-- )
+		{
+			levelStart[ level ] = total;
+			total += counts[ level ] * NODE_SIZE;
+		}
+
+		_height = height;
+		_levelStart = levelStart;
+		_nodes = new int[ total ];
+
+		long leavesPerChild = 1;
+
+		for( int level = 1; level <= height; level++ )
+		{
+			int childCount = counts[ level - 1 ];
+
+			for( int node = 0; node < counts[ level ]; node++ )
+			{
+				int offset = levelStart[ level ] + node * NODE_SIZE;
+
+				for( int j = 0; j < NODE_SIZE; j++ )
+				{
+					long child = ( long ) node * FANOUT + j + 1;
+
+					// The smallest key below a child is the first key of its leftmost leaf
+					_nodes[ offset + j ] = child < childCount ? sorted[ ( int ) ( child * leavesPerChild * NODE_SIZE ) ] : Integer.MAX_VALUE;
+				}
+			}
+
+			leavesPerChild *= FANOUT;
+		}
+	}
+
+	/**
+	 * Index of the first element that is not less than key, size() if there is none.
+	 */
+	public int lowerBound( int key )
+	{
+		int[] nodes = _nodes;
+		ISearchKernel kernel = _kernel;
+		int node = 0;
+
+		for( int level = _height; level > 0; level-- )
+		{
+			node = node * FANOUT + kernel.rank( nodes, _levelStart[ level ] + node * NODE_SIZE, key );
+		}
+
+		int offset = node * NODE_SIZE;
+
+		if( offset + NODE_SIZE <= _size )
+		{
+			return offset + kernel.rank( _keys, offset, key );
+		}
+
+		// The last leaf is not full
+		while( offset < _size && _keys[ offset ] < key )
+		{
+			offset++;
+		}
+
+		return offset;
+	}
+
+	/**
+	 * Index of the first element that is greater than key, size() if there is none.
+	 */
+	public int upperBound( int key )
+	{
+		return key == Integer.MAX_VALUE ? _size : lowerBound( key + 1 );
+	}
+
+	/**
+	 * Index of the first occurrence of key, -1 if there is none.
+	 */
+	public int search( int key )
+	{
+		int index = lowerBound( key );
+
+		return index < _size && _keys[ index ] == key ? index : -1;
+	}
+
+	public int size()
+	{
+		return _size;
+	}
+
+	/**
+	 * Levels above the leaves.
+	 */
+	public int getHeight()
+	{
+		return _height;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[StaticBTree]";
+	}
+}
@@ -0,0 +1,189 @@
+package com.ar.ds.search;
+
+/**
+ * Read only search index over a sorted int array, stored in Eytzinger (breadth first) order.
+ *
+ * Node k of the implicit binary search tree sits at index k, its children at 2k and 2k + 1.
+ * A search only descends: k = 2k + ( tree[ k ] < key ), which is branch-free like BinarySearch.
+ * Unlike a sorted array the first levels of the tree share a few cache lines that stay hot,
+ * and the 16 descendants four levels below node k are neighbours at [16k, 16k + 16).
+ *
+ * Java has no prefetch instruction. For trees larger than PREFETCH_THRESHOLD each step instead
+ * loads tree[ 16k ] although no result depends on it, the CPU fetches that cache line
+ * while the search still works its way down to it, about four loads earlier than needed.
+ * Smaller trees fit into the caches, where the extra load only costs time.
+ *
+ * The tree is padded to a power of two, so it takes up to twice the memory of the input,
+ * plus one int per element for the position of each element in the sorted input.
+ * Results are positions in the sorted input, the same as BinarySearch returns.
+ *
+ * http://en.wikipedia.org/wiki/Binary_tree#Arrays
+ * https://arxiv.org/abs/1509.05053
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class StaticSearchIndex
+{
+	public static final int PREFETCH_THRESHOLD = 1 << 16;
+
+	private final int[] _tree;
+	private final int[] _positions;
+	private final int _size;
+	private final boolean _prefetch;
+
+	/**
+	 * @param sorted ascending keys, not kept by the index
+	 */
+	public StaticSearchIndex( int[] sorted )
+	{
+		int n = sorted.length;
+
+		for( int i = 1; i < n; i++ )
+		{
+			if( sorted[ i ] < sorted[ i - 1 ] )
+			{
+				throw new IllegalArgumentException( "array is not sorted at index " + i );
+			}
+		}
+
+		if( n >= 1 << 30 )
+		{
+			throw new IllegalArgumentException( "too many keys: " + n );
+		}
+
+		_size = n;
+		_tree = new int[ Integer.highestOneBit( n ) << 1 ];
+		_positions = new int[ n + 1 ];
+		_prefetch = n >= PREFETCH_THRESHOLD;
+
+		// A search that only went right ends at node 0, past the last key
+		_positions[ 0 ] = n;
+
+		build( sorted, 0, 1 );
+	}
+
+	/**
+	 * Fills the subtree of node k in order with sorted[ i ], ... and returns the next i.
+	 */
+	private int build( int[] sorted, int i, int k )
+	{
+		if( k <= _size )
+		{
+			i = build( sorted, i, 2 * k );
+
+			_tree[ k ] = sorted[ i ];
+			_positions[ k ] = i++;
+
+			i = build( sorted, i, 2 * k + 1 );
+		}
+
+		return i;
+	}
+
+	/**
+	 * Position of the first key that is not less than key, size() if there is none.
+	 */
+	public int lowerBound( int key )
+	{
+		return _positions[ lowerBoundNode( key ) ];
+	}
+
+	/**
+	 * Node of the first key that is not less than key, 0 if there is none.
+	 */
+	private int lowerBoundNode( int key )
+	{
+		int[] tree = _tree;
+		int n = _size;
+		int k = 1;
+
+		if( _prefetch )
+		{
+			int mask = tree.length - 1;
+			int touched = 0;
+
+			while( k <= n )
+			{
+				touched += tree[ ( 16 * k ) & mask ];
+				k = 2 * k + BinarySearch.lessThan( tree[ k ], key );
+			}
+
+			// Uses the touched keys without changing k, so the loads are not dropped as dead code
+			k += touched & 0;
+		}
+		else
+		{
+			while( k <= n )
+			{
+				k = 2 * k + BinarySearch.lessThan( tree[ k ], key );
+			}
+		}
+
+		return ancestor( k );
+	}
+
+	/**
+	 * Position of the first key that is greater than key, size() if there is none.
+	 */
+	public int upperBound( int key )
+	{
+		int[] tree = _tree;
+		int n = _size;
+		int k = 1;
+
+		if( _prefetch )
+		{
+			int mask = tree.length - 1;
+			int touched = 0;
+
+			while( k <= n )
+			{
+				touched += tree[ ( 16 * k ) & mask ];
+				k = 2 * k + 1 - BinarySearch.lessThan( key, tree[ k ] );
+			}
+
+			// Uses the touched keys without changing k, so the loads are not dropped as dead code
+			k += touched & 0;
+		}
+		else
+		{
+			while( k <= n )
+			{
+				k = 2 * k + 1 - BinarySearch.lessThan( key, tree[ k ] );
+			}
+		}
+
+		return _positions[ ancestor( k ) ];
+	}
+
+	/**
+	 * Position of the first occurrence of key, -1 if there is none.
+	 */
+	public int search( int key )
+	{
+		int node = lowerBoundNode( key );
+
+		return node != 0 && _tree[ node ] == key ? _positions[ node ] : -1;
+	}
+
+	public int size()
+	{
+		return _size;
+	}
+
+	/**
+	 * The search walked past a leaf into node k. The answer is the last node where it went left,
+	 * found by dropping the trailing right turns (1 bits) and the left turn before them.
+	 */
+	static int ancestor( int k )
+	{
+		return k >>> ( Integer.numberOfTrailingZeros( ~k ) + 1 );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[StaticSearchIndex]";
+	}
+}
@@ -0,0 +1,55 @@
+package com.ar.ds.search;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Search kernel built on the incubating Vector API. A node of 16 keys is compared against
+ * the broadcast key in one 512 bit or two 256 bit registers, the rank is the population
+ * count of the comparison masks.
+ *
+ * Only load this class through SearchKernels, it fails to link without the jdk.incubator.vector module.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class VectorSearchKernel implements ISearchKernel
+{
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED.length() >= NODE_SIZE
+			? IntVector.SPECIES_512
+			: IntVector.SPECIES_256;
+
+	private static final int LANES = SPECIES.length();
+
+	/**
+	 * @throws UnsupportedOperationException if the hardware has no 256 bit int vectors,
+	 * the Vector API would fall back to emulating them, which is far slower than scalar code
+	 */
+	public VectorSearchKernel()
+	{
+		if( IntVector.SPECIES_PREFERRED.vectorBitSize() < IntVector.SPECIES_256.vectorBitSize() )
+		{
+			throw new UnsupportedOperationException( "no 256 bit vector support" );
+		}
+	}
+
+	@Override
+	public int rank( int[] keys, int offset, int key )
+	{
+		int rank = 0;
+
+		for( int i = 0; i < NODE_SIZE; i += LANES )
+		{
+			rank += IntVector.fromArray( SPECIES, keys, offset + i ).compare( VectorOperators.LT, key ).trueCount();
+		}
+
+		return rank;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[VectorSearchKernel]";
+	}
+}
@@ -0,0 +1,369 @@
+package com.ar.ds.sets;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Container of up to MAX_ARRAY_SIZE values as a sorted array of chars, 2 bytes per value.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class ArrayContainer extends Container
+{
+	private char[] _content;
+	private int _cardinality;
+
+	ArrayContainer()
+	{
+		this( new char[ 4 ], 0 );
+	}
+
+	ArrayContainer( char[] content, int cardinality )
+	{
+		_content = content;
+		_cardinality = cardinality;
+	}
+
+	@Override
+	int type()
+	{
+		return ARRAY;
+	}
+
+	@Override
+	int cardinality()
+	{
+		return _cardinality;
+	}
+
+	/**
+	 * Index of value, -( insertion point + 1 ) if it is missing.
+	 */
+	private int search( char value )
+	{
+		int low = 0;
+		int high = _cardinality - 1;
+
+		while( low <= high )
+		{
+			int middle = ( low + high ) >>> 1;
+			char current = _content[ middle ];
+
+			if( current < value )
+			{
+				low = middle + 1;
+			}
+			else if( current > value )
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+
+		return -( low + 1 );
+	}
+
+	@Override
+	boolean contains( char value )
+	{
+		return search( value ) >= 0;
+	}
+
+	@Override
+	Container add( char value )
+	{
+		int index = search( value );
+
+		if( index >= 0 )
+		{
+			return this;
+		}
+
+		if( _cardinality == MAX_ARRAY_SIZE )
+		{
+			return toBitmap().add( value );
+		}
+
+		index = -index - 1;
+
+		if( _cardinality == _content.length )
+		{
+			_content = Arrays.copyOf( _content, Math.min( 2 * _cardinality, MAX_ARRAY_SIZE ) );
+		}
+
+		System.arraycopy( _content, index, _content, index + 1, _cardinality - index );
+
+		_content[ index ] = value;
+		_cardinality++;
+
+		return this;
+	}
+
+	@Override
+	Container remove( char value )
+	{
+		int index = search( value );
+
+		if( index >= 0 )
+		{
+			System.arraycopy( _content, index + 1, _content, index, _cardinality - index - 1 );
+			_cardinality--;
+		}
+
+		return this;
+	}
+
+	@Override
+	int rank( char value )
+	{
+		int index = search( value );
+
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	@Override
+	char select( int rank )
+	{
+		return _content[ rank ];
+	}
+
+	@Override
+	int toArray( int[] out, int offset, int high )
+	{
+		for( int i = 0; i < _cardinality; i++ )
+		{
+			out[ offset++ ] = high | _content[ i ];
+		}
+
+		return offset;
+	}
+
+	@Override
+	Container copy()
+	{
+		return new ArrayContainer( Arrays.copyOf( _content, Math.max( _cardinality, 1 ) ), _cardinality );
+	}
+
+	BitmapContainer toBitmap()
+	{
+		long[] words = new long[ BitmapContainer.WORDS ];
+
+		for( int i = 0; i < _cardinality; i++ )
+		{
+			char value = _content[ i ];
+			words[ value >>> 6 ] |= 1L << value;
+		}
+
+		return new BitmapContainer( words, _cardinality );
+	}
+
+	@Override
+	Container and( Container other )
+	{
+		other = nonRun( other );
+
+		char[] content = _content;
+		char[] result = new char[ Math.max( 1, Math.min( _cardinality, other.cardinality() ) ) ];
+		int count = 0;
+
+		if( other instanceof ArrayContainer )
+		{
+			ArrayContainer array = ( ArrayContainer ) other;
+			char[] otherContent = array._content;
+			int i = 0;
+			int j = 0;
+
+			while( i < _cardinality && j < array._cardinality )
+			{
+				char a = content[ i ];
+				char b = otherContent[ j ];
+
+				if( a < b )
+				{
+					i++;
+				}
+				else if( a > b )
+				{
+					j++;
+				}
+				else
+				{
+					result[ count++ ] = a;
+					i++;
+					j++;
+				}
+			}
+		}
+		else
+		{
+			BitmapContainer bitmap = ( BitmapContainer ) other;
+
+			for( int i = 0; i < _cardinality; i++ )
+			{
+				// Written unconditionally, only advances on a hit
+				result[ count ] = content[ i ];
+				count += bitmap.contains( content[ i ] ) ? 1 : 0;
+			}
+		}
+
+		return new ArrayContainer( result, count );
+	}
+
+	@Override
+	Container or( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof BitmapContainer )
+		{
+			return other.or( this );
+		}
+
+		ArrayContainer array = ( ArrayContainer ) other;
+		char[] result = new char[ Math.max( 1, _cardinality + array._cardinality ) ];
+		int count = merge( _content, _cardinality, array._content, array._cardinality, result, true );
+
+		return fromSorted( result, count );
+	}
+
+	@Override
+	Container andNot( Container other )
+	{
+		other = nonRun( other );
+
+		char[] content = _content;
+		char[] result = new char[ Math.max( 1, _cardinality ) ];
+		int count = 0;
+
+		if( other instanceof ArrayContainer )
+		{
+			ArrayContainer array = ( ArrayContainer ) other;
+			char[] otherContent = array._content;
+			int j = 0;
+
+			for( int i = 0; i < _cardinality; i++ )
+			{
+				char a = content[ i ];
+
+				while( j < array._cardinality && otherContent[ j ] < a )
+				{
+					j++;
+				}
+
+				if( j == array._cardinality || otherContent[ j ] != a )
+				{
+					result[ count++ ] = a;
+				}
+			}
+		}
+		else
+		{
+			BitmapContainer bitmap = ( BitmapContainer ) other;
+
+			for( int i = 0; i < _cardinality; i++ )
+			{
+				result[ count ] = content[ i ];
+				count += bitmap.contains( content[ i ] ) ? 0 : 1;
+			}
+		}
+
+		return new ArrayContainer( result, count );
+	}
+
+	@Override
+	Container xor( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof BitmapContainer )
+		{
+			return other.xor( this );
+		}
+
+		ArrayContainer array = ( ArrayContainer ) other;
+		char[] result = new char[ Math.max( 1, _cardinality + array._cardinality ) ];
+		int count = merge( _content, _cardinality, array._content, array._cardinality, result, false );
+
+		return fromSorted( result, count );
+	}
+
+	/**
+	 * Merges two sorted arrays into out, values in both are kept once for a union and dropped for a
+	 * symmetric difference. Returns the number of values written.
+	 */
+	private static int merge( char[] a, int aLength, char[] b, int bLength, char[] out, boolean keepCommon )
+	{
+		int i = 0;
+		int j = 0;
+		int count = 0;
+
+		while( i < aLength && j < bLength )
+		{
+			char x = a[ i ];
+			char y = b[ j ];
+
+			if( x < y )
+			{
+				out[ count++ ] = x;
+				i++;
+			}
+			else if( x > y )
+			{
+				out[ count++ ] = y;
+				j++;
+			}
+			else
+			{
+				if( keepCommon )
+				{
+					out[ count++ ] = x;
+				}
+
+				i++;
+				j++;
+			}
+		}
+
+		System.arraycopy( a, i, out, count, aLength - i );
+		count += aLength - i;
+		System.arraycopy( b, j, out, count, bLength - j );
+		count += bLength - j;
+
+		return count;
+	}
+
+	/**
+	 * Container of the first count sorted values, a bitmap if there are too many for an array.
+	 */
+	private static Container fromSorted( char[] values, int count )
+	{
+		ArrayContainer array = new ArrayContainer( values, count );
+
+		return count > MAX_ARRAY_SIZE ? array.toBitmap() : array;
+	}
+
+	@Override
+	int serializedSize()
+	{
+		return 2 * _cardinality;
+	}
+
+	@Override
+	void serialize( ByteBuffer out )
+	{
+		for( int i = 0; i < _cardinality; i++ )
+		{
+			out.putChar( _content[ i ] );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ArrayContainer]";
+	}
+}
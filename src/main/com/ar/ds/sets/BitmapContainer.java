@@ -0,0 +1,365 @@
+package com.ar.ds.sets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Container of more than MAX_ARRAY_SIZE values as a bitmap of all 65536, always 8 KB.
+ *
+ * The cardinality is counted lazily: unions only or the words together and leave it unknown ( -1 ),
+ * it is counted the first time it is asked for. A union of bitmaps never shrinks below
+ * MAX_ARRAY_SIZE, so it can stay a bitmap without counting, which saves a pass over the words
+ * for every bitmap of a wide union.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class BitmapContainer extends Container
+{
+	static final int WORDS = 1024;
+
+	private final long[] _words;
+	private int _cardinality;
+
+	BitmapContainer()
+	{
+		this( new long[ WORDS ], 0 );
+	}
+
+	/**
+	 * @param cardinality number of set bits, -1 if unknown
+	 */
+	BitmapContainer( long[] words, int cardinality )
+	{
+		_words = words;
+		_cardinality = cardinality;
+	}
+
+	@Override
+	int type()
+	{
+		return BITMAP;
+	}
+
+	@Override
+	int cardinality()
+	{
+		if( _cardinality < 0 )
+		{
+			int cardinality = 0;
+
+			for( long word : _words )
+			{
+				cardinality += Long.bitCount( word );
+			}
+
+			_cardinality = cardinality;
+		}
+
+		return _cardinality;
+	}
+
+	@Override
+	boolean contains( char value )
+	{
+		return ( _words[ value >>> 6 ] & ( 1L << value ) ) != 0;
+	}
+
+	@Override
+	Container add( char value )
+	{
+		long word = _words[ value >>> 6 ];
+		long changed = word | ( 1L << value );
+
+		if( _cardinality >= 0 && changed != word )
+		{
+			_cardinality++;
+		}
+
+		_words[ value >>> 6 ] = changed;
+
+		return this;
+	}
+
+	@Override
+	Container remove( char value )
+	{
+		long word = _words[ value >>> 6 ];
+		long changed = word & ~( 1L << value );
+
+		if( changed == word )
+		{
+			return this;
+		}
+
+		_words[ value >>> 6 ] = changed;
+
+		if( _cardinality >= 0 )
+		{
+			_cardinality--;
+		}
+
+		return normalize();
+	}
+
+	@Override
+	int rank( char value )
+	{
+		int index = value >>> 6;
+		int rank = 0;
+
+		for( int i = 0; i < index; i++ )
+		{
+			rank += Long.bitCount( _words[ i ] );
+		}
+
+		return rank + Long.bitCount( _words[ index ] & ( -1L >>> ( 63 - ( value & 63 ) ) ) );
+	}
+
+	@Override
+	char select( int rank )
+	{
+		for( int i = 0; i < WORDS; i++ )
+		{
+			long word = _words[ i ];
+			int count = Long.bitCount( word );
+
+			if( rank < count )
+			{
+				// Drop the lowest set bits until the one of the rank is the lowest
+				for( int j = 0; j < rank; j++ )
+				{
+					word &= word - 1;
+				}
+
+				return ( char ) ( i * 64 + Long.numberOfTrailingZeros( word ) );
+			}
+
+			rank -= count;
+		}
+
+		throw new IndexOutOfBoundsException( "rank " + rank + " is not below the cardinality" );
+	}
+
+	@Override
+	int toArray( int[] out, int offset, int high )
+	{
+		for( int i = 0; i < WORDS; i++ )
+		{
+			long word = _words[ i ];
+
+			while( word != 0 )
+			{
+				out[ offset++ ] = high | ( i * 64 + Long.numberOfTrailingZeros( word ) );
+				word &= word - 1;
+			}
+		}
+
+		return offset;
+	}
+
+	@Override
+	Container copy()
+	{
+		return new BitmapContainer( _words.clone(), _cardinality );
+	}
+
+	/**
+	 * An array container if there are few enough values for one, else this.
+	 */
+	Container normalize()
+	{
+		if( cardinality() > MAX_ARRAY_SIZE )
+		{
+			return this;
+		}
+
+		char[] content = new char[ Math.max( 1, _cardinality ) ];
+		int count = 0;
+
+		for( int i = 0; i < WORDS; i++ )
+		{
+			long word = _words[ i ];
+
+			while( word != 0 )
+			{
+				content[ count++ ] = ( char ) ( i * 64 + Long.numberOfTrailingZeros( word ) );
+				word &= word - 1;
+			}
+		}
+
+		return new ArrayContainer( content, count );
+	}
+
+	@Override
+	Container and( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof ArrayContainer )
+		{
+			return other.and( this );
+		}
+
+		long[] words = ( ( BitmapContainer ) other )._words;
+		long[] result = new long[ WORDS ];
+
+		for( int i = 0; i < WORDS; i++ )
+		{
+			result[ i ] = _words[ i ] & words[ i ];
+		}
+
+		return new BitmapContainer( result, -1 ).normalize();
+	}
+
+	@Override
+	Container or( Container other )
+	{
+		return copy().ior( other );
+	}
+
+	@Override
+	Container andNot( Container other )
+	{
+		return copy().iandNot( other );
+	}
+
+	@Override
+	Container xor( Container other )
+	{
+		return copy().ixor( other );
+	}
+
+	@Override
+	Container iand( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof ArrayContainer )
+		{
+			return other.and( this );
+		}
+
+		long[] words = ( ( BitmapContainer ) other )._words;
+
+		for( int i = 0; i < WORDS; i++ )
+		{
+			_words[ i ] &= words[ i ];
+		}
+
+		_cardinality = -1;
+
+		return normalize();
+	}
+
+	@Override
+	Container ior( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof ArrayContainer )
+		{
+			ArrayContainer array = ( ArrayContainer ) other;
+
+			for( int i = 0; i < array.cardinality(); i++ )
+			{
+				char value = array.select( i );
+				_words[ value >>> 6 ] |= 1L << value;
+			}
+		}
+		else
+		{
+			long[] words = ( ( BitmapContainer ) other )._words;
+
+			for( int i = 0; i < WORDS; i++ )
+			{
+				_words[ i ] |= words[ i ];
+			}
+		}
+
+		// Lazy, the union is at least as large as this and stays a bitmap
+		_cardinality = -1;
+
+		return this;
+	}
+
+	@Override
+	Container iandNot( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof ArrayContainer )
+		{
+			ArrayContainer array = ( ArrayContainer ) other;
+
+			for( int i = 0; i < array.cardinality(); i++ )
+			{
+				char value = array.select( i );
+				_words[ value >>> 6 ] &= ~( 1L << value );
+			}
+		}
+		else
+		{
+			long[] words = ( ( BitmapContainer ) other )._words;
+
+			for( int i = 0; i < WORDS; i++ )
+			{
+				_words[ i ] &= ~words[ i ];
+			}
+		}
+
+		_cardinality = -1;
+
+		return normalize();
+	}
+
+	@Override
+	Container ixor( Container other )
+	{
+		other = nonRun( other );
+
+		if( other instanceof ArrayContainer )
+		{
+			ArrayContainer array = ( ArrayContainer ) other;
+
+			for( int i = 0; i < array.cardinality(); i++ )
+			{
+				char value = array.select( i );
+				_words[ value >>> 6 ] ^= 1L << value;
+			}
+		}
+		else
+		{
+			long[] words = ( ( BitmapContainer ) other )._words;
+
+			for( int i = 0; i < WORDS; i++ )
+			{
+				_words[ i ] ^= words[ i ];
+			}
+		}
+
+		_cardinality = -1;
+
+		return normalize();
+	}
+
+	@Override
+	int serializedSize()
+	{
+		return 8 * WORDS;
+	}
+
+	@Override
+	void serialize( ByteBuffer out )
+	{
+		for( long word : _words )
+		{
+			out.putLong( word );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[BitmapContainer]";
+	}
+}
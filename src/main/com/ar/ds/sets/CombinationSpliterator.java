@@ -0,0 +1,207 @@
+package com.ar.ds.sets;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Enumerates all k-subsets ( combinations ) of n elements as bit masks with exactly k bits set,
+ * in colexicographic order, i.e. in the numeric order of the masks.
+ *
+ * The next mask follows from the current one by Gosper's hack: the lowest block of set bits moves
+ * its highest bit one position up and the rest of the block down to bit 0, with a few arithmetic
+ * operations and no loop. Masks are primitive longs, nothing is allocated per subset.
+ *
+ * A range of ranks splits into two halves. The first mask of a half is unranked from its first rank
+ * with the combinatorial number system, so parallel streams fan out over all cores.
+ *
+ * http://en.wikipedia.org/wiki/Combinatorial_number_system
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class CombinationSpliterator implements Spliterator.OfLong
+{
+	public static final int MAX_ELEMENTS = GraySubsetSpliterator.MAX_ELEMENTS;
+
+	/**
+	 * Pascal's triangle up to MAX_ELEMENTS, C( 62, 31 ) still fits into a long.
+	 */
+	private static final long[][] BINOMIAL = binomials();
+
+	private final int _k;
+	private long _index;
+	private final long _end;
+	private long _mask;
+
+	/**
+	 * @param n number of elements, at most MAX_ELEMENTS
+	 * @param k elements per subset, in [0, n]
+	 */
+	public CombinationSpliterator( int n, int k )
+	{
+		if( n < 0 || n > MAX_ELEMENTS )
+		{
+			throw new IllegalArgumentException( "n must be in [0, " + MAX_ELEMENTS + "]: " + n );
+		}
+
+		if( k < 0 || k > n )
+		{
+			throw new IllegalArgumentException( "k must be in [0, n]: " + k );
+		}
+
+		_k = k;
+		_index = 0;
+		_end = BINOMIAL[ n ][ k ];
+		_mask = ( 1L << k ) - 1;
+	}
+
+	private CombinationSpliterator( int k, long index, long end )
+	{
+		_k = k;
+		_index = index;
+		_end = end;
+		_mask = unrank( index, k );
+	}
+
+	/**
+	 * Number of k-subsets of n elements.
+	 */
+	public static long count( int n, int k )
+	{
+		if( n < 0 || n > MAX_ELEMENTS || k < 0 || k > n )
+		{
+			throw new IllegalArgumentException( "n: " + n + ", k: " + k );
+		}
+
+		return BINOMIAL[ n ][ k ];
+	}
+
+	/**
+	 * The k-subset of the given colex rank: the largest c with C( c, k ) <= rank is the highest element,
+	 * the rest of the rank is unranked the same way with k - 1.
+	 */
+	static long unrank( long rank, int k )
+	{
+		long mask = 0;
+		int c = MAX_ELEMENTS;
+
+		for( int i = k; i > 0; i-- )
+		{
+			while( BINOMIAL[ c ][ i ] > rank )
+			{
+				c--;
+			}
+
+			mask |= 1L << c;
+			rank -= BINOMIAL[ c ][ i ];
+		}
+
+		return mask;
+	}
+
+	/**
+	 * The next larger mask with the same number of set bits, mask must not be 0.
+	 */
+	static long next( long mask )
+	{
+		long lowest = mask & -mask;
+		long ripple = mask + lowest;
+
+		return ( ( ( ripple ^ mask ) >>> 2 ) / lowest ) | ripple;
+	}
+
+	@Override
+	public boolean tryAdvance( LongConsumer action )
+	{
+		if( _index >= _end )
+		{
+			return false;
+		}
+
+		long mask = _mask;
+
+		// The last mask has no successor within n elements, and k = 0 has only the empty one
+		if( ++_index < _end )
+		{
+			_mask = next( mask );
+		}
+
+		action.accept( mask );
+
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining( LongConsumer action )
+	{
+		long index = _index;
+		long end = _end;
+		long mask = _mask;
+
+		_index = end;
+
+		while( index < end )
+		{
+			action.accept( mask );
+
+			if( ++index < end )
+			{
+				mask = next( mask );
+			}
+		}
+	}
+
+	@Override
+	public CombinationSpliterator trySplit()
+	{
+		long remaining = _end - _index;
+
+		if( remaining < 2 )
+		{
+			return null;
+		}
+
+		long middle = _index + remaining / 2;
+		CombinationSpliterator prefix = new CombinationSpliterator( _k, _index, middle );
+
+		_index = middle;
+		_mask = unrank( middle, _k );
+
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		return _end - _index;
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	private static long[][] binomials()
+	{
+		long[][] binomial = new long[ MAX_ELEMENTS + 1 ][ MAX_ELEMENTS + 1 ];
+
+		for( int n = 0; n <= MAX_ELEMENTS; n++ )
+		{
+			binomial[ n ][ 0 ] = 1;
+
+			for( int k = 1; k <= n; k++ )
+			{
+				binomial[ n ][ k ] = binomial[ n - 1 ][ k - 1 ] + binomial[ n - 1 ][ k ];
+			}
+		}
+
+		return binomial;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[CombinationSpliterator]";
+	}
+}
@@ -0,0 +1,121 @@
+package com.ar.ds.sets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The 16 bit low halves of all values of a RoaringBitmap that share the same high half.
+ *
+ * Operations that may change the kind of container return the container to use from then on,
+ * which is either this one, changed in place, or a new one. The binary operations without an i
+ * never change their arguments, the ones with an i ( iand, ior, ... ) may change this.
+ * Containers never hold on to an argument, the result of any operation can be changed safely.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+abstract class Container
+{
+	/**
+	 * Most values an array container holds, above that a bitmap takes less memory.
+	 */
+	static final int MAX_ARRAY_SIZE = 4096;
+
+	static final int ARRAY = 0;
+	static final int BITMAP = 1;
+	static final int RUN = 2;
+
+	abstract int type();
+
+	abstract int cardinality();
+
+	abstract boolean contains( char value );
+
+	abstract Container add( char value );
+
+	abstract Container remove( char value );
+
+	/**
+	 * Number of values that are less than or equal to value.
+	 */
+	abstract int rank( char value );
+
+	/**
+	 * The value of the given rank, 0 is the smallest.
+	 */
+	abstract char select( int rank );
+
+	/**
+	 * Writes high | value for every value in ascending order to out from offset on, returns the end.
+	 */
+	abstract int toArray( int[] out, int offset, int high );
+
+	abstract Container copy();
+
+	abstract Container and( Container other );
+
+	abstract Container or( Container other );
+
+	abstract Container andNot( Container other );
+
+	abstract Container xor( Container other );
+
+	Container iand( Container other )
+	{
+		return and( other );
+	}
+
+	Container ior( Container other )
+	{
+		return or( other );
+	}
+
+	Container iandNot( Container other )
+	{
+		return andNot( other );
+	}
+
+	Container ixor( Container other )
+	{
+		return xor( other );
+	}
+
+	abstract int serializedSize();
+
+	/**
+	 * Writes the values at the position of out, which must be little endian.
+	 */
+	abstract void serialize( ByteBuffer out );
+
+	/**
+	 * The run container of the same values if it serializes smaller, else this.
+	 */
+	Container runOptimize()
+	{
+		int[] values = new int[ cardinality() ];
+		int n = toArray( values, 0, 0 );
+		int runCount = 0;
+
+		for( int i = 0; i < n; i++ )
+		{
+			if( i == 0 || values[ i ] != values[ i - 1 ] + 1 )
+			{
+				runCount++;
+			}
+		}
+
+		if( RunContainer.serializedSize( runCount ) >= serializedSize() )
+		{
+			return this;
+		}
+
+		return RunContainer.of( values, n, runCount );
+	}
+
+	/**
+	 * Set operations are implemented between arrays and bitmaps, runs are expanded first.
+	 */
+	static Container nonRun( Container container )
+	{
+		return container instanceof RunContainer ? ( ( RunContainer ) container ).toNonRun() : container;
+	}
+}
@@ -0,0 +1,142 @@
+package com.ar.ds.sets;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Enumerates all 2^n subsets of n elements as bit masks in Gray code order: bit i of a mask is set
+ * if element i is in the subset. Neighbouring subsets differ in exactly one element, so a caller can
+ * keep sums or other aggregates up to date with one change per step instead of recomputing them.
+ *
+ * The subset of rank i is i ^ ( i >>> 1 ), the element that changes from rank i - 1 to rank i is
+ * the lowest set bit of i. Masks are primitive longs, nothing is allocated per subset.
+ *
+ * A range of ranks splits into two halves, each of which computes its first mask from its first rank,
+ * so parallel streams fan out over all cores and still get the masks in order.
+ * The enumeration starts with the empty subset and can be stopped anywhere.
+ *
+ * http://en.wikipedia.org/wiki/Gray_code
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class GraySubsetSpliterator implements Spliterator.OfLong
+{
+	/**
+	 * Largest number of elements, 2^62 ranks still fit into a long.
+	 */
+	public static final int MAX_ELEMENTS = 62;
+
+	private long _index;
+	private final long _end;
+
+	/**
+	 * @param n number of elements, at most MAX_ELEMENTS
+	 */
+	public GraySubsetSpliterator( int n )
+	{
+		if( n < 0 || n > MAX_ELEMENTS )
+		{
+			throw new IllegalArgumentException( "n must be in [0, " + MAX_ELEMENTS + "]: " + n );
+		}
+
+		_index = 0;
+		_end = 1L << n;
+	}
+
+	private GraySubsetSpliterator( long index, long end )
+	{
+		_index = index;
+		_end = end;
+	}
+
+	/**
+	 * The subset of the given rank.
+	 */
+	public static long mask( long rank )
+	{
+		return rank ^ ( rank >>> 1 );
+	}
+
+	/**
+	 * The element added or removed by the step from rank - 1 to rank, for rank > 0.
+	 */
+	public static int changedElement( long rank )
+	{
+		return Long.numberOfTrailingZeros( rank );
+	}
+
+	@Override
+	public boolean tryAdvance( LongConsumer action )
+	{
+		if( _index >= _end )
+		{
+			return false;
+		}
+
+		action.accept( mask( _index++ ) );
+
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining( LongConsumer action )
+	{
+		long index = _index;
+		long end = _end;
+
+		if( index >= end )
+		{
+			return;
+		}
+
+		long mask = mask( index );
+
+		// The index field is only advanced at the end, the loop keeps it in a register
+		_index = end;
+
+		action.accept( mask );
+
+		for( index++; index < end; index++ )
+		{
+			mask ^= Long.lowestOneBit( index );
+			action.accept( mask );
+		}
+	}
+
+	@Override
+	public GraySubsetSpliterator trySplit()
+	{
+		long remaining = _end - _index;
+
+		if( remaining < 2 )
+		{
+			return null;
+		}
+
+		long middle = _index + remaining / 2;
+		GraySubsetSpliterator prefix = new GraySubsetSpliterator( _index, middle );
+
+		_index = middle;
+
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		return _end - _index;
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[GraySubsetSpliterator]";
+	}
+}
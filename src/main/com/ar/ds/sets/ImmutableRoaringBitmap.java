@@ -0,0 +1,331 @@
+package com.ar.ds.sets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+/**
+ * Read only RoaringBitmap over its serialized form, queried in place without reading it into memory.
+ *
+ * A lookup binary searches the directory of containers and then the data of one container, so only the
+ * pages that are touched are read from a memory-mapped file. For set operations and rank / select
+ * toRoaringBitmap reads the whole bitmap.
+ *
+ * The buffer is not copied and must not change while the bitmap is in use.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ImmutableRoaringBitmap
+{
+	private final ByteBuffer _buffer;
+	private final int _size;
+
+	/**
+	 * @param buffer holds a serialized RoaringBitmap from its position on
+	 */
+	public ImmutableRoaringBitmap( ByteBuffer buffer )
+	{
+		ByteBuffer slice = buffer.slice().order( ByteOrder.LITTLE_ENDIAN );
+
+		if( slice.remaining() < RoaringBitmap.HEADER_SIZE || slice.getInt( 0 ) != RoaringBitmap.SERIAL_COOKIE )
+		{
+			throw new IllegalArgumentException( "buffer does not hold a serialized RoaringBitmap" );
+		}
+
+		int size = slice.getInt( 4 );
+
+		if( size < 0 || size > 1 << 16 || slice.remaining() < RoaringBitmap.HEADER_SIZE + ( long ) RoaringBitmap.DIRECTORY_ENTRY_SIZE * size )
+		{
+			throw new IllegalArgumentException( "invalid container count " + size );
+		}
+
+		_buffer = slice;
+		_size = size;
+
+		if( slice.remaining() < serializedSizeInBytes() )
+		{
+			throw new IllegalArgumentException( "buffer ends within the serialized RoaringBitmap" );
+		}
+	}
+
+	/**
+	 * Maps a file that holds a serialized RoaringBitmap, the mapping stays valid after this returns.
+	 */
+	public static ImmutableRoaringBitmap map( Path path ) throws IOException
+	{
+		try( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) )
+		{
+			return new ImmutableRoaringBitmap( channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+		}
+	}
+
+	private int entry( int index )
+	{
+		return RoaringBitmap.HEADER_SIZE + RoaringBitmap.DIRECTORY_ENTRY_SIZE * index;
+	}
+
+	private char key( int index )
+	{
+		return _buffer.getChar( entry( index ) );
+	}
+
+	private int type( int index )
+	{
+		return _buffer.getChar( entry( index ) + 2 );
+	}
+
+	private int cardinality( int index )
+	{
+		return _buffer.getInt( entry( index ) + 4 );
+	}
+
+	private int offset( int index )
+	{
+		return _buffer.getInt( entry( index ) + 8 );
+	}
+
+	private int dataSize( int index )
+	{
+		switch( type( index ) )
+		{
+			case Container.ARRAY:
+				return 2 * cardinality( index );
+			case Container.BITMAP:
+				return 8 * BitmapContainer.WORDS;
+			default:
+				return RunContainer.serializedSize( _buffer.getInt( offset( index ) ) );
+		}
+	}
+
+	public boolean contains( int value )
+	{
+		char key = ( char ) ( value >>> 16 );
+		char low = ( char ) value;
+		int index = -1;
+		int from = 0;
+		int to = _size - 1;
+
+		while( from <= to )
+		{
+			int middle = ( from + to ) >>> 1;
+			char current = key( middle );
+
+			if( current < key )
+			{
+				from = middle + 1;
+			}
+			else if( current > key )
+			{
+				to = middle - 1;
+			}
+			else
+			{
+				index = middle;
+				break;
+			}
+		}
+
+		if( index < 0 )
+		{
+			return false;
+		}
+
+		ByteBuffer buffer = _buffer;
+		int offset = offset( index );
+
+		switch( type( index ) )
+		{
+			case Container.ARRAY:
+			{
+				from = 0;
+				to = cardinality( index ) - 1;
+
+				while( from <= to )
+				{
+					int middle = ( from + to ) >>> 1;
+					char current = buffer.getChar( offset + 2 * middle );
+
+					if( current < low )
+					{
+						from = middle + 1;
+					}
+					else if( current > low )
+					{
+						to = middle - 1;
+					}
+					else
+					{
+						return true;
+					}
+				}
+
+				return false;
+			}
+			case Container.BITMAP:
+				return ( buffer.getLong( offset + 8 * ( low >>> 6 ) ) & ( 1L << low ) ) != 0;
+			default:
+			{
+				// Last run that starts at or before the value
+				int runs = offset + 4;
+				from = 0;
+				to = buffer.getInt( offset ) - 1;
+
+				while( from <= to )
+				{
+					int middle = ( from + to ) >>> 1;
+
+					if( buffer.getChar( runs + 4 * middle ) <= low )
+					{
+						from = middle + 1;
+					}
+					else
+					{
+						to = middle - 1;
+					}
+				}
+
+				return to >= 0 && low - buffer.getChar( runs + 4 * to ) <= buffer.getChar( runs + 4 * to + 2 );
+			}
+		}
+	}
+
+	public long getCardinality()
+	{
+		long cardinality = 0;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			cardinality += cardinality( i );
+		}
+
+		return cardinality;
+	}
+
+	public boolean isEmpty()
+	{
+		return _size == 0;
+	}
+
+	public int getContainerCount()
+	{
+		return _size;
+	}
+
+	/**
+	 * Calls action with all values in ascending unsigned order, straight from the buffer.
+	 */
+	public void forEach( IntConsumer action )
+	{
+		ByteBuffer buffer = _buffer;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			int high = key( i ) << 16;
+			int offset = offset( i );
+
+			switch( type( i ) )
+			{
+				case Container.ARRAY:
+					for( int j = 0, n = cardinality( i ); j < n; j++ )
+					{
+						action.accept( high | buffer.getChar( offset + 2 * j ) );
+					}
+					break;
+				case Container.BITMAP:
+					for( int w = 0; w < BitmapContainer.WORDS; w++ )
+					{
+						long word = buffer.getLong( offset + 8 * w );
+
+						while( word != 0 )
+						{
+							action.accept( high | ( w * 64 + Long.numberOfTrailingZeros( word ) ) );
+							word &= word - 1;
+						}
+					}
+					break;
+				default:
+					for( int r = 0, n = buffer.getInt( offset ); r < n; r++ )
+					{
+						int start = high | buffer.getChar( offset + 4 + 4 * r );
+						int end = start + buffer.getChar( offset + 6 + 4 * r );
+
+						for( int value = start; value <= end; value++ )
+						{
+							action.accept( value );
+						}
+					}
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Length of the serialized form, from the position of the buffer given to the constructor on.
+	 */
+	public int serializedSizeInBytes()
+	{
+		if( _size == 0 )
+		{
+			return RoaringBitmap.HEADER_SIZE;
+		}
+
+		return offset( _size - 1 ) + dataSize( _size - 1 );
+	}
+
+	/**
+	 * Reads all containers into a RoaringBitmap that can be changed.
+	 */
+	public RoaringBitmap toRoaringBitmap()
+	{
+		char[] keys = new char[ Math.max( 1, _size ) ];
+		Container[] containers = new Container[ keys.length ];
+		ByteBuffer buffer = _buffer;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			int offset = offset( i );
+			int cardinality = cardinality( i );
+
+			keys[ i ] = key( i );
+
+			switch( type( i ) )
+			{
+				case Container.ARRAY:
+				{
+					char[] content = new char[ Math.max( 1, cardinality ) ];
+					buffer.slice( offset, 2 * cardinality ).order( ByteOrder.LITTLE_ENDIAN ).asCharBuffer().get( content, 0, cardinality );
+					containers[ i ] = new ArrayContainer( content, cardinality );
+					break;
+				}
+				case Container.BITMAP:
+				{
+					long[] words = new long[ BitmapContainer.WORDS ];
+					buffer.slice( offset, 8 * BitmapContainer.WORDS ).order( ByteOrder.LITTLE_ENDIAN ).asLongBuffer().get( words );
+					containers[ i ] = new BitmapContainer( words, cardinality );
+					break;
+				}
+				default:
+				{
+					int runCount = buffer.getInt( offset );
+					char[] runs = new char[ 2 * runCount ];
+					buffer.slice( offset + 4, 4 * runCount ).order( ByteOrder.LITTLE_ENDIAN ).asCharBuffer().get( runs );
+					containers[ i ] = new RunContainer( runs, runCount );
+					break;
+				}
+			}
+		}
+
+		return new RoaringBitmap( keys, containers, _size );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ImmutableRoaringBitmap]";
+	}
+}
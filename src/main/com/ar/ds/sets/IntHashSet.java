@@ -0,0 +1,363 @@
+package com.ar.ds.sets;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of ints in a single int array, open addressing with linear probing.
+ *
+ * The table size is a power of two and the home slot of a key is its mixed hash & mask. The hash
+ * multiplies by the golden ratio and folds the high half onto the low one, so keys that differ only in
+ * their high bits or grow by a power of two stride still spread over the whole table. A collision
+ * probes the following slots, which are mostly in the same cache line. 0 marks a free slot, the key 0
+ * itself is kept in a flag.
+ *
+ * Removal leaves no tombstone: the following keys of the probe sequence that may move are shifted back
+ * into the gap, so lookups never step over deleted slots and many removals need no rehash.
+ *
+ * A key takes 5.3 to 10.7 bytes at the default load factor, HashSet<Integer> takes about 50
+ * ( node, boxed Integer, table slot ). Iteration is in table order and the set must not change during it.
+ *
+ * http://en.wikipedia.org/wiki/Linear_probing
+ * http://en.wikipedia.org/wiki/Open_addressing
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class IntHashSet
+{
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+	public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final float _loadFactor;
+
+	private int[] _keys;
+	private int _mask;
+	private int _assigned;
+	private int _resizeAt;
+	private boolean _hasZeroKey;
+
+	public IntHashSet()
+	{
+		this( DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR );
+	}
+
+	public IntHashSet( int expectedSize )
+	{
+		this( expectedSize, DEFAULT_LOAD_FACTOR );
+	}
+
+	/**
+	 * @param expectedSize number of keys that fit without a rehash
+	 * @param loadFactor   largest share of occupied slots, in ( 0, 1 )
+	 */
+	public IntHashSet( int expectedSize, float loadFactor )
+	{
+		if( expectedSize < 0 )
+		{
+			throw new IllegalArgumentException( "expectedSize must not be negative" );
+		}
+
+		if( !( loadFactor > 0 && loadFactor < 1 ) )
+		{
+			throw new IllegalArgumentException( "loadFactor must be in ( 0, 1 )" );
+		}
+
+		_loadFactor = loadFactor;
+
+		allocate( capacityFor( expectedSize, loadFactor ) );
+	}
+
+	private static int capacityFor( int expectedSize, float loadFactor )
+	{
+		long slots = ( long ) Math.ceil( Math.max( expectedSize, 1 ) / ( double ) loadFactor ) + 1;
+
+		if( slots > MAX_CAPACITY )
+		{
+			throw new IllegalArgumentException( "expectedSize is too large: " + expectedSize );
+		}
+
+		return Math.max( 4, Integer.highestOneBit( ( int ) slots - 1 ) << 1 );
+	}
+
+	private void allocate( int capacity )
+	{
+		_keys = new int[ capacity ];
+		_mask = capacity - 1;
+		// At least one slot stays free, which ends every probe
+		_resizeAt = Math.min( capacity - 1, ( int ) Math.ceil( capacity * _loadFactor ) );
+	}
+
+	private void grow()
+	{
+		int[] old = _keys;
+
+		if( old.length == MAX_CAPACITY )
+		{
+			throw new IllegalStateException( "IntHashSet is full" );
+		}
+
+		allocate( 2 * old.length );
+
+		int[] keys = _keys;
+		int mask = _mask;
+
+		for( int key : old )
+		{
+			if( key != 0 )
+			{
+				int slot = mix( key ) & mask;
+
+				while( keys[ slot ] != 0 )
+				{
+					slot = ( slot + 1 ) & mask;
+				}
+
+				keys[ slot ] = key;
+			}
+		}
+	}
+
+	private static int mix( int key )
+	{
+		int h = key * 0x9E3779B9;
+
+		return h ^ ( h >>> 16 );
+	}
+
+	/**
+	 * Slot of key, -1 if it is missing. key must not be 0.
+	 */
+	private int indexOf( int key )
+	{
+		int[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		int existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return slot;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return true if key was not in the set
+	 */
+	public boolean add( int key )
+	{
+		if( key == 0 )
+		{
+			boolean added = !_hasZeroKey;
+			_hasZeroKey = true;
+
+			return added;
+		}
+
+		int[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		int existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return false;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		if( _assigned == _resizeAt )
+		{
+			grow();
+
+			return add( key );
+		}
+
+		keys[ slot ] = key;
+		_assigned++;
+
+		return true;
+	}
+
+	/**
+	 * @return true if key was in the set
+	 */
+	public boolean remove( int key )
+	{
+		if( key == 0 )
+		{
+			boolean removed = _hasZeroKey;
+			_hasZeroKey = false;
+
+			return removed;
+		}
+
+		int slot = indexOf( key );
+
+		if( slot < 0 )
+		{
+			return false;
+		}
+
+		shiftConflictingKeys( slot );
+		_assigned--;
+
+		return true;
+	}
+
+	/**
+	 * Fills the gap with the next key of the probe sequence whose home slot is not between the gap and
+	 * the key, so it stays reachable, and repeats with the gap it leaves until a free slot is reached.
+	 */
+	private void shiftConflictingKeys( int gap )
+	{
+		int[] keys = _keys;
+		int mask = _mask;
+		int distance = 0;
+
+		while( true )
+		{
+			int slot = ( gap + ++distance ) & mask;
+			int existing = keys[ slot ];
+
+			if( existing == 0 )
+			{
+				break;
+			}
+
+			int probeLength = ( slot - mix( existing ) ) & mask;
+
+			if( probeLength >= distance )
+			{
+				keys[ gap ] = existing;
+				gap = slot;
+				distance = 0;
+			}
+		}
+
+		keys[ gap ] = 0;
+	}
+
+	public boolean contains( int key )
+	{
+		return key == 0 ? _hasZeroKey : indexOf( key ) >= 0;
+	}
+
+	public int size()
+	{
+		return _assigned + ( _hasZeroKey ? 1 : 0 );
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all keys and keeps the capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill( _keys, 0 );
+
+		_assigned = 0;
+		_hasZeroKey = false;
+	}
+
+	public void forEach( IntConsumer action )
+	{
+		if( _hasZeroKey )
+		{
+			action.accept( 0 );
+		}
+
+		for( int key : _keys )
+		{
+			if( key != 0 )
+			{
+				action.accept( key );
+			}
+		}
+	}
+
+	public PrimitiveIterator.OfInt iterator()
+	{
+		return new PrimitiveIterator.OfInt()
+		{
+			// -1 stands for the 0 key
+			private int _slot = _hasZeroKey ? -1 : advance( 0 );
+
+			private int advance( int slot )
+			{
+				while( slot < _keys.length && _keys[ slot ] == 0 )
+				{
+					slot++;
+				}
+
+				return slot;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return _slot < _keys.length;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+
+				int key = _slot < 0 ? 0 : _keys[ _slot ];
+
+				_slot = advance( _slot + 1 );
+
+				return key;
+			}
+		};
+	}
+
+	public int[] toArray()
+	{
+		int[] result = new int[ size() ];
+		int count = 0;
+
+		if( _hasZeroKey )
+		{
+			result[ count++ ] = 0;
+		}
+
+		for( int key : _keys )
+		{
+			if( key != 0 )
+			{
+				result[ count++ ] = key;
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[IntHashSet]";
+	}
+}
@@ -0,0 +1,358 @@
+package com.ar.ds.sets;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of longs in a single long array, open addressing with linear probing and removal by backward
+ * shift, laid out like IntHashSet. 0 marks a free slot, the key 0 itself is kept in a flag.
+ *
+ * The hash multiplies by the 64 bit golden ratio and folds both halves together, so timestamps and
+ * packed ids that only differ in their high word still find different slots.
+ *
+ * A key takes 10.7 to 21.3 bytes at the default load factor, HashSet<Long> takes about 55.
+ *
+ * http://en.wikipedia.org/wiki/Linear_probing
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class LongHashSet
+{
+	public static final int DEFAULT_EXPECTED_SIZE = 16;
+	public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final float _loadFactor;
+
+	private long[] _keys;
+	private int _mask;
+	private int _assigned;
+	private int _resizeAt;
+	private boolean _hasZeroKey;
+
+	public LongHashSet()
+	{
+		this( DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR );
+	}
+
+	public LongHashSet( int expectedSize )
+	{
+		this( expectedSize, DEFAULT_LOAD_FACTOR );
+	}
+
+	/**
+	 * @param expectedSize number of keys that fit without a rehash
+	 * @param loadFactor   largest share of occupied slots, in ( 0, 1 )
+	 */
+	public LongHashSet( int expectedSize, float loadFactor )
+	{
+		if( expectedSize < 0 )
+		{
+			throw new IllegalArgumentException( "expectedSize must not be negative" );
+		}
+
+		if( !( loadFactor > 0 && loadFactor < 1 ) )
+		{
+			throw new IllegalArgumentException( "loadFactor must be in ( 0, 1 )" );
+		}
+
+		_loadFactor = loadFactor;
+
+		allocate( capacityFor( expectedSize, loadFactor ) );
+	}
+
+	private static int capacityFor( int expectedSize, float loadFactor )
+	{
+		long slots = ( long ) Math.ceil( Math.max( expectedSize, 1 ) / ( double ) loadFactor ) + 1;
+
+		if( slots > MAX_CAPACITY )
+		{
+			throw new IllegalArgumentException( "expectedSize is too large: " + expectedSize );
+		}
+
+		return Math.max( 4, Integer.highestOneBit( ( int ) slots - 1 ) << 1 );
+	}
+
+	private void allocate( int capacity )
+	{
+		_keys = new long[ capacity ];
+		_mask = capacity - 1;
+		// At least one slot stays free, which ends every probe
+		_resizeAt = Math.min( capacity - 1, ( int ) Math.ceil( capacity * _loadFactor ) );
+	}
+
+	private void grow()
+	{
+		long[] old = _keys;
+
+		if( old.length == MAX_CAPACITY )
+		{
+			throw new IllegalStateException( "LongHashSet is full" );
+		}
+
+		allocate( 2 * old.length );
+
+		long[] keys = _keys;
+		int mask = _mask;
+
+		for( long key : old )
+		{
+			if( key != 0 )
+			{
+				int slot = mix( key ) & mask;
+
+				while( keys[ slot ] != 0 )
+				{
+					slot = ( slot + 1 ) & mask;
+				}
+
+				keys[ slot ] = key;
+			}
+		}
+	}
+
+	private static int mix( long key )
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		h ^= h >>> 32;
+
+		return ( int ) ( h ^ ( h >>> 16 ) );
+	}
+
+	/**
+	 * Slot of key, -1 if it is missing. key must not be 0.
+	 */
+	private int indexOf( long key )
+	{
+		long[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		long existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return slot;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return true if key was not in the set
+	 */
+	public boolean add( long key )
+	{
+		if( key == 0 )
+		{
+			boolean added = !_hasZeroKey;
+			_hasZeroKey = true;
+
+			return added;
+		}
+
+		long[] keys = _keys;
+		int mask = _mask;
+		int slot = mix( key ) & mask;
+		long existing;
+
+		while( ( existing = keys[ slot ] ) != 0 )
+		{
+			if( existing == key )
+			{
+				return false;
+			}
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		if( _assigned == _resizeAt )
+		{
+			grow();
+
+			return add( key );
+		}
+
+		keys[ slot ] = key;
+		_assigned++;
+
+		return true;
+	}
+
+	/**
+	 * @return true if key was in the set
+	 */
+	public boolean remove( long key )
+	{
+		if( key == 0 )
+		{
+			boolean removed = _hasZeroKey;
+			_hasZeroKey = false;
+
+			return removed;
+		}
+
+		int slot = indexOf( key );
+
+		if( slot < 0 )
+		{
+			return false;
+		}
+
+		shiftConflictingKeys( slot );
+		_assigned--;
+
+		return true;
+	}
+
+	/**
+	 * Fills the gap with the next key of the probe sequence whose home slot is not between the gap and
+	 * the key, so it stays reachable, and repeats with the gap it leaves until a free slot is reached.
+	 */
+	private void shiftConflictingKeys( int gap )
+	{
+		long[] keys = _keys;
+		int mask = _mask;
+		int distance = 0;
+
+		while( true )
+		{
+			int slot = ( gap + ++distance ) & mask;
+			long existing = keys[ slot ];
+
+			if( existing == 0 )
+			{
+				break;
+			}
+
+			int probeLength = ( slot - mix( existing ) ) & mask;
+
+			if( probeLength >= distance )
+			{
+				keys[ gap ] = existing;
+				gap = slot;
+				distance = 0;
+			}
+		}
+
+		keys[ gap ] = 0;
+	}
+
+	public boolean contains( long key )
+	{
+		return key == 0 ? _hasZeroKey : indexOf( key ) >= 0;
+	}
+
+	public int size()
+	{
+		return _assigned + ( _hasZeroKey ? 1 : 0 );
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all keys and keeps the capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill( _keys, 0 );
+
+		_assigned = 0;
+		_hasZeroKey = false;
+	}
+
+	public void forEach( LongConsumer action )
+	{
+		if( _hasZeroKey )
+		{
+			action.accept( 0 );
+		}
+
+		for( long key : _keys )
+		{
+			if( key != 0 )
+			{
+				action.accept( key );
+			}
+		}
+	}
+
+	public PrimitiveIterator.OfLong iterator()
+	{
+		return new PrimitiveIterator.OfLong()
+		{
+			// -1 stands for the 0 key
+			private int _slot = _hasZeroKey ? -1 : advance( 0 );
+
+			private int advance( int slot )
+			{
+				while( slot < _keys.length && _keys[ slot ] == 0 )
+				{
+					slot++;
+				}
+
+				return slot;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return _slot < _keys.length;
+			}
+
+			@Override
+			public long nextLong()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+
+				long key = _slot < 0 ? 0 : _keys[ _slot ];
+
+				_slot = advance( _slot + 1 );
+
+				return key;
+			}
+		};
+	}
+
+	public long[] toArray()
+	{
+		long[] result = new long[ size() ];
+		int count = 0;
+
+		if( _hasZeroKey )
+		{
+			result[ count++ ] = 0;
+		}
+
+		for( long key : _keys )
+		{
+			if( key != 0 )
+			{
+				result[ count++ ] = key;
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[LongHashSet]";
+	}
+}
@@ -0,0 +1,658 @@
+package com.ar.ds.sets;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of 32 bit ints, in the style of Roaring bitmaps.
+ *
+ * Values are partitioned by their high 16 bits, the low halves of each partition are held by a container
+ * of the kind that takes the least memory:
+ * - an array container of up to 4096 sorted chars, 2 bytes per value
+ * - a bitmap container of 1024 longs, 8 KB for more values
+ * - a run container of ( start, length ) pairs for long ranges, see runOptimize
+ * The keys and containers are kept in two parallel arrays sorted by key, so a lookup is a binary search
+ * over at most 65536 keys followed by one over at most 4096 chars or a single bit test.
+ *
+ * Set operations merge the keys and combine only containers of equal keys, a pair of bitmaps with
+ * 1024 word operations. The static and, or, andNot and xor return a new bitmap, the instance methods
+ * change this one and reuse its containers. Unions count the bits of bitmap containers lazily, only when
+ * the cardinality is asked for, and orAll unions any number of bitmaps that way.
+ *
+ * Values are ordered as unsigned ints, as for row ids, so negative values come last. Cardinalities
+ * and ranks are longs, there may be 2^32 values. Dense sets of ids take about 1 bit per value,
+ * HashSet<Integer> takes around 40 bytes per value.
+ *
+ * The serialized form starts with a directory of the containers, so it can be memory-mapped and read
+ * in place by ImmutableRoaringBitmap. It is little endian:
+ * int cookie, int container count,
+ * per container: char key, char type, int cardinality, int offset of its data from the start,
+ * the data of the containers:
+ * array: cardinality chars, bitmap: 1024 longs, run: int run count, start and length - 1 chars per run
+ *
+ * http://roaringbitmap.org
+ * Lemire, Kaser, Kurz, Deri, O'Hara, Saint-Jacques, Ssi-Yan-Kai: Roaring Bitmaps: Implementation of an Optimized Software Library
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class RoaringBitmap
+{
+	static final int SERIAL_COOKIE = 0x31424D52;
+	static final int HEADER_SIZE = 8;
+	static final int DIRECTORY_ENTRY_SIZE = 12;
+
+	private static final int AND = 0;
+	private static final int OR = 1;
+	private static final int AND_NOT = 2;
+	private static final int XOR = 3;
+
+	private char[] _keys;
+	private Container[] _containers;
+	private int _size;
+
+	public RoaringBitmap()
+	{
+		_keys = new char[ 4 ];
+		_containers = new Container[ 4 ];
+	}
+
+	/**
+	 * Deep copy of other.
+	 */
+	public RoaringBitmap( RoaringBitmap other )
+	{
+		_keys = Arrays.copyOf( other._keys, Math.max( other._size, 1 ) );
+		_containers = new Container[ _keys.length ];
+		_size = other._size;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			_containers[ i ] = other._containers[ i ].copy();
+		}
+	}
+
+	RoaringBitmap( char[] keys, Container[] containers, int size )
+	{
+		_keys = keys;
+		_containers = containers;
+		_size = size;
+	}
+
+	public static RoaringBitmap bitmapOf( int... values )
+	{
+		RoaringBitmap bitmap = new RoaringBitmap();
+
+		for( int value : values )
+		{
+			bitmap.add( value );
+		}
+
+		return bitmap;
+	}
+
+	/**
+	 * Index of key, -( insertion point + 1 ) if it is missing.
+	 */
+	private int indexOf( char key )
+	{
+		int low = 0;
+		int high = _size - 1;
+
+		// The last key is the common case when values are added in order
+		if( high >= 0 && _keys[ high ] == key )
+		{
+			return high;
+		}
+
+		while( low <= high )
+		{
+			int middle = ( low + high ) >>> 1;
+			char current = _keys[ middle ];
+
+			if( current < key )
+			{
+				low = middle + 1;
+			}
+			else if( current > key )
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+
+		return -( low + 1 );
+	}
+
+	private void insert( int index, char key, Container container )
+	{
+		if( _size == _keys.length )
+		{
+			int capacity = Math.max( 4, 2 * _size );
+
+			_keys = Arrays.copyOf( _keys, capacity );
+			_containers = Arrays.copyOf( _containers, capacity );
+		}
+
+		System.arraycopy( _keys, index, _keys, index + 1, _size - index );
+		System.arraycopy( _containers, index, _containers, index + 1, _size - index );
+
+		_keys[ index ] = key;
+		_containers[ index ] = container;
+		_size++;
+	}
+
+	private void removeAt( int index )
+	{
+		System.arraycopy( _keys, index + 1, _keys, index, _size - index - 1 );
+		System.arraycopy( _containers, index + 1, _containers, index, _size - index - 1 );
+
+		_size--;
+		_containers[ _size ] = null;
+	}
+
+	public void add( int value )
+	{
+		char key = ( char ) ( value >>> 16 );
+		int index = indexOf( key );
+
+		if( index >= 0 )
+		{
+			_containers[ index ] = _containers[ index ].add( ( char ) value );
+		}
+		else
+		{
+			insert( -index - 1, key, new ArrayContainer().add( ( char ) value ) );
+		}
+	}
+
+	/**
+	 * Adds all values of [from, to), as unsigned ints from 0 up to 2^32. Whole blocks of 65536 values
+	 * become run containers of 4 bytes.
+	 */
+	public void add( long from, long to )
+	{
+		if( from < 0 || from > to || to > 1L << 32 )
+		{
+			throw new IllegalArgumentException( "range [" + from + ", " + to + ") is not within [0, 2^32)" );
+		}
+
+		if( from == to )
+		{
+			return;
+		}
+
+		long last = to - 1;
+
+		for( long high = from >>> 16; high <= last >>> 16; high++ )
+		{
+			int first = high == from >>> 16 ? ( int ) ( from & 0xFFFF ) : 0;
+			int end = high == last >>> 16 ? ( int ) ( last & 0xFFFF ) : 0xFFFF;
+			char key = ( char ) high;
+			int index = indexOf( key );
+			Container range = RunContainer.range( first, end );
+
+			if( index < 0 )
+			{
+				insert( -index - 1, key, range );
+			}
+			else if( first == 0 && end == 0xFFFF )
+			{
+				_containers[ index ] = range;
+			}
+			else
+			{
+				_containers[ index ] = _containers[ index ].ior( range );
+			}
+		}
+	}
+
+	public void remove( int value )
+	{
+		int index = indexOf( ( char ) ( value >>> 16 ) );
+
+		if( index >= 0 )
+		{
+			Container container = _containers[ index ].remove( ( char ) value );
+
+			if( container.cardinality() == 0 )
+			{
+				removeAt( index );
+			}
+			else
+			{
+				_containers[ index ] = container;
+			}
+		}
+	}
+
+	public boolean contains( int value )
+	{
+		int index = indexOf( ( char ) ( value >>> 16 ) );
+
+		return index >= 0 && _containers[ index ].contains( ( char ) value );
+	}
+
+	public long getCardinality()
+	{
+		long cardinality = 0;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			cardinality += _containers[ i ].cardinality();
+		}
+
+		return cardinality;
+	}
+
+	public boolean isEmpty()
+	{
+		return _size == 0;
+	}
+
+	/**
+	 * Number of values that are less than or equal to value, as unsigned ints.
+	 */
+	public long rank( int value )
+	{
+		char key = ( char ) ( value >>> 16 );
+		long rank = 0;
+
+		for( int i = 0; i < _size && _keys[ i ] <= key; i++ )
+		{
+			if( _keys[ i ] < key )
+			{
+				rank += _containers[ i ].cardinality();
+			}
+			else
+			{
+				rank += _containers[ i ].rank( ( char ) value );
+			}
+		}
+
+		return rank;
+	}
+
+	/**
+	 * The value of the given rank, 0 is the smallest as unsigned int.
+	 */
+	public int select( long rank )
+	{
+		if( rank >= 0 )
+		{
+			long remaining = rank;
+
+			for( int i = 0; i < _size; i++ )
+			{
+				int cardinality = _containers[ i ].cardinality();
+
+				if( remaining < cardinality )
+				{
+					return _keys[ i ] << 16 | _containers[ i ].select( ( int ) remaining );
+				}
+
+				remaining -= cardinality;
+			}
+		}
+
+		throw new IndexOutOfBoundsException( "rank " + rank + " is not within [0, " + getCardinality() + ")" );
+	}
+
+	/**
+	 * All values in ascending unsigned order.
+	 */
+	public int[] toArray()
+	{
+		long cardinality = getCardinality();
+
+		if( cardinality > Integer.MAX_VALUE - 8 )
+		{
+			throw new IllegalStateException( "too many values for an array: " + cardinality );
+		}
+
+		int[] values = new int[ ( int ) cardinality ];
+		int offset = 0;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			offset = _containers[ i ].toArray( values, offset, _keys[ i ] << 16 );
+		}
+
+		return values;
+	}
+
+	/**
+	 * Calls action with all values in ascending unsigned order, a container at a time.
+	 */
+	public void forEach( IntConsumer action )
+	{
+		int[] buffer = new int[ 0 ];
+
+		for( int i = 0; i < _size; i++ )
+		{
+			Container container = _containers[ i ];
+
+			if( buffer.length < container.cardinality() )
+			{
+				buffer = new int[ Math.max( container.cardinality(), 2 * buffer.length ) ];
+			}
+
+			int count = container.toArray( buffer, 0, _keys[ i ] << 16 );
+
+			for( int j = 0; j < count; j++ )
+			{
+				action.accept( buffer[ j ] );
+			}
+		}
+	}
+
+	/**
+	 * Iterates the values in ascending unsigned order without boxing.
+	 * The bitmap must not change during the iteration.
+	 */
+	public PrimitiveIterator.OfInt iterator()
+	{
+		return new PrimitiveIterator.OfInt()
+		{
+			private int[] _buffer = new int[ 0 ];
+			private int _container;
+			private int _position;
+			private int _count;
+
+			@Override
+			public boolean hasNext()
+			{
+				while( _position == _count && _container < _size )
+				{
+					Container container = _containers[ _container ];
+
+					if( _buffer.length < container.cardinality() )
+					{
+						_buffer = new int[ Math.max( container.cardinality(), 2 * _buffer.length ) ];
+					}
+
+					_count = container.toArray( _buffer, 0, _keys[ _container ] << 16 );
+					_position = 0;
+					_container++;
+				}
+
+				return _position < _count;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+
+				return _buffer[ _position++ ];
+			}
+		};
+	}
+
+	/**
+	 * Turns containers into run containers where that takes less memory, e.g. for ranges of ids.
+	 *
+	 * @return true if any container changed
+	 */
+	public boolean runOptimize()
+	{
+		boolean changed = false;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			Container container = _containers[ i ].runOptimize();
+
+			changed |= container != _containers[ i ];
+			_containers[ i ] = container;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Number of containers, one per distinct high 16 bits.
+	 */
+	public int getContainerCount()
+	{
+		return _size;
+	}
+
+	/**
+	 * Intersection, this keeps only the values that are also in other.
+	 */
+	public void and( RoaringBitmap other )
+	{
+		combine( this, other, AND, true, this );
+	}
+
+	/**
+	 * Union, this also gets all values of other. Bits of bitmap containers are counted lazily.
+	 */
+	public void or( RoaringBitmap other )
+	{
+		combine( this, other, OR, true, this );
+	}
+
+	/**
+	 * Difference, this loses all values of other.
+	 */
+	public void andNot( RoaringBitmap other )
+	{
+		combine( this, other, AND_NOT, true, this );
+	}
+
+	/**
+	 * Symmetric difference, this keeps the values that are in only one of both.
+	 */
+	public void xor( RoaringBitmap other )
+	{
+		combine( this, other, XOR, true, this );
+	}
+
+	public static RoaringBitmap and( RoaringBitmap left, RoaringBitmap right )
+	{
+		return combine( left, right, AND, false, new RoaringBitmap() );
+	}
+
+	public static RoaringBitmap or( RoaringBitmap left, RoaringBitmap right )
+	{
+		return combine( left, right, OR, false, new RoaringBitmap() );
+	}
+
+	public static RoaringBitmap andNot( RoaringBitmap left, RoaringBitmap right )
+	{
+		return combine( left, right, AND_NOT, false, new RoaringBitmap() );
+	}
+
+	public static RoaringBitmap xor( RoaringBitmap left, RoaringBitmap right )
+	{
+		return combine( left, right, XOR, false, new RoaringBitmap() );
+	}
+
+	/**
+	 * Union of all bitmaps. Once a container of the result is a bitmap the others are or-ed into it
+	 * in place and its bits are counted at most once, when the cardinality is first asked for.
+	 */
+	public static RoaringBitmap orAll( RoaringBitmap... bitmaps )
+	{
+		RoaringBitmap result = new RoaringBitmap();
+
+		for( RoaringBitmap bitmap : bitmaps )
+		{
+			combine( result, bitmap, OR, true, result );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Merges the keys of left and right and applies op to the containers of equal keys. Containers of keys
+	 * in only one of both are kept if op keeps their values. In place, result is left and its containers
+	 * may be changed and reused, otherwise neither input is changed and the result shares nothing with them.
+	 */
+	private static RoaringBitmap combine( RoaringBitmap left, RoaringBitmap right, int op, boolean inPlace, RoaringBitmap result )
+	{
+		char[] leftKeys = left._keys;
+		char[] rightKeys = right._keys;
+		Container[] leftContainers = left._containers;
+		Container[] rightContainers = right._containers;
+		int leftSize = left._size;
+		int rightSize = right._size;
+		boolean keepLeft = op != AND;
+		boolean keepRight = op == OR || op == XOR;
+
+		int capacity = Math.max( 4, leftSize + ( keepRight ? rightSize : 0 ) );
+		char[] keys = new char[ capacity ];
+		Container[] containers = new Container[ capacity ];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+
+		while( i < leftSize && j < rightSize )
+		{
+			char leftKey = leftKeys[ i ];
+			char rightKey = rightKeys[ j ];
+
+			if( leftKey < rightKey )
+			{
+				if( keepLeft )
+				{
+					keys[ size ] = leftKey;
+					containers[ size++ ] = inPlace ? leftContainers[ i ] : leftContainers[ i ].copy();
+				}
+
+				i++;
+			}
+			else if( leftKey > rightKey )
+			{
+				if( keepRight )
+				{
+					keys[ size ] = rightKey;
+					containers[ size++ ] = rightContainers[ j ].copy();
+				}
+
+				j++;
+			}
+			else
+			{
+				Container container = apply( leftContainers[ i ], rightContainers[ j ], op, inPlace );
+
+				// Unions never empty a container, which keeps their cardinality lazy
+				if( op == OR || container.cardinality() > 0 )
+				{
+					keys[ size ] = leftKey;
+					containers[ size++ ] = container;
+				}
+
+				i++;
+				j++;
+			}
+		}
+
+		for( ; keepLeft && i < leftSize; i++ )
+		{
+			keys[ size ] = leftKeys[ i ];
+			containers[ size++ ] = inPlace ? leftContainers[ i ] : leftContainers[ i ].copy();
+		}
+
+		for( ; keepRight && j < rightSize; j++ )
+		{
+			keys[ size ] = rightKeys[ j ];
+			containers[ size++ ] = rightContainers[ j ].copy();
+		}
+
+		result._keys = keys;
+		result._containers = containers;
+		result._size = size;
+
+		return result;
+	}
+
+	private static Container apply( Container left, Container right, int op, boolean inPlace )
+	{
+		switch( op )
+		{
+			case AND:
+				return inPlace ? left.iand( right ) : left.and( right );
+			case OR:
+				return inPlace ? left.ior( right ) : left.or( right );
+			case AND_NOT:
+				return inPlace ? left.iandNot( right ) : left.andNot( right );
+			default:
+				return inPlace ? left.ixor( right ) : left.xor( right );
+		}
+	}
+
+	public int serializedSizeInBytes()
+	{
+		int size = HEADER_SIZE + DIRECTORY_ENTRY_SIZE * _size;
+
+		for( int i = 0; i < _size; i++ )
+		{
+			size += _containers[ i ].serializedSize();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Writes the serialized form at the position of out and moves the position past it.
+	 * The byte order of out does not matter and is not changed.
+	 */
+	public void serialize( ByteBuffer out )
+	{
+		ByteBuffer buffer = out.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+		int offset = HEADER_SIZE + DIRECTORY_ENTRY_SIZE * _size;
+
+		buffer.putInt( SERIAL_COOKIE );
+		buffer.putInt( _size );
+
+		for( int i = 0; i < _size; i++ )
+		{
+			Container container = _containers[ i ];
+
+			buffer.putChar( _keys[ i ] );
+			buffer.putChar( ( char ) container.type() );
+			buffer.putInt( container.cardinality() );
+			buffer.putInt( offset );
+
+			offset += container.serializedSize();
+		}
+
+		for( int i = 0; i < _size; i++ )
+		{
+			_containers[ i ].serialize( buffer );
+		}
+
+		out.position( buffer.position() );
+	}
+
+	/**
+	 * Reads a serialized bitmap from the position of in into memory and moves the position past it.
+	 * To query a bitmap without reading it, e.g. from a mapped file, use ImmutableRoaringBitmap.
+	 */
+	public static RoaringBitmap deserialize( ByteBuffer in )
+	{
+		ImmutableRoaringBitmap bitmap = new ImmutableRoaringBitmap( in );
+
+		in.position( in.position() + bitmap.serializedSizeInBytes() );
+
+		return bitmap.toRoaringBitmap();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[RoaringBitmap]";
+	}
+}
@@ -0,0 +1,297 @@
+package com.ar.ds.sets;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Container of sorted runs of consecutive values, each run a start and a length - 1 as two chars.
+ * A range of 65536 ids takes 4 bytes instead of the 8 KB of a bitmap.
+ *
+ * Run containers come from RoaringBitmap.runOptimize and from added ranges. They are read only:
+ * changing one or combining it with another container first expands it into an array or bitmap.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class RunContainer extends Container
+{
+	private final char[] _runs;
+	private final int _runCount;
+	private final int _cardinality;
+
+	/**
+	 * @param runs start and length - 1 of each run, ascending and not touching
+	 */
+	RunContainer( char[] runs, int runCount )
+	{
+		int cardinality = 0;
+
+		for( int i = 0; i < runCount; i++ )
+		{
+			cardinality += runs[ 2 * i + 1 ] + 1;
+		}
+
+		_runs = runs;
+		_runCount = runCount;
+		_cardinality = cardinality;
+	}
+
+	/**
+	 * The single run [first, last].
+	 */
+	static RunContainer range( int first, int last )
+	{
+		return new RunContainer( new char[] { ( char ) first, ( char ) ( last - first ) }, 1 );
+	}
+
+	/**
+	 * The runs of the first n of the ascending values, which form runCount runs.
+	 */
+	static RunContainer of( int[] values, int n, int runCount )
+	{
+		char[] runs = new char[ 2 * runCount ];
+		int run = -1;
+
+		for( int i = 0; i < n; i++ )
+		{
+			if( i == 0 || values[ i ] != values[ i - 1 ] + 1 )
+			{
+				run++;
+				runs[ 2 * run ] = ( char ) values[ i ];
+			}
+			else
+			{
+				runs[ 2 * run + 1 ]++;
+			}
+		}
+
+		return new RunContainer( runs, runCount );
+	}
+
+	static int serializedSize( int runCount )
+	{
+		return 4 + 4 * runCount;
+	}
+
+	@Override
+	int type()
+	{
+		return RUN;
+	}
+
+	@Override
+	int cardinality()
+	{
+		return _cardinality;
+	}
+
+	@Override
+	boolean contains( char value )
+	{
+		// Last run that starts at or before value
+		int low = 0;
+		int high = _runCount - 1;
+
+		while( low <= high )
+		{
+			int middle = ( low + high ) >>> 1;
+
+			if( _runs[ 2 * middle ] <= value )
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle - 1;
+			}
+		}
+
+		return high >= 0 && value - _runs[ 2 * high ] <= _runs[ 2 * high + 1 ];
+	}
+
+	@Override
+	Container add( char value )
+	{
+		return contains( value ) ? this : toNonRun().add( value );
+	}
+
+	@Override
+	Container remove( char value )
+	{
+		return contains( value ) ? toNonRun().remove( value ) : this;
+	}
+
+	@Override
+	int rank( char value )
+	{
+		int rank = 0;
+
+		for( int i = 0; i < _runCount; i++ )
+		{
+			int start = _runs[ 2 * i ];
+			int length = _runs[ 2 * i + 1 ];
+
+			if( value < start )
+			{
+				break;
+			}
+
+			if( value <= start + length )
+			{
+				return rank + value - start + 1;
+			}
+
+			rank += length + 1;
+		}
+
+		return rank;
+	}
+
+	@Override
+	char select( int rank )
+	{
+		for( int i = 0; i < _runCount; i++ )
+		{
+			int length = _runs[ 2 * i + 1 ];
+
+			if( rank <= length )
+			{
+				return ( char ) ( _runs[ 2 * i ] + rank );
+			}
+
+			rank -= length + 1;
+		}
+
+		throw new IndexOutOfBoundsException( "rank " + rank + " is not below the cardinality" );
+	}
+
+	@Override
+	int toArray( int[] out, int offset, int high )
+	{
+		for( int i = 0; i < _runCount; i++ )
+		{
+			int start = high | _runs[ 2 * i ];
+			int end = start + _runs[ 2 * i + 1 ];
+
+			for( int value = start; value <= end; value++ )
+			{
+				out[ offset++ ] = value;
+			}
+		}
+
+		return offset;
+	}
+
+	@Override
+	Container copy()
+	{
+		return new RunContainer( _runs.clone(), _runCount );
+	}
+
+	/**
+	 * The same values as an array container, or a bitmap if there are too many.
+	 */
+	Container toNonRun()
+	{
+		if( _cardinality <= MAX_ARRAY_SIZE )
+		{
+			char[] content = new char[ Math.max( 1, _cardinality ) ];
+			int count = 0;
+
+			for( int i = 0; i < _runCount; i++ )
+			{
+				int start = _runs[ 2 * i ];
+				int end = start + _runs[ 2 * i + 1 ];
+
+				for( int value = start; value <= end; value++ )
+				{
+					content[ count++ ] = ( char ) value;
+				}
+			}
+
+			return new ArrayContainer( content, count );
+		}
+
+		long[] words = new long[ BitmapContainer.WORDS ];
+
+		for( int i = 0; i < _runCount; i++ )
+		{
+			int start = _runs[ 2 * i ];
+			int end = start + _runs[ 2 * i + 1 ];
+			int first = start >>> 6;
+			int last = end >>> 6;
+
+			// Whole words in between, partial words at both ends
+			for( int w = first; w <= last; w++ )
+			{
+				long mask = -1L;
+
+				if( w == first )
+				{
+					mask &= -1L << start;
+				}
+
+				if( w == last )
+				{
+					mask &= -1L >>> ( 63 - ( end & 63 ) );
+				}
+
+				words[ w ] |= mask;
+			}
+		}
+
+		return new BitmapContainer( words, _cardinality );
+	}
+
+	@Override
+	Container and( Container other )
+	{
+		return toNonRun().iand( other );
+	}
+
+	@Override
+	Container or( Container other )
+	{
+		return toNonRun().ior( other );
+	}
+
+	@Override
+	Container andNot( Container other )
+	{
+		return toNonRun().iandNot( other );
+	}
+
+	@Override
+	Container xor( Container other )
+	{
+		return toNonRun().ixor( other );
+	}
+
+	@Override
+	Container runOptimize()
+	{
+		return this;
+	}
+
+	@Override
+	int serializedSize()
+	{
+		return serializedSize( _runCount );
+	}
+
+	@Override
+	void serialize( ByteBuffer out )
+	{
+		out.putInt( _runCount );
+
+		for( int i = 0; i < 2 * _runCount; i++ )
+		{
+			out.putChar( _runs[ i ] );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[RunContainer]";
+	}
+}
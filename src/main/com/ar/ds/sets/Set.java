@@ -1,5 +1,8 @@
 package com.ar.ds.sets;
 
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
 /**
  * @author Alan Ross
  * @version 0.1
@@ -18,7 +21,11 @@ public class Set
 	 * 010--{2}
 	 * 001--{1}
 	 * 000--{}
+	 *
+	 * @deprecated builds a single string of all subsets and only works up to 30 elements,
+	 * use subsets or combinations instead
 	 */
+	@Deprecated
 	public static String getAllSubsets( String[] source )
 	{
 		int n = source.length;
@@ -50,6 +57,24 @@ public class Set
 		return result.toString();
 	}
 
+	/**
+	 * All 2^n subsets of n elements as bit masks, in Gray code order starting with the empty subset.
+	 * The stream is lazy and may be made parallel, see GraySubsetSpliterator.
+	 */
+	public static LongStream subsets( int n )
+	{
+		return StreamSupport.longStream( new GraySubsetSpliterator( n ), false );
+	}
+
+	/**
+	 * All subsets of k out of n elements as bit masks, in ascending order of the masks.
+	 * The stream is lazy and may be made parallel, see CombinationSpliterator.
+	 */
+	public static LongStream combinations( int n, int k )
+	{
+		return StreamSupport.longStream( new CombinationSpliterator( n, k ), false );
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,195 @@
+package com.ar.ds.sort;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive Sort:
+ * Looks at a small sample of the input and hands it to the sort that fits it best.
+ *
+ * 1. Inputs of up to INSERTION_SORT_THRESHOLD elements are sorted by insertion sort.
+ * 2. Up to SAMPLE_SIZE pairs of neighbouring elements are taken at evenly spaced positions.
+ * 3. Presortedness: if at most 1 in PRESORTED_RATIO of the pairs is out of order, or at most
+ * 1 in PRESORTED_RATIO is in order, the input consists of a few long ascending or descending runs,
+ * which natural merge sort finds and merges in close to linear time.
+ * 4. Value range: if the range of the sampled values is at most BucketSort.DEFAULT_RANGE_FACTOR * n
+ * and BucketSort.MAX_COUNTING_RANGE, counting sort is used. The sample can only underestimate the range,
+ * BucketSort measures the real one and falls back to its buckets if it is wider after all.
+ * 5. Duplicates: if the sample holds at most 1 distinct value per FEW_UNIQUE_RATIO elements,
+ * introsort's three-way partitioning only has to split a handful of values.
+ * 6. Otherwise radix sort is used from RADIX_SORT_THRESHOLD elements on, introsort below.
+ *
+ * Profiling costs O(SAMPLE_SIZE) and never modifies the input.
+ *
+ * Every call counts the path it took, see getCount. The counters are LongAdders and may be read
+ * from any thread, but the sorts behind the paths keep their buffers between calls,
+ * so instances are not thread safe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class AdaptiveSort implements ISort
+{
+	public static final int INSERTION_SORT_THRESHOLD = 32;
+	public static final int RADIX_SORT_THRESHOLD = 128;
+	public static final int SAMPLE_SIZE = 64;
+	public static final int PRESORTED_RATIO = 16;
+	public static final int FEW_UNIQUE_RATIO = 32;
+
+	public static enum Path
+	{
+		INSERTION, COUNTING, RADIX, NATURAL_MERGE, INTRO
+	}
+
+	private final BucketSort _bucketSort = new BucketSort();
+	private final RadixSort _radixSort = new RadixSort();
+	private final NaturalMergeSort _naturalMergeSort = new NaturalMergeSort();
+	private final IntroSort _introSort = new IntroSort();
+
+	private final int[] _sample = new int[ 2 * SAMPLE_SIZE ];
+	private final LongAdder[] _counts = new LongAdder[ Path.values().length ];
+
+	public AdaptiveSort()
+	{
+		for( int i = 0; i < _counts.length; i++ )
+		{
+			_counts[ i ] = new LongAdder();
+		}
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		Path path = choosePath( array );
+
+		_counts[ path.ordinal() ].increment();
+
+		switch( path )
+		{
+			case INSERTION:
+				InsertionSort.sort( array, 0, array.length - 1 );
+				break;
+			case COUNTING:
+				_bucketSort.sort( array );
+				break;
+			case RADIX:
+				_radixSort.sort( array );
+				break;
+			case NATURAL_MERGE:
+				_naturalMergeSort.sort( array );
+				break;
+			default:
+				_introSort.sort( array );
+				break;
+		}
+	}
+
+	/**
+	 * Profiles array and returns the path sort would take, without sorting or counting it.
+	 */
+	public Path choosePath( int[] array )
+	{
+		int n = array.length;
+
+		if( n <= INSERTION_SORT_THRESHOLD )
+		{
+			return Path.INSERTION;
+		}
+
+		int pairs = Math.min( SAMPLE_SIZE, n / 2 );
+		int stride = ( n - 1 ) / pairs;
+
+		int[] sample = _sample;
+		int ascents = 0;
+		int descents = 0;
+		int min = array[ 0 ];
+		int max = min;
+
+		for( int p = 0, i = 0; p < pairs; p++, i += stride )
+		{
+			int a = array[ i ];
+			int b = array[ i + 1 ];
+
+			if( a < b )
+			{
+				ascents++;
+			}
+			else if( a > b )
+			{
+				descents++;
+			}
+
+			min = Math.min( min, Math.min( a, b ) );
+			max = Math.max( max, Math.max( a, b ) );
+
+			sample[ 2 * p ] = a;
+			sample[ 2 * p + 1 ] = b;
+		}
+
+		// Equal pairs count neither way, so an input of equal elements is a single run
+		if( descents * PRESORTED_RATIO <= pairs || ascents * PRESORTED_RATIO <= pairs )
+		{
+			return Path.NATURAL_MERGE;
+		}
+
+		long range = ( long ) max - min + 1;
+
+		if( range <= ( long ) BucketSort.DEFAULT_RANGE_FACTOR * n && range <= BucketSort.MAX_COUNTING_RANGE )
+		{
+			return Path.COUNTING;
+		}
+
+		int size = 2 * pairs;
+
+		if( distinct( sample, size ) * FEW_UNIQUE_RATIO <= size )
+		{
+			return Path.INTRO;
+		}
+
+		return n >= RADIX_SORT_THRESHOLD ? Path.RADIX : Path.INTRO;
+	}
+
+	/**
+	 * Number of distinct values among the first size elements of sample, which it sorts.
+	 */
+	private static int distinct( int[] sample, int size )
+	{
+		InsertionSort.sort( sample, 0, size - 1 );
+
+		int count = 1;
+
+		for( int i = 1; i < size; i++ )
+		{
+			if( sample[ i ] != sample[ i - 1 ] )
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Number of calls that took path.
+	 */
+	public long getCount( Path path )
+	{
+		return _counts[ path.ordinal() ].sum();
+	}
+
+	/**
+	 * Sets all path counters back to 0.
+	 */
+	public void reset()
+	{
+		for( LongAdder count : _counts )
+		{
+			count.reset();
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[AdaptiveSort]";
+	}
+}
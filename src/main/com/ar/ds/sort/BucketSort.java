@@ -1,5 +1,11 @@
 package com.ar.ds.sort;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Sortieren durch Verteilen auf Buckets (Faecher).
  * 1.) Zaehlen der Haeufigkeiten b[i] einzelner Schluessel i;
@@ -7,17 +13,68 @@ package com.ar.ds.sort;
  * <p/>
  * Runtime: O(n) + O(N)
  * bei n(=a.length) zu sortierenden Zeichen aus einem N-elementigen Alphabet
+ * <p/>
+ * The value range N is measured first. Counting sort is only used while N is at most
+ * rangeFactor * n and at most MAX_COUNTING_RANGE, so the count array never outgrows the input
+ * by more than that factor and never takes more than 64 MB.
+ * Wider ranges are distributed over a fixed number of real buckets, each bucket is
+ * then sorted with the inner sort. Memory use is O(n + bucketCount) in that case,
+ * regardless of the value range.
+ * <p/>
+ * Large inputs fill the buckets in parallel: every chunk of the input builds its own
+ * histogram, the histograms are merged by prefix sums into a write offset per chunk
+ * and bucket, and each chunk then scatters its elements without any synchronisation.
  *
  * @author Alan Ross
  * @version 0.1
  */
 public class BucketSort implements ISort
 {
-	// Alphabet size
-	private final int N = 256;
+	public static final int DEFAULT_RANGE_FACTOR = 4;
+	public static final int MAX_RANGE_FACTOR = 64;
+	public static final int MAX_COUNTING_RANGE = 1 << 24;
+	public static final int DEFAULT_BUCKET_COUNT = 1024;
+	public static final int MAX_BUCKET_COUNT = 1 << 16;
+	public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private final int _rangeFactor;
+	private final int _bucketCount;
+	private final ISort _innerSort;
+	private final ForkJoinPool _pool;
 
 	public BucketSort()
 	{
+		this( DEFAULT_RANGE_FACTOR, DEFAULT_BUCKET_COUNT, new IntroSort(), ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * @param rangeFactor counting sort is used while the value range is at most rangeFactor * n,
+	 *                    in [1, MAX_RANGE_FACTOR]
+	 * @param bucketCount number of buckets used for wider ranges
+	 * @param innerSort   sorts each bucket
+	 * @param pool        fills the buckets of large inputs, null to always fill sequentially
+	 */
+	public BucketSort( int rangeFactor, int bucketCount, ISort innerSort, ForkJoinPool pool )
+	{
+		if( rangeFactor < 1 || rangeFactor > MAX_RANGE_FACTOR )
+		{
+			throw new IllegalArgumentException( "rangeFactor must be in [1, " + MAX_RANGE_FACTOR + "]" );
+		}
+
+		if( bucketCount < 1 || bucketCount > MAX_BUCKET_COUNT )
+		{
+			throw new IllegalArgumentException( "bucketCount must be in [1, " + MAX_BUCKET_COUNT + "]" );
+		}
+
+		if( innerSort == null )
+		{
+			throw new IllegalArgumentException( "innerSort must not be null" );
+		}
+
+		_rangeFactor = rangeFactor;
+		_bucketCount = bucketCount;
+		_innerSort = innerSort;
+		_pool = pool;
 	}
 
 	@Override
@@ -26,9 +83,9 @@ public class BucketSort implements ISort
 		internalSort( array, array.length );
 	}
 
-	private void internalSort( int array[], int N )
+	private void internalSort( int array[], int n )
 	{
-		if( N <= 0 )
+		if( n <= 1 )
 		{
 			return;
 		}
@@ -37,7 +94,7 @@ public class BucketSort implements ISort
 		int max = min;
 
 		// Find the minimum and maximum
-		for( int i = 1; i < N; i++ )
+		for( int i = 1; i < n; i++ )
 		{
 			if( array[ i ] > max )
 			{
@@ -49,11 +106,30 @@ public class BucketSort implements ISort
 			}
 		}
 
+		long range = ( long ) max - min + 1;
+
+		if( range == 1 )
+		{
+			return;
+		}
+
+		if( range <= ( long ) _rangeFactor * n && range <= MAX_COUNTING_RANGE )
+		{
+			countingSort( array, n, min, ( int ) range );
+		}
+		else
+		{
+			bucketSort( array, n, min, range );
+		}
+	}
+
+	private void countingSort( int[] array, int n, int min, int range )
+	{
 		// Create buckets
-		int bucket[] = new int[ max - min + 1 ];
+		int bucket[] = new int[ range ];
 
 		// "Fill" buckets
-		for( int i = 0; i < N; i++ )
+		for( int i = 0; i < n; i++ )
 		{
 			// by counting each datum
 			bucket[ array[ i ] - min ]++;
@@ -61,21 +137,204 @@ public class BucketSort implements ISort
 
 		int i = 0;
 
-		// "Empty" buckets
-		for( int b = 0; b < bucket.length; b++ )
+		// "Empty" buckets back into array, one run per value
+		for( int b = 0; b < range; b++ )
+		{
+			int count = bucket[ b ];
+
+			if( count != 0 )
+			{
+				Arrays.fill( array, i, i + count, b + min );
+				i += count;
+			}
+		}
+	}
+
+	private void bucketSort( int[] array, int n, int min, long range )
+	{
+		int bucketCount = ( int ) Math.min( _bucketCount, range );
+		int chunkCount = 1;
+
+		if( _pool != null && n >= PARALLEL_THRESHOLD )
+		{
+			chunkCount = Math.min( _pool.getParallelism(), n / ( PARALLEL_THRESHOLD / 4 ) );
+		}
+
+		int[][] offsets = new int[ chunkCount ][ bucketCount ];
+		int[][] buckets;
+
+		if( chunkCount == 1 )
+		{
+			new FillTask( array, 0, n, min, range, offsets[ 0 ], null ).compute();
+
+			buckets = createBuckets( offsets );
+
+			new FillTask( array, 0, n, min, range, offsets[ 0 ], buckets ).compute();
+		}
+		else
+		{
+			_pool.invoke( new ChunkTask( array, n, min, range, offsets, null ) );
+
+			buckets = createBuckets( offsets );
+
+			_pool.invoke( new ChunkTask( array, n, min, range, offsets, buckets ) );
+		}
+
+		// Sort each bucket and copy it back
+		int i = 0;
+
+		for( int[] bucket : buckets )
 		{
-			// back into array
-			for( int j = 0; j < bucket[ b ]; j++ )
+			if( bucket.length > 1 )
 			{
-				// by creating one per count
-				array[ i++ ] = b + min;
+				_innerSort.sort( bucket );
 			}
+
+			System.arraycopy( bucket, 0, array, i, bucket.length );
+			i += bucket.length;
 		}
 	}
 
+	/**
+	 * Allocates each bucket at its exact size and turns the per chunk histograms
+	 * into the position at which each chunk starts writing into each bucket.
+	 */
+	private static int[][] createBuckets( int[][] offsets )
+	{
+		int bucketCount = offsets[ 0 ].length;
+		int[][] buckets = new int[ bucketCount ][];
+
+		for( int b = 0; b < bucketCount; b++ )
+		{
+			int sum = 0;
+
+			for( int[] histogram : offsets )
+			{
+				int count = histogram[ b ];
+				histogram[ b ] = sum;
+				sum += count;
+			}
+
+			buckets[ b ] = new int[ sum ];
+		}
+
+		return buckets;
+	}
+
+	static int bucketIndex( int value, int min, long range, int bucketCount )
+	{
+		return ( int ) ( ( ( long ) value - min ) * bucketCount / range );
+	}
+
+	public int getRangeFactor()
+	{
+		return _rangeFactor;
+	}
+
+	public int getBucketCount()
+	{
+		return _bucketCount;
+	}
+
 	@Override
 	public String toString()
 	{
 		return "[BucketSort]";
 	}
+
+	/**
+	 * Splits the input into one FillTask per histogram.
+	 */
+	private static final class ChunkTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int _n;
+		private final int _min;
+		private final long _range;
+		private final int[][] _offsets;
+		private final int[][] _buckets;
+
+		ChunkTask( int[] array, int n, int min, long range, int[][] offsets, int[][] buckets )
+		{
+			_array = array;
+			_n = n;
+			_min = min;
+			_range = range;
+			_offsets = offsets;
+			_buckets = buckets;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int chunkCount = _offsets.length;
+			List<FillTask> tasks = new ArrayList<FillTask>( chunkCount );
+
+			for( int c = 0; c < chunkCount; c++ )
+			{
+				int from = ( int ) ( ( long ) _n * c / chunkCount );
+				int to = ( int ) ( ( long ) _n * ( c + 1 ) / chunkCount );
+
+				tasks.add( new FillTask( _array, from, to, _min, _range, _offsets[ c ], _buckets ) );
+			}
+
+			invokeAll( tasks );
+		}
+	}
+
+	/**
+	 * Without buckets counts the elements of [from, to) per bucket into histogram.
+	 * With buckets scatters them, histogram then holds the next write position per bucket.
+	 */
+	private static final class FillTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int _from;
+		private final int _to;
+		private final int _min;
+		private final long _range;
+		private final int[] _histogram;
+		private final int[][] _buckets;
+
+		FillTask( int[] array, int from, int to, int min, long range, int[] histogram, int[][] buckets )
+		{
+			_array = array;
+			_from = from;
+			_to = to;
+			_min = min;
+			_range = range;
+			_histogram = histogram;
+			_buckets = buckets;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int[] array = _array;
+			int[] histogram = _histogram;
+			int bucketCount = histogram.length;
+
+			if( _buckets == null )
+			{
+				for( int i = _from; i < _to; i++ )
+				{
+					histogram[ bucketIndex( array[ i ], _min, _range, bucketCount ) ]++;
+				}
+			}
+			else
+			{
+				for( int i = _from; i < _to; i++ )
+				{
+					int value = array[ i ];
+					int b = bucketIndex( value, _min, _range, bucketCount );
+
+					_buckets[ b ][ histogram[ b ]++ ] = value;
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,219 @@
+package com.ar.ds.sort;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Stable bottom-up merge sort of int and long buffers with off-heap scratch space ( Θ(n log(n)) ).
+ *
+ * Runs of RUN_LENGTH elements are insertion sorted in place, then runs of doubling width are merged
+ * back and forth between the buffer and a direct scratch buffer of the same size. Neighbouring runs
+ * that are already in order are copied instead of merged. No recursion, so the stack stays flat for any size.
+ *
+ * The scratch space is kept between calls and only grows, so instances are not thread safe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class BufferMergeSort implements IIntBufferSort, ILongBufferSort
+{
+	public static final int RUN_LENGTH = 32;
+
+	private final DirectScratch _scratch = new DirectScratch();
+
+	public BufferMergeSort()
+	{
+	}
+
+	@Override
+	public void sort( IntBuffer buffer )
+	{
+		IntBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		for( int left = 0; left < n; left += RUN_LENGTH )
+		{
+			BufferQuickSort.insertionSort( data, left, Math.min( left + RUN_LENGTH, n ) - 1 );
+		}
+
+		if( n <= RUN_LENGTH )
+		{
+			return;
+		}
+
+		IntBuffer source = data;
+		IntBuffer target = _scratch.ints( n );
+
+		for( int width = RUN_LENGTH; width < n; width <<= 1 )
+		{
+			for( int left = 0; left < n; left += 2 * width )
+			{
+				int middle = Math.min( left + width, n );
+				int right = Math.min( left + 2 * width, n );
+
+				merge( source, target, left, middle, right );
+			}
+
+			IntBuffer tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != data )
+		{
+			source.position( 0 );
+			data.put( source );
+		}
+	}
+
+	@Override
+	public void sort( LongBuffer buffer )
+	{
+		LongBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		for( int left = 0; left < n; left += RUN_LENGTH )
+		{
+			BufferQuickSort.insertionSort( data, left, Math.min( left + RUN_LENGTH, n ) - 1 );
+		}
+
+		if( n <= RUN_LENGTH )
+		{
+			return;
+		}
+
+		LongBuffer source = data;
+		LongBuffer target = _scratch.longs( n );
+
+		for( int width = RUN_LENGTH; width < n; width <<= 1 )
+		{
+			for( int left = 0; left < n; left += 2 * width )
+			{
+				int middle = Math.min( left + width, n );
+				int right = Math.min( left + 2 * width, n );
+
+				merge( source, target, left, middle, right );
+			}
+
+			LongBuffer tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != data )
+		{
+			source.position( 0 );
+			data.put( source );
+		}
+	}
+
+	/**
+	 * Merges the sorted runs [left, middle) and [middle, right) of source into the same range of target.
+	 */
+	private static void merge( IntBuffer source, IntBuffer target, int left, int middle, int right )
+	{
+		if( middle == right || source.get( middle - 1 ) <= source.get( middle ) )
+		{
+			copy( source, target, left, right );
+			return;
+		}
+
+		int i = left;
+		int j = middle;
+		int k = left;
+
+		while( i < middle && j < right )
+		{
+			int a = source.get( i );
+			int b = source.get( j );
+
+			if( a <= b )
+			{
+				target.put( k++, a );
+				i++;
+			}
+			else
+			{
+				target.put( k++, b );
+				j++;
+			}
+		}
+
+		copy( source, target, i, middle, k );
+		copy( source, target, j, right, k + middle - i );
+	}
+
+	private static void merge( LongBuffer source, LongBuffer target, int left, int middle, int right )
+	{
+		if( middle == right || source.get( middle - 1 ) <= source.get( middle ) )
+		{
+			copy( source, target, left, right );
+			return;
+		}
+
+		int i = left;
+		int j = middle;
+		int k = left;
+
+		while( i < middle && j < right )
+		{
+			long a = source.get( i );
+			long b = source.get( j );
+
+			if( a <= b )
+			{
+				target.put( k++, a );
+				i++;
+			}
+			else
+			{
+				target.put( k++, b );
+				j++;
+			}
+		}
+
+		copy( source, target, i, middle, k );
+		copy( source, target, j, right, k + middle - i );
+	}
+
+	private static void copy( IntBuffer source, IntBuffer target, int from, int to )
+	{
+		copy( source, target, from, to, from );
+	}
+
+	/**
+	 * Bulk copy of source[ from, to ) to target, starting at position at.
+	 */
+	private static void copy( IntBuffer source, IntBuffer target, int from, int to, int at )
+	{
+		if( from < to )
+		{
+			IntBuffer range = source.duplicate();
+
+			range.limit( to ).position( from );
+			target.duplicate().position( at ).put( range );
+		}
+	}
+
+	private static void copy( LongBuffer source, LongBuffer target, int from, int to )
+	{
+		copy( source, target, from, to, from );
+	}
+
+	private static void copy( LongBuffer source, LongBuffer target, int from, int to, int at )
+	{
+		if( from < to )
+		{
+			LongBuffer range = source.duplicate();
+
+			range.limit( to ).position( from );
+			target.duplicate().position( at ).put( range );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[BufferMergeSort]";
+	}
+}
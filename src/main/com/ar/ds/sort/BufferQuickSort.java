@@ -0,0 +1,325 @@
+package com.ar.ds.sort;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Quicksort of int and long buffers, in place and without any scratch space.
+ *
+ * Same scheme as IntroSort, on absolute buffer indexes: the median of the first, middle and
+ * last element is moved to the middle and the range is split by a Hoare partition around it.
+ * Only the smaller part is sorted recursively, so the stack depth stays O(log n).
+ * Once more than 2 * log2(n) steps were needed the remaining range is heap sorted,
+ * ranges of up to INSERTION_SORT_THRESHOLD elements are insertion sorted.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class BufferQuickSort implements IIntBufferSort, ILongBufferSort
+{
+	public static final int INSERTION_SORT_THRESHOLD = 24;
+
+	public BufferQuickSort()
+	{
+	}
+
+	@Override
+	public void sort( IntBuffer buffer )
+	{
+		IntBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		introsort( data, 0, n - 1, 2 * IntroSort.log2( Math.max( 1, n ) ) );
+	}
+
+	@Override
+	public void sort( LongBuffer buffer )
+	{
+		LongBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		introsort( data, 0, n - 1, 2 * IntroSort.log2( Math.max( 1, n ) ) );
+	}
+
+	private static void introsort( IntBuffer data, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				heapSort( data, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( data, left, middle );
+			sort2( data, middle, right );
+			sort2( data, left, middle );
+
+			int split = partition( data, left, right, data.get( middle ) );
+
+			if( split - left < right - split )
+			{
+				introsort( data, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( data, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( data, left, right );
+	}
+
+	/**
+	 * Hoare partition, see QuickSort.partition.
+	 */
+	private static int partition( IntBuffer data, int left, int right, int pivot )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( data.get( i ) < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( data.get( j ) > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( data, i, j );
+		}
+	}
+
+	static void insertionSort( IntBuffer data, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			int key = data.get( j );
+			int i;
+
+			for( i = j - 1; i >= left && data.get( i ) > key; i-- )
+			{
+				data.put( i + 1, data.get( i ) );
+			}
+
+			data.put( i + 1, key );
+		}
+	}
+
+	private static void heapSort( IntBuffer data, int left, int right )
+	{
+		int n = right - left + 1;
+
+		for( int i = n / 2 - 1; i >= 0; i-- )
+		{
+			siftDown( data, left, i, n, data.get( left + i ) );
+		}
+
+		for( int end = n - 1; end > 0; end-- )
+		{
+			int value = data.get( left + end );
+
+			data.put( left + end, data.get( left ) );
+			siftDown( data, left, 0, end, value );
+		}
+	}
+
+	/**
+	 * Places value into the hole at node i of the max heap data[ offset, offset + n ).
+	 */
+	private static void siftDown( IntBuffer data, int offset, int i, int n, int value )
+	{
+		int child;
+
+		while( ( child = 2 * i + 1 ) < n )
+		{
+			if( child + 1 < n && data.get( offset + child + 1 ) > data.get( offset + child ) )
+			{
+				child++;
+			}
+
+			int larger = data.get( offset + child );
+
+			if( larger <= value )
+			{
+				break;
+			}
+
+			data.put( offset + i, larger );
+			i = child;
+		}
+
+		data.put( offset + i, value );
+	}
+
+	private static void sort2( IntBuffer data, int i, int j )
+	{
+		if( data.get( j ) < data.get( i ) )
+		{
+			swap( data, i, j );
+		}
+	}
+
+	private static void swap( IntBuffer data, int i, int j )
+	{
+		int tmp = data.get( i );
+		data.put( i, data.get( j ) );
+		data.put( j, tmp );
+	}
+
+	private static void introsort( LongBuffer data, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				heapSort( data, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( data, left, middle );
+			sort2( data, middle, right );
+			sort2( data, left, middle );
+
+			int split = partition( data, left, right, data.get( middle ) );
+
+			if( split - left < right - split )
+			{
+				introsort( data, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( data, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( data, left, right );
+	}
+
+	private static int partition( LongBuffer data, int left, int right, long pivot )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( data.get( i ) < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( data.get( j ) > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( data, i, j );
+		}
+	}
+
+	static void insertionSort( LongBuffer data, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			long key = data.get( j );
+			int i;
+
+			for( i = j - 1; i >= left && data.get( i ) > key; i-- )
+			{
+				data.put( i + 1, data.get( i ) );
+			}
+
+			data.put( i + 1, key );
+		}
+	}
+
+	private static void heapSort( LongBuffer data, int left, int right )
+	{
+		int n = right - left + 1;
+
+		for( int i = n / 2 - 1; i >= 0; i-- )
+		{
+			siftDown( data, left, i, n, data.get( left + i ) );
+		}
+
+		for( int end = n - 1; end > 0; end-- )
+		{
+			long value = data.get( left + end );
+
+			data.put( left + end, data.get( left ) );
+			siftDown( data, left, 0, end, value );
+		}
+	}
+
+	private static void siftDown( LongBuffer data, int offset, int i, int n, long value )
+	{
+		int child;
+
+		while( ( child = 2 * i + 1 ) < n )
+		{
+			if( child + 1 < n && data.get( offset + child + 1 ) > data.get( offset + child ) )
+			{
+				child++;
+			}
+
+			long larger = data.get( offset + child );
+
+			if( larger <= value )
+			{
+				break;
+			}
+
+			data.put( offset + i, larger );
+			i = child;
+		}
+
+		data.put( offset + i, value );
+	}
+
+	private static void sort2( LongBuffer data, int i, int j )
+	{
+		if( data.get( j ) < data.get( i ) )
+		{
+			swap( data, i, j );
+		}
+	}
+
+	private static void swap( LongBuffer data, int i, int j )
+	{
+		long tmp = data.get( i );
+		data.put( i, data.get( j ) );
+		data.put( j, tmp );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[BufferQuickSort]";
+	}
+}
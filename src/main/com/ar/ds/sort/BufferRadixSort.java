@@ -0,0 +1,173 @@
+package com.ar.ds.sort;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * LSD radix sort of int and long buffers with off-heap scratch space ( Θ(n * w) for w bytes per key ).
+ *
+ * Like RadixSort, one pass builds the histograms of all bytes, bytes that are equal in all keys
+ * are skipped and the sign bit is flipped on the most significant byte. Each remaining byte moves
+ * all keys between the buffer and a direct scratch buffer of the same size, an odd number of passes
+ * ends with one bulk copy back.
+ *
+ * The scratch space is kept between calls and only grows, so instances are not thread safe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class BufferRadixSort implements IIntBufferSort, ILongBufferSort
+{
+	private static final int RADIX = 256;
+
+	private final int[][] _counts = new int[ 8 ][ RADIX ];
+	private final DirectScratch _scratch = new DirectScratch();
+
+	public BufferRadixSort()
+	{
+	}
+
+	@Override
+	public void sort( IntBuffer buffer )
+	{
+		IntBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int[][] counts = _counts;
+
+		clear( counts, 4 );
+
+		for( int i = 0; i < n; i++ )
+		{
+			int value = data.get( i );
+
+			counts[ 0 ][ RadixSort.intDigit( value, 0 ) ]++;
+			counts[ 1 ][ RadixSort.intDigit( value, 1 ) ]++;
+			counts[ 2 ][ RadixSort.intDigit( value, 2 ) ]++;
+			counts[ 3 ][ RadixSort.intDigit( value, 3 ) ]++;
+		}
+
+		IntBuffer source = data;
+		IntBuffer target = _scratch.ints( n );
+
+		for( int digit = 0; digit < 4; digit++ )
+		{
+			int[] count = counts[ digit ];
+
+			if( count[ RadixSort.intDigit( source.get( 0 ), digit ) ] == n )
+			{
+				continue; // same byte in every key
+			}
+
+			toOffsets( count );
+
+			for( int i = 0; i < n; i++ )
+			{
+				int value = source.get( i );
+				target.put( count[ RadixSort.intDigit( value, digit ) ]++, value );
+			}
+
+			IntBuffer tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != data )
+		{
+			source.position( 0 );
+			data.put( source );
+		}
+	}
+
+	@Override
+	public void sort( LongBuffer buffer )
+	{
+		LongBuffer data = buffer.slice();
+		int n = data.remaining();
+
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int[][] counts = _counts;
+
+		clear( counts, 8 );
+
+		for( int i = 0; i < n; i++ )
+		{
+			long value = data.get( i );
+
+			for( int digit = 0; digit < 8; digit++ )
+			{
+				counts[ digit ][ RadixSort.longDigit( value, digit ) ]++;
+			}
+		}
+
+		LongBuffer source = data;
+		LongBuffer target = _scratch.longs( n );
+
+		for( int digit = 0; digit < 8; digit++ )
+		{
+			int[] count = counts[ digit ];
+
+			if( count[ RadixSort.longDigit( source.get( 0 ), digit ) ] == n )
+			{
+				continue; // same byte in every key
+			}
+
+			toOffsets( count );
+
+			for( int i = 0; i < n; i++ )
+			{
+				long value = source.get( i );
+				target.put( count[ RadixSort.longDigit( value, digit ) ]++, value );
+			}
+
+			LongBuffer tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != data )
+		{
+			source.position( 0 );
+			data.put( source );
+		}
+	}
+
+	/**
+	 * Turns the histogram into the start offset of each bucket.
+	 */
+	private static void toOffsets( int[] count )
+	{
+		int sum = 0;
+
+		for( int i = 0; i < RADIX; i++ )
+		{
+			int c = count[ i ];
+			count[ i ] = sum;
+			sum += c;
+		}
+	}
+
+	private static void clear( int[][] counts, int digits )
+	{
+		for( int digit = 0; digit < digits; digit++ )
+		{
+			Arrays.fill( counts[ digit ], 0 );
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[BufferRadixSort]";
+	}
+}
@@ -0,0 +1,64 @@
+package com.ar.ds.sort;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Off-heap scratch space of the buffer sorts. A single direct buffer in native byte order
+ * that is kept between calls and only grows, so sorting the same column size again
+ * allocates nothing. Not thread safe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class DirectScratch
+{
+	private ByteBuffer _buffer = ByteBuffer.allocateDirect( 0 );
+
+	DirectScratch()
+	{
+	}
+
+	/**
+	 * View of the first n ints, position 0 and limit n.
+	 */
+	IntBuffer ints( int n )
+	{
+		return reserve( 4L * n ).asIntBuffer();
+	}
+
+	/**
+	 * View of the first n longs, position 0 and limit n.
+	 */
+	LongBuffer longs( int n )
+	{
+		return reserve( 8L * n ).asLongBuffer();
+	}
+
+	private ByteBuffer reserve( long bytes )
+	{
+		if( bytes > Integer.MAX_VALUE )
+		{
+			throw new IllegalArgumentException( "scratch space of " + bytes + " bytes exceeds a direct buffer" );
+		}
+
+		if( _buffer.capacity() < bytes )
+		{
+			_buffer = ByteBuffer.allocateDirect( ( int ) bytes ).order( ByteOrder.nativeOrder() );
+		}
+
+		ByteBuffer view = _buffer.duplicate().order( ByteOrder.nativeOrder() );
+
+		view.limit( ( int ) bytes );
+
+		return view;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[DirectScratch]";
+	}
+}
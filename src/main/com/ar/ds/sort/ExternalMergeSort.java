@@ -0,0 +1,727 @@
+package com.ar.ds.sort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * External Merge Sort:
+ * Sorts binary files of 32 bit ints that are much larger than the heap.
+ *
+ * 1. The input is read run by run. Each run is sorted in memory with the run sort (IntroSort by default,
+ * which sorts in place) and spilled to a temp file.
+ * 2. While there are more runs than the merge fan-in, groups of fanIn runs are merged into longer runs.
+ * 3. The remaining runs are merged into the output file.
+ *
+ * Merging is a k-way merge through a LoserTree, which needs log2(k) comparisons per element.
+ *
+ * All I/O runs on one background thread and is double-buffered. Each open file has two direct blocks,
+ * the next block is read with FileChannel.read while the current one is consumed, and output is written
+ * from one block while the other block is filled. The blocks are allocated once per file and reused,
+ * nothing is memory mapped, so small blocks do not pile up mappings.
+ *
+ * Memory use is one run of runSize ints, plus two blocks per open file, plus whatever scratch space
+ * the run sort needs. A run sort that allocates, like MergeSort(), doubles the peak per run.
+ *
+ * If the sort fails, the temp files and a partly written output are deleted.
+ *
+ * The counters can be read from another thread while a sort is running to follow its progress.
+ *
+ * http://en.wikipedia.org/wiki/External_sorting
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class ExternalMergeSort
+{
+	public static final int DEFAULT_RUN_SIZE = 1 << 24;
+	public static final int DEFAULT_FAN_IN = 64;
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+	/**
+	 * Largest run, the longest int array most VMs allocate.
+	 */
+	public static final int MAX_RUN_SIZE = Integer.MAX_VALUE - 8;
+
+	private final int _runSize;
+	private final int _fanIn;
+	private final int _blockSize;
+	private final File _tempDirectory;
+	private final ISort _runSort;
+	private final ByteOrder _byteOrder;
+
+	private final AtomicLong _totalInts = new AtomicLong();
+	private final AtomicLong _intsRead = new AtomicLong();
+	private final AtomicLong _intsWritten = new AtomicLong();
+	private final AtomicLong _runsCreated = new AtomicLong();
+	private final AtomicLong _mergePasses = new AtomicLong();
+	private final AtomicLong _startTime = new AtomicLong();
+	private final AtomicLong _endTime = new AtomicLong();
+
+	public ExternalMergeSort()
+	{
+		this( DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, new File( System.getProperty( "java.io.tmpdir" ) ) );
+	}
+
+	public ExternalMergeSort( int runSize, int fanIn, File tempDirectory )
+	{
+		this( runSize, fanIn, DEFAULT_BLOCK_SIZE, tempDirectory, new IntroSort(), ByteOrder.BIG_ENDIAN );
+	}
+
+	/**
+	 * @param runSize       ints sorted in memory at once, up to MAX_RUN_SIZE
+	 * @param fanIn         runs merged at once
+	 * @param blockSize     ints per I/O block
+	 * @param tempDirectory where the runs are spilled to
+	 * @param runSort       sorts each run in memory
+	 * @param byteOrder     byte order of the input and output files
+	 */
+	public ExternalMergeSort( int runSize, int fanIn, int blockSize, File tempDirectory, ISort runSort, ByteOrder byteOrder )
+	{
+		if( runSize < 1 || runSize > MAX_RUN_SIZE )
+		{
+			throw new IllegalArgumentException( "runSize must be in [1, " + MAX_RUN_SIZE + "]" );
+		}
+
+		if( fanIn < 2 )
+		{
+			throw new IllegalArgumentException( "fanIn must be at least 2" );
+		}
+
+		if( blockSize < 1 )
+		{
+			throw new IllegalArgumentException( "blockSize must be at least 1" );
+		}
+
+		if( tempDirectory == null || runSort == null || byteOrder == null )
+		{
+			throw new IllegalArgumentException( "tempDirectory, runSort and byteOrder must not be null" );
+		}
+
+		_runSize = runSize;
+		_fanIn = fanIn;
+		_blockSize = blockSize;
+		_tempDirectory = tempDirectory;
+		_runSort = runSort;
+		_byteOrder = byteOrder;
+	}
+
+	/**
+	 * Sorts the ints of input into output. Input and output must be different files.
+	 */
+	public void sort( File input, File output ) throws IOException
+	{
+		resetCounters();
+
+		ExecutorService io = Executors.newSingleThreadExecutor( new ThreadFactory()
+		{
+			@Override
+			public Thread newThread( Runnable runnable )
+			{
+				Thread thread = new Thread( runnable, "ExternalMergeSort-io" );
+				thread.setDaemon( true );
+				return thread;
+			}
+		} );
+
+		List<File> runs = new ArrayList<File>();
+		// Runs of the pass in progress, deleted as well if it fails
+		List<File> merged = new ArrayList<File>();
+
+		try
+		{
+			createRuns( input, output, runs, io );
+
+			while( runs.size() > _fanIn )
+			{
+				for( int i = 0; i < runs.size(); i += _fanIn )
+				{
+					List<File> group = runs.subList( i, Math.min( i + _fanIn, runs.size() ) );
+					File run = createTempFile();
+
+					merged.add( run );
+					merge( group, run, io );
+					delete( group );
+				}
+
+				runs = merged;
+				merged = new ArrayList<File>();
+				_mergePasses.incrementAndGet();
+			}
+
+			if( !runs.isEmpty() )
+			{
+				merge( runs, output, io );
+				_mergePasses.incrementAndGet();
+			}
+		}
+		finally
+		{
+			io.shutdownNow();
+			delete( runs );
+			delete( merged );
+			_endTime.set( System.nanoTime() );
+		}
+	}
+
+	/**
+	 * Sorts the input run by run. A single run is written to output directly, otherwise
+	 * every run goes to its own temp file which is added to runs.
+	 */
+	private void createRuns( File input, File output, List<File> runs, ExecutorService io ) throws IOException
+	{
+		RunReader reader = new RunReader( input, io, _byteOrder, _blockSize, _intsRead );
+
+		try
+		{
+			long size = reader.getByteCount();
+
+			if( size % 4 != 0 )
+			{
+				throw new IOException( "Length of " + input + " is not a multiple of 4 bytes" );
+			}
+
+			long total = size / 4;
+			_totalInts.set( total );
+
+			if( total == 0 )
+			{
+				write( output, new int[ 0 ], 0, io );
+				return;
+			}
+
+			int[] run = new int[ ( int ) Math.min( _runSize, total ) ];
+			long position = 0;
+
+			while( position < total )
+			{
+				int count = ( int ) Math.min( run.length, total - position );
+
+				if( count != run.length )
+				{
+					run = new int[ count ]; // last run is shorter
+				}
+
+				if( reader.get( run, 0, count ) != count )
+				{
+					throw new IOException( input + " ended early, it changed while being sorted" );
+				}
+
+				_runSort.sort( run );
+
+				File target = total <= run.length ? output : createTempFile();
+
+				if( target != output )
+				{
+					runs.add( target );
+				}
+
+				write( target, run, count, io );
+
+				_runsCreated.incrementAndGet();
+				position += count;
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	private void write( File file, int[] run, int count, ExecutorService io ) throws IOException
+	{
+		RunWriter writer = new RunWriter( file, io, _byteOrder, _blockSize, _intsWritten );
+		boolean written = false;
+
+		try
+		{
+			writer.put( run, 0, count );
+			writer.close();
+			written = true;
+		}
+		finally
+		{
+			if( !written )
+			{
+				writer.abort();
+			}
+		}
+	}
+
+	private void merge( List<File> inputs, File output, ExecutorService io ) throws IOException
+	{
+		int k = inputs.size();
+		RunReader[] readers = new RunReader[ k ];
+		long[] keys = new long[ k ];
+
+		try
+		{
+			for( int i = 0; i < k; i++ )
+			{
+				readers[ i ] = new RunReader( inputs.get( i ), io, _byteOrder, _blockSize, _intsRead );
+				keys[ i ] = readers[ i ].hasNext() ? readers[ i ].next() : LoserTree.EXHAUSTED;
+			}
+
+			LoserTree tree = new LoserTree( keys );
+			RunWriter writer = new RunWriter( output, io, _byteOrder, _blockSize, _intsWritten );
+			boolean written = false;
+
+			try
+			{
+				while( true )
+				{
+					int winner = tree.winner();
+					long key = keys[ winner ];
+
+					if( key == LoserTree.EXHAUSTED )
+					{
+						break;
+					}
+
+					writer.put( ( int ) key );
+
+					RunReader reader = readers[ winner ];
+					keys[ winner ] = reader.hasNext() ? reader.next() : LoserTree.EXHAUSTED;
+
+					tree.replay( winner );
+				}
+
+				writer.close();
+				written = true;
+			}
+			finally
+			{
+				if( !written )
+				{
+					writer.abort();
+				}
+			}
+		}
+		finally
+		{
+			for( RunReader reader : readers )
+			{
+				if( reader != null )
+				{
+					reader.close();
+				}
+			}
+		}
+	}
+
+	private static <T> T await( Future<T> future ) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException( "Interrupted while waiting for I/O" );
+		}
+		catch( ExecutionException e )
+		{
+			if( e.getCause() instanceof IOException )
+			{
+				throw ( IOException ) e.getCause();
+			}
+
+			throw new IOException( e.getCause() );
+		}
+	}
+
+	private File createTempFile() throws IOException
+	{
+		File file = File.createTempFile( "run", ".bin", _tempDirectory );
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static void delete( List<File> files )
+	{
+		for( File file : files )
+		{
+			file.delete();
+		}
+	}
+
+	private void resetCounters()
+	{
+		_totalInts.set( 0 );
+		_intsRead.set( 0 );
+		_intsWritten.set( 0 );
+		_runsCreated.set( 0 );
+		_mergePasses.set( 0 );
+		_startTime.set( System.nanoTime() );
+		_endTime.set( 0 );
+	}
+
+	/**
+	 * Number of ints in the input of the current or last sort.
+	 */
+	public long getTotalInts()
+	{
+		return _totalInts.get();
+	}
+
+	/**
+	 * Ints read so far, counting the input and every run read back for merging.
+	 */
+	public long getIntsRead()
+	{
+		return _intsRead.get();
+	}
+
+	/**
+	 * Ints written so far, counting every run and the output.
+	 */
+	public long getIntsWritten()
+	{
+		return _intsWritten.get();
+	}
+
+	public long getRunsCreated()
+	{
+		return _runsCreated.get();
+	}
+
+	public long getMergePasses()
+	{
+		return _mergePasses.get();
+	}
+
+	/**
+	 * Time spent in the current or last sort.
+	 */
+	public long getElapsedNanos()
+	{
+		long end = _endTime.get();
+
+		return ( end != 0 ? end : System.nanoTime() ) - _startTime.get();
+	}
+
+	/**
+	 * Ints read and written per second in the current or last sort.
+	 */
+	public double getThroughput()
+	{
+		long elapsed = getElapsedNanos();
+
+		return elapsed <= 0 ? 0 : ( _intsRead.get() + _intsWritten.get() ) * 1e9 / elapsed;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ExternalMergeSort]";
+	}
+
+	/**
+	 * Reads a file of ints through two blocks. The next block is read on the io thread while the current
+	 * one is consumed.
+	 */
+	private static final class RunReader
+	{
+		private final FileChannel _channel;
+		private final ExecutorService _io;
+		private final AtomicLong _intsRead;
+		private final long _size;
+		private final ByteBuffer[] _blocks = new ByteBuffer[ 2 ];
+		private final IntBuffer[] _views = new IntBuffer[ 2 ];
+
+		private long _position;
+		private IntBuffer _current;
+		private int _nextBlock;
+		private Future<Integer> _next;
+
+		RunReader( File file, ExecutorService io, ByteOrder byteOrder, int blockSize, AtomicLong intsRead ) throws IOException
+		{
+			_channel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+			_io = io;
+			_intsRead = intsRead;
+			_size = _channel.size();
+
+			for( int i = 0; i < 2; i++ )
+			{
+				_blocks[ i ] = ByteBuffer.allocateDirect( blockSize * 4 ).order( byteOrder );
+				_views[ i ] = _blocks[ i ].asIntBuffer();
+			}
+
+			prefetch( 0 );
+		}
+
+		long getByteCount()
+		{
+			return _size;
+		}
+
+		boolean hasNext() throws IOException
+		{
+			if( _current != null && _current.hasRemaining() )
+			{
+				return true;
+			}
+
+			if( _next == null )
+			{
+				return false;
+			}
+
+			int block = _nextBlock;
+			int bytes = await( _next );
+
+			_current = _views[ block ];
+			_current.clear();
+			_current.limit( bytes / 4 );
+			_intsRead.addAndGet( bytes / 4 );
+
+			// The other block has been consumed, it takes the next read
+			prefetch( block ^ 1 );
+
+			return _current.hasRemaining();
+		}
+
+		/**
+		 * Requires hasNext() to be true.
+		 */
+		int next()
+		{
+			return _current.get();
+		}
+
+		/**
+		 * Reads up to length ints into array, fewer only at the end of the file.
+		 *
+		 * @return number of ints read
+		 */
+		int get( int[] array, int offset, int length ) throws IOException
+		{
+			int read = 0;
+
+			while( read < length && hasNext() )
+			{
+				int count = Math.min( length - read, _current.remaining() );
+
+				_current.get( array, offset + read, count );
+				read += count;
+			}
+
+			return read;
+		}
+
+		private void prefetch( int index )
+		{
+			if( _position >= _size )
+			{
+				_next = null;
+				return;
+			}
+
+			final ByteBuffer block = _blocks[ index ];
+			final long start = _position;
+
+			block.clear();
+			block.limit( ( int ) Math.min( block.capacity(), _size - start ) );
+
+			_position += block.limit();
+			_nextBlock = index;
+			_next = _io.submit( new Callable<Integer>()
+			{
+				@Override
+				public Integer call() throws IOException
+				{
+					while( block.hasRemaining() )
+					{
+						if( _channel.read( block, start + block.position() ) < 0 )
+						{
+							break; // the file got shorter
+						}
+					}
+
+					return block.position();
+				}
+			} );
+		}
+
+		void close() throws IOException
+		{
+			try
+			{
+				// The block of a pending read must not be reused or the channel closed under it
+				if( _next != null )
+				{
+					await( _next );
+				}
+			}
+			finally
+			{
+				_channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Writes ints to a file through two blocks. One block is filled while the other is written on the io thread.
+	 */
+	private static final class RunWriter
+	{
+		private final File _file;
+		private final FileChannel _channel;
+		private final ExecutorService _io;
+		private final AtomicLong _intsWritten;
+		private final ByteBuffer[] _blocks = new ByteBuffer[ 2 ];
+		private final IntBuffer[] _views = new IntBuffer[ 2 ];
+
+		private int _active;
+		private Future<?> _pending;
+
+		RunWriter( File file, ExecutorService io, ByteOrder byteOrder, int blockSize, AtomicLong intsWritten ) throws IOException
+		{
+			_file = file;
+			_io = io;
+			_intsWritten = intsWritten;
+
+			for( int i = 0; i < 2; i++ )
+			{
+				_blocks[ i ] = ByteBuffer.allocateDirect( blockSize * 4 ).order( byteOrder );
+				_views[ i ] = _blocks[ i ].asIntBuffer();
+			}
+
+			// Opened last, nothing after it can fail and leave the channel open
+			_channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING );
+		}
+
+		void put( int value ) throws IOException
+		{
+			IntBuffer view = _views[ _active ];
+
+			if( !view.hasRemaining() )
+			{
+				flush();
+				view = _views[ _active ];
+			}
+
+			view.put( value );
+		}
+
+		void put( int[] array, int offset, int length ) throws IOException
+		{
+			while( length > 0 )
+			{
+				IntBuffer view = _views[ _active ];
+
+				if( !view.hasRemaining() )
+				{
+					flush();
+					view = _views[ _active ];
+				}
+
+				int count = Math.min( length, view.remaining() );
+
+				view.put( array, offset, count );
+				offset += count;
+				length -= count;
+			}
+		}
+
+		/**
+		 * Hands the active block to the io thread and switches to the other one once its write completed.
+		 */
+		private void flush() throws IOException
+		{
+			IntBuffer view = _views[ _active ];
+			final ByteBuffer block = _blocks[ _active ];
+
+			block.clear();
+			block.limit( view.position() * 4 );
+			_intsWritten.addAndGet( view.position() );
+
+			if( _pending != null )
+			{
+				await( _pending );
+			}
+
+			_pending = _io.submit( new Callable<Void>()
+			{
+				@Override
+				public Void call() throws IOException
+				{
+					while( block.hasRemaining() )
+					{
+						_channel.write( block );
+					}
+
+					return null;
+				}
+			} );
+
+			_active ^= 1;
+			_views[ _active ].clear();
+		}
+
+		void close() throws IOException
+		{
+			try
+			{
+				if( _views[ _active ].position() > 0 )
+				{
+					flush();
+				}
+
+				if( _pending != null )
+				{
+					await( _pending );
+				}
+			}
+			finally
+			{
+				_channel.close();
+			}
+		}
+
+		/**
+		 * Releases the file after put or close failed and deletes it, its content is incomplete.
+		 * Errors are dropped, the failure that led here is the one reported.
+		 */
+		void abort()
+		{
+			try
+			{
+				if( _pending != null )
+				{
+					await( _pending );
+				}
+			}
+			catch( IOException e )
+			{
+				// the write may be what failed
+			}
+
+			try
+			{
+				_channel.close();
+			}
+			catch( IOException e )
+			{
+				// nothing left to release
+			}
+
+			_file.delete();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.ar.ds.sort;
+
+/**
+ * Lets the comparison sorts use the plain < and <= operators on floating point values
+ * and still end up in the order of Double.compare and Float.compare.
+ *
+ * 1. moveNaNsToEnd swaps all NaNs behind the other values, they are not sorted any further.
+ * 2. The remaining values are sorted, -0.0 and 0.0 compare equal and end up mixed.
+ * 3. orderZeros rewrites the run of zeros with all negative zeros first.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class FloatingPointOrder
+{
+	private FloatingPointOrder()
+	{
+	}
+
+	/**
+	 * Returns the number of values that are not NaN, these are then in [0, end).
+	 */
+	static int moveNaNsToEnd( double[] array )
+	{
+		int end = array.length;
+
+		for( int i = end - 1; i >= 0; i-- )
+		{
+			double value = array[ i ];
+
+			if( value != value )
+			{
+				array[ i ] = array[ --end ];
+				array[ end ] = value;
+			}
+		}
+
+		return end;
+	}
+
+	/**
+	 * Returns the number of values that are not NaN, these are then in [0, end).
+	 */
+	static int moveNaNsToEnd( float[] array )
+	{
+		int end = array.length;
+
+		for( int i = end - 1; i >= 0; i-- )
+		{
+			float value = array[ i ];
+
+			if( value != value )
+			{
+				array[ i ] = array[ --end ];
+				array[ end ] = value;
+			}
+		}
+
+		return end;
+	}
+
+	/**
+	 * Puts -0.0 in front of 0.0 within the sorted range [0, end).
+	 */
+	static void orderZeros( double[] array, int end )
+	{
+		// first index that is not less than zero
+		int low = 0;
+		int high = end;
+
+		while( low < high )
+		{
+			int mid = ( low + high ) >>> 1;
+
+			if( array[ mid ] < 0.0 )
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+
+		int negativeZeros = 0;
+		int i = low;
+
+		for( ; i < end && array[ i ] == 0.0; i++ )
+		{
+			if( Double.doubleToRawLongBits( array[ i ] ) < 0 )
+			{
+				negativeZeros++;
+			}
+		}
+
+		for( int j = low; j < i; j++ )
+		{
+			array[ j ] = j < low + negativeZeros ? -0.0 : 0.0;
+		}
+	}
+
+	/**
+	 * Puts -0.0f in front of 0.0f within the sorted range [0, end).
+	 */
+	static void orderZeros( float[] array, int end )
+	{
+		// first index that is not less than zero
+		int low = 0;
+		int high = end;
+
+		while( low < high )
+		{
+			int mid = ( low + high ) >>> 1;
+
+			if( array[ mid ] < 0.0f )
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+
+		int negativeZeros = 0;
+		int i = low;
+
+		for( ; i < end && array[ i ] == 0.0f; i++ )
+		{
+			if( Float.floatToRawIntBits( array[ i ] ) < 0 )
+			{
+				negativeZeros++;
+			}
+		}
+
+		for( int j = low; j < i; j++ )
+		{
+			array[ j ] = j < low + negativeZeros ? -0.0f : 0.0f;
+		}
+	}
+}
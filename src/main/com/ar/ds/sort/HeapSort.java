@@ -5,44 +5,233 @@ package com.ar.ds.sort;
  * Entnimm einem Heap so lange das kleinste Element, bis er leer ist.
  * Die entnommenen Elemente werden im selben Array gespeichert.
  *
+ * Bottom-up mode ( HeapSort( arity ) ):
+ * The textbook sift-down needs two comparisons per level. Bottom-up heapsort (Floyd) instead
+ * walks the hole left by the removed maximum down to a leaf along the larger children, which costs
+ * one comparison per child, and then sifts the displaced element up from there. That element
+ * came from the bottom of the heap, so it rarely has to climb more than a level or two.
+ * Elements are moved into the hole instead of being swapped, one write per level.
+ *
+ * The heap can be 2-, 4- or 8-ary. The children of a node are stored next to each other, so a
+ * wider heap is flatter (log4 n or log8 n levels), and the children read at each level lie in one
+ * or two cache lines. That cuts the cache misses on arrays much larger than the cache.
+ *
  * http://en.wikibooks.org/wiki/Algorithm_Implementation/Sorting/Heapsort#Java_2
+ * http://en.wikipedia.org/wiki/Heapsort#Bottom-up_heapsort
+ * http://en.wikipedia.org/wiki/D-ary_heap
  *
  * @author Alan Ross
  * @version 0.1
  */
-public class HeapSort implements ISort
+public class HeapSort implements ISort, ILongSort, IDoubleSort, IFloatSort, IKeyValueSort
 {
+	/**
+	 * log2 of the arity of the bottom-up heap, -1 for the textbook heapsort.
+	 */
+	private final int _shift;
+
 	public HeapSort()
 	{
+		_shift = -1;
+	}
+
+	/**
+	 * Bottom-up heapsort of int arrays with a heap of the given arity, 2, 4 or 8.
+	 */
+	public HeapSort( int arity )
+	{
+		if( arity != 2 && arity != 4 && arity != 8 )
+		{
+			throw new IllegalArgumentException( "arity must be 2, 4 or 8" );
+		}
+
+		_shift = Integer.numberOfTrailingZeros( arity );
 	}
 
 	@Override
 	public void sort( int[] array )
 	{
-		generateMaxHeap( array );
+		if( _shift < 0 )
+		{
+			sort( array, 0, array.length - 1 );
+		}
+		else
+		{
+			bottomUpSort( array, _shift );
+		}
+	}
+
+	/**
+	 * Bottom-up heapsort with a heap of arity 1 << shift.
+	 */
+	static void bottomUpSort( int[] array, int shift )
+	{
+		int n = array.length;
+
+		// start at the last parent, go backwards
+		for( int i = ( n - 2 ) >> shift; i >= 0; i-- )
+		{
+			siftHole( array, i, n, array[ i ], shift );
+		}
+
+		// sort
+		for( int i = n - 1; i > 0; i-- )
+		{
+			int value = array[ i ];
+			array[ i ] = array[ 0 ];
+			siftHole( array, 0, i, value, shift );
+		}
+
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.moved( Math.max( 0, n - 1 ) );
+		}
+	}
+
+	/**
+	 * Fills the hole at root of the n element heap with value. The hole first sinks to a leaf along the
+	 * largest children, then value rises from there until its parent is not smaller, but not above root.
+	 */
+	private static void siftHole( int[] array, int root, int n, int value, int shift )
+	{
+		int hole = root;
+		// A node has children while hole <= ( n - 2 ) >> shift. Testing the first child index against n
+		// instead would overflow int for hole >= 2^( 31 - shift ), on arrays above 2^30, 2^29 and 2^28
+		// elements for the binary, 4-ary and 8-ary heap.
+		int lastParent = ( n - 2 ) >> shift;
+
+		if( shift == 1 )
+		{
+			// binary heap, picking the larger of two children directly compiles much better than the loop below
+			while( hole <= lastParent )
+			{
+				int child = ( hole << 1 ) + 1;
+
+				if( child + 1 < n && array[ child + 1 ] > array[ child ] )
+				{
+					child++;
+				}
+
+				array[ hole ] = array[ child ];
+				hole = child;
+			}
+		}
+		else
+		{
+			while( hole <= lastParent )
+			{
+				int child = ( hole << shift ) + 1;
+				// n - child is at least 1, so the sum stays within n
+				int end = child + Math.min( 1 << shift, n - child );
+				int largest = child;
+				int max = array[ child ];
+
+				for( int c = child + 1; c < end; c++ )
+				{
+					int candidate = array[ c ];
+
+					if( candidate > max )
+					{
+						max = candidate;
+						largest = c;
+					}
+				}
+
+				array[ hole ] = max;
+				hole = largest;
+			}
+		}
+
+		int leaf = hole;
+
+		while( hole > root )
+		{
+			int parent = ( hole - 1 ) >> shift;
+
+			if( array[ parent ] >= value )
+			{
+				break;
+			}
+
+			array[ hole ] = array[ parent ];
+			hole = parent;
+		}
+
+		array[ hole ] = value;
+
+		if( SortProbe.ENABLED )
+		{
+			// Counted from the path, arity - 1 comparisons per level sunk, one per level risen and the final check
+			int sunk = depth( leaf, shift ) - depth( root, shift );
+			int risen = depth( leaf, shift ) - depth( hole, shift );
+
+			SortProbe.compared( ( long ) sunk * ( ( 1 << shift ) - 1 ) + risen + 1 );
+			SortProbe.moved( sunk + risen + 1 );
+		}
+	}
+
+	/**
+	 * Level of node in a heap of arity 1 << shift, the root is at level 0.
+	 */
+	private static int depth( int node, int shift )
+	{
+		int depth = 0;
+
+		while( node > 0 )
+		{
+			node = ( node - 1 ) >> shift;
+			depth++;
+		}
+
+		return depth;
+	}
+
+	public int getArity()
+	{
+		return _shift < 0 ? 2 : 1 << _shift;
+	}
+
+	/**
+	 * Heapsort of the range [left, right], the heap is rooted at left.
+	 */
+	static void sort( int[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		generateMaxHeap( array, left, n );
 
 		// sort
-		for( int i = array.length - 1; i > 0; i-- )
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( array, left + i, left );
+			burry( array, left, 0, i );
+		}
+
+		if( SortProbe.ENABLED )
 		{
-			swap( array, i, 0 );
-			burry( array, 0, i );
+			SortProbe.moved( 2L * Math.max( 0, n - 1 ) );
 		}
 	}
 
 	/**
 	 * Create MaxHeap Tree in Array
 	 */
-	private void generateMaxHeap( int[] array )
+	private static void generateMaxHeap( int[] array, int offset, int n )
 	{
 		// start in the middle, go backwards
-		for( int i = ( array.length / 2 ) - 1; i >= 0; i-- )
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
 		{
-			burry( array, i, array.length );
+			burry( array, offset, i, n );
 		}
 	}
 
-	private void burry( int[] array, int i, int n )
+	/**
+	 * Sinks heap element i of the n element heap stored at array[offset] downwards.
+	 */
+	static void burry( int[] array, int offset, int i, int n )
 	{
+		int start = i;
+
 		while( i <= ( n / 2 ) - 1 )
 		{
 			int kindIndex = ( ( i + 1 ) * 2 ) - 1; // berechnet den Index des linken kind
@@ -51,16 +240,16 @@ public class HeapSort implements ISort
 			if( kindIndex + 1 <= n - 1 )
 			{
 				//rechtes kind existiert
-				if( array[ kindIndex ] < array[ kindIndex + 1 ] )
+				if( array[ offset + kindIndex ] < array[ offset + kindIndex + 1 ] )
 				{
 					kindIndex++; // wenn rechtes kind größer ist nimm das
 				}
 			}
 
 			//teste ob element sinken muss
-			if( array[ i ] < array[ kindIndex ] )
+			if( array[ offset + i ] < array[ offset + kindIndex ] )
 			{
-				swap( array, i, kindIndex ); //element versenken
+				swap( array, offset + i, offset + kindIndex ); //element versenken
 				i = kindIndex; // wiederhole den vorgang mit der neuen position
 			}
 			else
@@ -68,15 +257,246 @@ public class HeapSort implements ISort
 				break;
 			}
 		}
+
+		if( SortProbe.ENABLED )
+		{
+			// Counted from the path instead of in the loop, two comparisons per level sunk and per final check
+			int levels = IntroSort.log2( i + 1 ) - IntroSort.log2( start + 1 );
+
+			SortProbe.compared( 2L * levels + ( i <= ( n / 2 ) - 1 ? 2 : 0 ) );
+			SortProbe.moved( 2L * levels );
+		}
 	}
 
-	private void swap( int[] array, int i, int j )
+	private static void swap( int[] array, int i, int j )
 	{
 		int tmp = array[ i ];
 		array[ i ] = array[ j ];
 		array[ j ] = tmp;
 	}
 
+	@Override
+	public void sort( long[] array )
+	{
+		sort( array, 0, array.length - 1 );
+	}
+
+	@Override
+	public void sort( double[] array )
+	{
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		sort( array, 0, end - 1 );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	@Override
+	public void sort( float[] array )
+	{
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		sort( array, 0, end - 1 );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	static void sort( long[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		// start in the middle, go backwards
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
+		{
+			burry( array, left, i, n );
+		}
+
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( array, left + i, left );
+			burry( array, left, 0, i );
+		}
+	}
+
+	static void burry( long[] array, int offset, int i, int n )
+	{
+		while( i <= ( n / 2 ) - 1 )
+		{
+			int kindIndex = ( ( i + 1 ) * 2 ) - 1;
+
+			if( kindIndex + 1 <= n - 1 && array[ offset + kindIndex ] < array[ offset + kindIndex + 1 ] )
+			{
+				kindIndex++;
+			}
+
+			if( array[ offset + i ] < array[ offset + kindIndex ] )
+			{
+				swap( array, offset + i, offset + kindIndex );
+				i = kindIndex;
+			}
+			else
+			{
+				break;
+			}
+		}
+	}
+
+	private static void swap( long[] array, int i, int j )
+	{
+		long tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	static void sort( double[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		// start in the middle, go backwards
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
+		{
+			burry( array, left, i, n );
+		}
+
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( array, left + i, left );
+			burry( array, left, 0, i );
+		}
+	}
+
+	static void burry( double[] array, int offset, int i, int n )
+	{
+		while( i <= ( n / 2 ) - 1 )
+		{
+			int kindIndex = ( ( i + 1 ) * 2 ) - 1;
+
+			if( kindIndex + 1 <= n - 1 && array[ offset + kindIndex ] < array[ offset + kindIndex + 1 ] )
+			{
+				kindIndex++;
+			}
+
+			if( array[ offset + i ] < array[ offset + kindIndex ] )
+			{
+				swap( array, offset + i, offset + kindIndex );
+				i = kindIndex;
+			}
+			else
+			{
+				break;
+			}
+		}
+	}
+
+	private static void swap( double[] array, int i, int j )
+	{
+		double tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	static void sort( float[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		// start in the middle, go backwards
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
+		{
+			burry( array, left, i, n );
+		}
+
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( array, left + i, left );
+			burry( array, left, 0, i );
+		}
+	}
+
+	static void burry( float[] array, int offset, int i, int n )
+	{
+		while( i <= ( n / 2 ) - 1 )
+		{
+			int kindIndex = ( ( i + 1 ) * 2 ) - 1;
+
+			if( kindIndex + 1 <= n - 1 && array[ offset + kindIndex ] < array[ offset + kindIndex + 1 ] )
+			{
+				kindIndex++;
+			}
+
+			if( array[ offset + i ] < array[ offset + kindIndex ] )
+			{
+				swap( array, offset + i, offset + kindIndex );
+				i = kindIndex;
+			}
+			else
+			{
+				break;
+			}
+		}
+	}
+
+	private static void swap( float[] array, int i, int j )
+	{
+		float tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	/**
+	 * Sorts keys and applies the same permutation to values. Not stable.
+	 */
+	@Override
+	public void sort( int[] keys, long[] values )
+	{
+		if( keys.length != values.length )
+		{
+			throw new IllegalArgumentException( "keys and values differ in length" );
+		}
+
+		sort( keys, values, 0, keys.length - 1 );
+	}
+
+	static void sort( int[] keys, long[] values, int left, int right )
+	{
+		int n = right - left + 1;
+
+		for( int i = ( n / 2 ) - 1; i >= 0; i-- )
+		{
+			burry( keys, values, left, i, n );
+		}
+
+		for( int i = n - 1; i > 0; i-- )
+		{
+			swap( keys, left + i, left );
+			swap( values, left + i, left );
+			burry( keys, values, left, 0, i );
+		}
+	}
+
+	private static void burry( int[] keys, long[] values, int offset, int i, int n )
+	{
+		while( i <= ( n / 2 ) - 1 )
+		{
+			int kindIndex = ( ( i + 1 ) * 2 ) - 1;
+
+			if( kindIndex + 1 <= n - 1 && keys[ offset + kindIndex ] < keys[ offset + kindIndex + 1 ] )
+			{
+				kindIndex++;
+			}
+
+			if( keys[ offset + i ] < keys[ offset + kindIndex ] )
+			{
+				swap( keys, offset + i, offset + kindIndex );
+				swap( values, offset + i, offset + kindIndex );
+				i = kindIndex;
+			}
+			else
+			{
+				break;
+			}
+		}
+	}
+
 	@Override
 	public String toString()
 	{
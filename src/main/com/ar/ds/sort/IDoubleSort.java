@@ -0,0 +1,13 @@
+package com.ar.ds.sort;
+
+/**
+ * Sorts in the total order of Double.compare:
+ * -Infinity, negative numbers, -0.0, 0.0, positive numbers, Infinity, NaN.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface IDoubleSort
+{
+	void sort( double[] array );
+}
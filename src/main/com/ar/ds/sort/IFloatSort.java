@@ -0,0 +1,13 @@
+package com.ar.ds.sort;
+
+/**
+ * Sorts in the total order of Float.compare:
+ * -Infinity, negative numbers, -0.0f, 0.0f, positive numbers, Infinity, NaN.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface IFloatSort
+{
+	void sort( float[] array );
+}
@@ -0,0 +1,15 @@
+package com.ar.ds.sort;
+
+import java.nio.IntBuffer;
+
+/**
+ * Sorts the remaining elements of an int buffer, [position, limit), in place.
+ * Works on direct buffers without copying them to the heap. Position and limit are left unchanged.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface IIntBufferSort
+{
+	void sort( IntBuffer buffer );
+}
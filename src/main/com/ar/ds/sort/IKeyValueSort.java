@@ -0,0 +1,13 @@
+package com.ar.ds.sort;
+
+/**
+ * Sorts an array of keys ascending and moves the payload at the same index along with each key.
+ * Both arrays must have the same length.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface IKeyValueSort
+{
+	void sort( int[] keys, long[] values );
+}
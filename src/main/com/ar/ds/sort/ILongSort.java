@@ -0,0 +1,10 @@
+package com.ar.ds.sort;
+
+/**
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface ILongSort
+{
+	void sort( long[] array );
+}
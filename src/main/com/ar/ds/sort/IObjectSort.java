@@ -0,0 +1,26 @@
+package com.ar.ds.sort;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts arrays of objects, either by a comparator or by a primitive key derived from each element.
+ *
+ * The key extractor is called exactly once per element, the keys are then sorted together
+ * with the element indexes and the elements are permuted accordingly ( Schwartzian transform ).
+ * Elements with equal keys keep their order.
+ *
+ * http://en.wikipedia.org/wiki/Schwartzian_transform
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface IObjectSort<T>
+{
+	void sort( T[] array, Comparator<? super T> comparator );
+
+	void sortByIntKey( T[] array, ToIntFunction<? super T> key );
+
+	void sortByLongKey( T[] array, ToLongFunction<? super T> key );
+}
@@ -0,0 +1,33 @@
+package com.ar.ds.sort;
+
+/**
+ * Answers order statistics without sorting the whole array.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface ISelect
+{
+	/**
+	 * Rearranges array so that array[ n ] holds the value it would hold if array was sorted,
+	 * no element in front of it is greater and no element behind it is smaller.
+	 */
+	void nthElement( int[] array, int n );
+
+	/**
+	 * Moves the k smallest elements to the front of array, sorted ascending. The rest is left in any order.
+	 */
+	void partialSort( int[] array, int k );
+
+	/**
+	 * Writes the k largest elements of array to out, sorted descending. Does not modify array.
+	 * Returns their number, min( k, array.length ), out[ count, k ) is left as it was.
+	 */
+	int topK( int[] array, int k, int[] out );
+
+	/**
+	 * Writes the value of rank floor( p * ( n - 1 ) ) of the n elements of array to out for each
+	 * probability p in [0, 1]. The array is rearranged like by nthElement for each of these ranks.
+	 */
+	void quantiles( int[] array, double[] probabilities, int[] out );
+}
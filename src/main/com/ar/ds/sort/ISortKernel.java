@@ -0,0 +1,24 @@
+package com.ar.ds.sort;
+
+/**
+ * The two building blocks at the bottom of a divide and conquer sort: sorting a small range
+ * and partitioning a range around a pivot value. Implementations may keep scratch buffers,
+ * an instance should not be shared between threads.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public interface ISortKernel
+{
+	/**
+	 * Sorts the range [left, right]. Meant for small ranges of a few dozen elements.
+	 */
+	void sort( int[] array, int left, int right );
+
+	/**
+	 * Moves every element of [left, right] that is less than pivot to the front of the range.
+	 * Returns the index of the first element that is greater than or equal to pivot,
+	 * right + 1 if there is none.
+	 */
+	int partition( int[] array, int left, int right, int pivot );
+}
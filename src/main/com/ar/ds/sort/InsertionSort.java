@@ -33,6 +33,27 @@ public class InsertionSort implements ISort
 		}
 	}
 
+	/**
+	 * Insertion sort of the range [left, right]. Used as the small range base case of the divide and conquer sorts.
+	 */
+	static void sort( int[] array, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			int key = array[ j ];
+			int i;
+
+			// Smaller values are moving down
+			for( i = j - 1; ( i >= left ) && ( array[ i ] > key ); i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			// Put the key in its proper location
+			array[ i + 1 ] = key;
+		}
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,238 @@
+package com.ar.ds.sort;
+
+/**
+ * Introselect:
+ * Quickselect that watches its own progress ( average Θ(n), worst case Θ(n) ).
+ *
+ * 1. The pivot, the median of the first, middle and last element, is moved to the middle
+ * and the range is split by QuickSort's Hoare partition.
+ * 2. Only the part that holds the wanted rank is partitioned further.
+ * 3. Once more than 2 * log2(n) steps were needed the pivots are obviously bad, from then on
+ * each pivot is the median of the medians of groups of five, which guarantees linear time.
+ * 4. Ranges of up to INSERTION_SORT_THRESHOLD elements are finished with insertion sort.
+ *
+ * Top-k uses a bounded heap instead, which streams through the input once without modifying it.
+ *
+ * http://en.wikipedia.org/wiki/Introselect
+ * http://en.wikipedia.org/wiki/Median_of_medians
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class IntroSelect implements ISelect
+{
+	public static final int INSERTION_SORT_THRESHOLD = 16;
+
+	public IntroSelect()
+	{
+	}
+
+	@Override
+	public void nthElement( int[] array, int n )
+	{
+		if( n < 0 || n >= array.length )
+		{
+			throw new IndexOutOfBoundsException( "n: " + n + ", length: " + array.length );
+		}
+
+		select( array, 0, array.length - 1, n );
+	}
+
+	@Override
+	public void partialSort( int[] array, int k )
+	{
+		if( k < 0 || k > array.length )
+		{
+			throw new IndexOutOfBoundsException( "k: " + k + ", length: " + array.length );
+		}
+
+		if( k == 0 )
+		{
+			return;
+		}
+
+		if( k < array.length )
+		{
+			select( array, 0, array.length - 1, k - 1 );
+		}
+
+		IntroSort.sort( array, 0, k - 1 );
+	}
+
+	@Override
+	public int topK( int[] array, int k, int[] out )
+	{
+		if( k < 0 || k > out.length )
+		{
+			throw new IndexOutOfBoundsException( "k: " + k + ", out length: " + out.length );
+		}
+
+		int size = 0;
+
+		for( int value : array )
+		{
+			size = TopKHeap.offer( out, size, k, value );
+		}
+
+		TopKHeap.drain( out, size );
+
+		return size;
+	}
+
+	@Override
+	public void quantiles( int[] array, double[] probabilities, int[] out )
+	{
+		int n = array.length;
+		int q = probabilities.length;
+
+		if( n == 0 && q > 0 )
+		{
+			throw new IllegalArgumentException( "array is empty" );
+		}
+
+		int[] ranks = new int[ q ];
+
+		for( int i = 0; i < q; i++ )
+		{
+			double p = probabilities[ i ];
+
+			if( !( p >= 0.0 && p <= 1.0 ) )
+			{
+				throw new IllegalArgumentException( "probability out of [0, 1]: " + p );
+			}
+
+			ranks[ i ] = ( int ) ( p * ( n - 1 ) );
+		}
+
+		int[] sortedRanks = ranks.clone();
+		IntroSort.sort( sortedRanks, 0, q - 1 );
+
+		multiSelect( array, 0, n - 1, sortedRanks, 0, q - 1 );
+
+		for( int i = 0; i < q; i++ )
+		{
+			out[ i ] = array[ ranks[ i ] ];
+		}
+	}
+
+	/**
+	 * Puts every rank of sortedRanks[ lo, hi ] in place within [left, right]. Selects the middle rank
+	 * first, the lower ranks then only have to be searched left of it and the higher ones right of it.
+	 */
+	private static void multiSelect( int[] array, int left, int right, int[] sortedRanks, int lo, int hi )
+	{
+		if( lo > hi )
+		{
+			return;
+		}
+
+		int mid = ( lo + hi ) >>> 1;
+		int rank = sortedRanks[ mid ];
+
+		select( array, left, right, rank );
+
+		int lowerEnd = mid - 1;
+		int upperStart = mid + 1;
+
+		while( lowerEnd >= lo && sortedRanks[ lowerEnd ] == rank )
+		{
+			lowerEnd--;
+		}
+
+		while( upperStart <= hi && sortedRanks[ upperStart ] == rank )
+		{
+			upperStart++;
+		}
+
+		multiSelect( array, left, rank - 1, sortedRanks, lo, lowerEnd );
+		multiSelect( array, rank + 1, right, sortedRanks, upperStart, hi );
+	}
+
+	/**
+	 * Puts the element of rank n in place within [left, right].
+	 */
+	static void select( int[] array, int left, int right, int n )
+	{
+		int depthLimit = 2 * IntroSort.log2( right - left + 1 );
+
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			int middle = ( left + right ) >>> 1;
+
+			if( depthLimit > 0 )
+			{
+				depthLimit--;
+				medianOfThree( array, left, middle, right );
+			}
+			else
+			{
+				QuickSort.swap( array, medianOfMedians( array, left, right ), middle );
+			}
+
+			// The pivot sits in the middle, where QuickSort.partition takes it from
+			int split = QuickSort.partition( array, left, right );
+
+			if( n <= split )
+			{
+				right = split;
+			}
+			else
+			{
+				left = split + 1;
+			}
+		}
+
+		InsertionSort.sort( array, left, right );
+	}
+
+	/**
+	 * Sorts array[ a ], array[ b ], array[ c ], which leaves their median at b.
+	 */
+	private static void medianOfThree( int[] array, int a, int b, int c )
+	{
+		if( array[ b ] < array[ a ] )
+		{
+			QuickSort.swap( array, a, b );
+		}
+
+		if( array[ c ] < array[ b ] )
+		{
+			QuickSort.swap( array, b, c );
+
+			if( array[ b ] < array[ a ] )
+			{
+				QuickSort.swap( array, a, b );
+			}
+		}
+	}
+
+	/**
+	 * Index of an element of [left, right] that has at least 30% of the range on either side.
+	 * The medians of all groups of five are collected at the front of the range,
+	 * their median is then selected recursively.
+	 */
+	private static int medianOfMedians( int[] array, int left, int right )
+	{
+		int store = left;
+
+		for( int i = left; i <= right; i += 5 )
+		{
+			int groupRight = Math.min( i + 4, right );
+
+			InsertionSort.sort( array, i, groupRight );
+			QuickSort.swap( array, ( i + groupRight ) >>> 1, store++ );
+		}
+
+		int median = left + ( store - 1 - left ) / 2;
+
+		select( array, left, store - 1, median );
+
+		return median;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[IntroSelect]";
+	}
+}
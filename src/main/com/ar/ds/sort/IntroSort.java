@@ -0,0 +1,234 @@
+package com.ar.ds.sort;
+
+/**
+ * Introsort:
+ * A quicksort that watches its own recursion depth ( best, average, worst Θ(n log(n)) ).
+ *
+ * 1. Ranges of up to INSERTION_SORT_THRESHOLD elements are finished with insertion sort.
+ * 2. Five evenly spaced elements are sorted, the 2nd and 4th become the two pivots.
+ * 3. Dual-pivot partitioning splits the range into < p1, p1 <= x <= p2 and > p2.
+ * If both pivots are equal the range holds many duplicates and is split three-way
+ * into < p, == p and > p instead, the middle part is then already in place.
+ * 4. Once more than 2 * log2(n) partitioning steps were needed the pivots are
+ * obviously bad, the remaining range is handed over to heapsort.
+ *
+ * A sort kernel can take over the ranges of up to INSERTION_SORT_THRESHOLD elements.
+ * Kernels like VectorSortKernel keep scratch space between calls, so an instance with a kernel is not
+ * thread safe, and neither are sorts sharing one kernel instance. Without a kernel instances can be shared.
+ *
+ * Only the smaller parts are sorted recursively, the largest part is handled in a loop,
+ * so the stack depth never exceeds O(log n).
+ *
+ * http://en.wikipedia.org/wiki/Introsort
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class IntroSort implements ISort
+{
+	public static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private final ISortKernel _kernel;
+
+	public IntroSort()
+	{
+		this( null );
+	}
+
+	/**
+	 * @param kernel base case of the small ranges, null for insertion sort, with a kernel
+	 *               the instance is not thread safe, give every thread its own, e.g. from SortKernels.preferred()
+	 */
+	public IntroSort( ISortKernel kernel )
+	{
+		_kernel = kernel;
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		introsort( array, 0, array.length - 1, 2 * log2( array.length ), _kernel );
+	}
+
+	/**
+	 * Introsort of the range [left, right].
+	 */
+	static void sort( int[] array, int left, int right )
+	{
+		introsort( array, left, right, 2 * log2( right - left + 1 ), null );
+	}
+
+	private static void introsort( int[] array, int left, int right, int depthLimit, ISortKernel kernel )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				HeapSort.sort( array, left, right );
+				return;
+			}
+
+			int seventh = ( right - left + 1 ) / 7;
+
+			int e3 = ( left + right ) >>> 1;
+			int e2 = e3 - seventh;
+			int e1 = e2 - seventh;
+			int e4 = e3 + seventh;
+			int e5 = e4 + seventh;
+
+			sortSample( array, e1, e2, e3, e4, e5 );
+
+			if( array[ e2 ] == array[ e4 ] )
+			{
+				// Lots of duplicates, split three-way around the median
+				int pivot = array[ e3 ];
+
+				int lt = left;
+				int gt = right;
+				int i = left;
+
+				while( i <= gt )
+				{
+					int value = array[ i ];
+
+					if( value < pivot )
+					{
+						QuickSort.swap( array, lt++, i++ );
+					}
+					else if( value > pivot )
+					{
+						QuickSort.swap( array, i, gt-- );
+					}
+					else
+					{
+						i++;
+					}
+				}
+
+				// [lt, gt] holds the pivot value only and is done
+				if( lt - left < right - gt )
+				{
+					introsort( array, left, lt - 1, depthLimit, kernel );
+					left = gt + 1;
+				}
+				else
+				{
+					introsort( array, gt + 1, right, depthLimit, kernel );
+					right = lt - 1;
+				}
+
+				continue;
+			}
+
+			int pivot1 = array[ e2 ];
+			int pivot2 = array[ e4 ];
+
+			// Park the pivots at both ends
+			QuickSort.swap( array, e2, left );
+			QuickSort.swap( array, e4, right );
+
+			int less = left + 1;
+			int great = right - 1;
+
+			for( int k = less; k <= great; k++ )
+			{
+				int value = array[ k ];
+
+				if( value < pivot1 )
+				{
+					QuickSort.swap( array, k, less++ );
+				}
+				else if( value > pivot2 )
+				{
+					while( array[ great ] > pivot2 && k < great )
+					{
+						great--;
+					}
+
+					QuickSort.swap( array, k, great-- );
+
+					if( array[ k ] < pivot1 )
+					{
+						QuickSort.swap( array, k, less++ );
+					}
+				}
+			}
+
+			// Move the pivots to their final places
+			QuickSort.swap( array, left, --less );
+			QuickSort.swap( array, right, ++great );
+
+			// Recurse into the two smaller parts, keep looping on the largest one
+			int leftSize = less - left;
+			int middleSize = great - less - 1;
+			int rightSize = right - great;
+
+			if( leftSize >= middleSize && leftSize >= rightSize )
+			{
+				introsort( array, less + 1, great - 1, depthLimit, kernel );
+				introsort( array, great + 1, right, depthLimit, kernel );
+				right = less - 1;
+			}
+			else if( middleSize >= rightSize )
+			{
+				introsort( array, left, less - 1, depthLimit, kernel );
+				introsort( array, great + 1, right, depthLimit, kernel );
+				left = less + 1;
+				right = great - 1;
+			}
+			else
+			{
+				introsort( array, left, less - 1, depthLimit, kernel );
+				introsort( array, less + 1, great - 1, depthLimit, kernel );
+				left = great + 1;
+			}
+		}
+
+		if( kernel == null )
+		{
+			InsertionSort.sort( array, left, right );
+		}
+		else
+		{
+			kernel.sort( array, left, right );
+		}
+	}
+
+	/**
+	 * Sorts the five sample elements in place with a nine comparator sorting network.
+	 */
+	private static void sortSample( int[] array, int e1, int e2, int e3, int e4, int e5 )
+	{
+		sort2( array, e1, e2 );
+		sort2( array, e4, e5 );
+		sort2( array, e3, e5 );
+		sort2( array, e3, e4 );
+		sort2( array, e2, e5 );
+		sort2( array, e1, e4 );
+		sort2( array, e1, e3 );
+		sort2( array, e2, e4 );
+		sort2( array, e2, e3 );
+	}
+
+	private static void sort2( int[] array, int i, int j )
+	{
+		if( array[ j ] < array[ i ] )
+		{
+			QuickSort.swap( array, i, j );
+		}
+	}
+
+	/**
+	 * floor( log2( n ) ) for n > 0.
+	 */
+	static int log2( int n )
+	{
+		return 31 - Integer.numberOfLeadingZeros( n );
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[IntroSort]";
+	}
+}
@@ -0,0 +1,96 @@
+package com.ar.ds.sort;
+
+/**
+ * Tournament tree for k-way merging.
+ * Each inner node remembers the loser of the match played there, the overall winner is kept
+ * at the root. After the winning source advanced, only the matches on the path from its leaf
+ * up to the root are replayed, so every step costs exactly log2(k) comparisons.
+ *
+ * Keys are longs so exhausted sources can be marked with EXHAUSTED, which loses against every int.
+ *
+ * http://en.wikipedia.org/wiki/K-way_merge_algorithm#Tournament_Tree
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class LoserTree
+{
+	static final long EXHAUSTED = Long.MAX_VALUE;
+
+	private final long[] _keys;
+	private final int[] _losers;
+	private final int _k;
+
+	/**
+	 * @param keys the current head of each source, updated by the caller before replay
+	 */
+	LoserTree( long[] keys )
+	{
+		_keys = keys;
+		_k = keys.length;
+		_losers = new int[ _k ];
+
+		// Leaf i sits at position k + i, the winner of each node is collected bottom up
+		int[] winners = new int[ 2 * _k ];
+
+		for( int i = 0; i < _k; i++ )
+		{
+			winners[ _k + i ] = i;
+		}
+
+		for( int node = _k - 1; node > 0; node-- )
+		{
+			int a = winners[ 2 * node ];
+			int b = winners[ 2 * node + 1 ];
+
+			if( keys[ a ] <= keys[ b ] )
+			{
+				winners[ node ] = a;
+				_losers[ node ] = b;
+			}
+			else
+			{
+				winners[ node ] = b;
+				_losers[ node ] = a;
+			}
+		}
+
+		_losers[ 0 ] = winners[ 1 ];
+	}
+
+	/**
+	 * Index of the source holding the smallest key.
+	 */
+	int winner()
+	{
+		return _losers[ 0 ];
+	}
+
+	/**
+	 * Replays the matches of source after its key has changed.
+	 */
+	void replay( int source )
+	{
+		long[] keys = _keys;
+		int winner = source;
+
+		for( int node = ( source + _k ) >>> 1; node > 0; node >>>= 1 )
+		{
+			int loser = _losers[ node ];
+
+			if( keys[ loser ] < keys[ winner ] )
+			{
+				_losers[ node ] = winner;
+				winner = loser;
+			}
+		}
+
+		_losers[ 0 ] = winner;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[LoserTree]";
+	}
+}
@@ -23,72 +23,533 @@ package com.ar.ds.sort;
  * ( data as it is received from a network connection, or sorting data structures which don't allow efficient random access like linked lists )
  * Cons:
  *
+ * With a sort kernel, int ranges of up to SortKernels.BASE_CASE_THRESHOLD elements are sorted by the kernel
+ * instead of being split further. Equal ints are indistinguishable, so this does not affect stability.
+ *
+ * Merging goes through a scratch buffer of the input's size. By default it is allocated on every call
+ * and instances without a kernel can be shared between threads. Kernels like VectorSortKernel keep scratch
+ * space between calls, so an instance with a kernel is not thread safe. With reuseBuffers the buffers are
+ * kept between calls and only grow, which saves the allocation on repeated sorts, but such an instance is
+ * not thread safe either.
+ * The overloads with scratch arrays take caller owned buffers instead and allocate nothing, on any instance.
+ *
  * http://en.wikipedia.org/wiki/Merge_sort
  * http://en.literateprograms.org/Merge_sort_(Java)
  *
  * @author Alan Ross
  * @version 0.1
  */
-public final class MergeSort implements ISort
+public final class MergeSort implements ISort, ILongSort, IDoubleSort, IFloatSort, IKeyValueSort
 {
+	private int[] _intBuffer = new int[ 0 ];
+	private long[] _longBuffer = new long[ 0 ];
+	private double[] _doubleBuffer = new double[ 0 ];
+	private float[] _floatBuffer = new float[ 0 ];
+
+	private final ISortKernel _kernel;
+	private final boolean _reuseBuffers;
+
 	public MergeSort()
 	{
+		this( null, false );
+	}
+
+	/**
+	 * @param kernel base case of int arrays, null to split down to single elements, with a kernel
+	 *               the instance is not thread safe, give every thread its own, e.g. from SortKernels.preferred()
+	 */
+	public MergeSort( ISortKernel kernel )
+	{
+		this( kernel, false );
+	}
+
+	/**
+	 * @param kernel       base case of int arrays, null to split down to single elements, with a kernel
+	 *                     the instance is not thread safe
+	 * @param reuseBuffers keep the scratch buffers between calls, the instance is then not thread safe
+	 */
+	public MergeSort( ISortKernel kernel, boolean reuseBuffers )
+	{
+		_kernel = kernel;
+		_reuseBuffers = reuseBuffers;
 	}
 
 	@Override
 	public void sort( int[] array )
 	{
-		internalSort( array, new int[ array.length ], 0, array.length - 1 );
+		sort( array, intBuffer( array.length ) );
+	}
+
+	/**
+	 * Sorts array with scratch as merge buffer.
+	 *
+	 * @param scratch at least as long as array, its content is overwritten
+	 */
+	public void sort( int[] array, int[] scratch )
+	{
+		checkScratch( array.length, scratch.length );
+
+		if( _kernel == null )
+		{
+			internalSort( array, scratch, 0, array.length - 1 );
+		}
+		else
+		{
+			internalSort( array, scratch, 0, array.length - 1, _kernel );
+		}
+	}
+
+	static void internalSort( int[] array, int[] tmpArray, int left, int right, ISortKernel kernel )
+	{
+		if( right - left + 1 <= SortKernels.BASE_CASE_THRESHOLD )
+		{
+			kernel.sort( array, left, right );
+			return;
+		}
+
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.enter();
+		}
+
+		int center = ( left + right ) >>> 1;
+
+		internalSort( array, tmpArray, left, center, kernel );
+		internalSort( array, tmpArray, center + 1, right, kernel );
+
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.compared( 1 );
+		}
+
+		if( array[ center ] > array[ center + 1 ] )
+		{
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.moved( right - left + 1 );
+			}
+		}
+
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.exit();
+		}
+	}
+
+	static void internalSort( int[] array, int[] tmpArray, int left, int right )
+	{
+		if( left < right )
+		{
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.enter();
+			}
+
+			int center = ( left + right ) >>> 1;
+
+			internalSort( array, tmpArray, left, center );
+			internalSort( array, tmpArray, center + 1, right );
+
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			// Copy tmpArray back
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.moved( right - left + 1 );
+				SortProbe.exit();
+			}
+		}
+	}
+
+	/**
+	 * Merges the sorted ranges [leftPos, leftEnd] of leftArray and [rightPos, rightEnd]
+	 * of rightArray into target, starting at tmpPos. Bounds are inclusive.
+	 * Equal elements are taken from the left range first, which keeps the sort stable.
+	 */
+	static void merge( int[] leftArray, int leftPos, int leftEnd, int[] rightArray, int rightPos, int rightEnd, int[] target, int tmpPos )
+	{
+		int start = tmpPos;
+
+		// Main merge loop
+		while( leftPos <= leftEnd && rightPos <= rightEnd )
+		{
+			if( leftArray[ leftPos ] <= rightArray[ rightPos ] )
+			{
+				target[ tmpPos++ ] = leftArray[ leftPos++ ];
+			}
+			else
+			{
+				target[ tmpPos++ ] = rightArray[ rightPos++ ];
+			}
+		}
+
+		if( SortProbe.ENABLED )
+		{
+			// One comparison per element written so far, every element is written once
+			SortProbe.compared( tmpPos - start );
+			SortProbe.moved( ( leftEnd - leftPos + 1 ) + ( rightEnd - rightPos + 1 ) + tmpPos - start );
+		}
+
+		// Copy rest of first half
+		while( leftPos <= leftEnd )
+		{
+			target[ tmpPos++ ] = leftArray[ leftPos++ ];
+		}
+
+		// Copy rest of right half
+		while( rightPos <= rightEnd )
+		{
+			target[ tmpPos++ ] = rightArray[ rightPos++ ];
+		}
+	}
+
+	@Override
+	public void sort( long[] array )
+	{
+		sort( array, longBuffer( array.length ) );
+	}
+
+	/**
+	 * Sorts array with scratch as merge buffer.
+	 *
+	 * @param scratch at least as long as array, its content is overwritten
+	 */
+	public void sort( long[] array, long[] scratch )
+	{
+		checkScratch( array.length, scratch.length );
+
+		internalSort( array, scratch, 0, array.length - 1 );
+	}
+
+	@Override
+	public void sort( double[] array )
+	{
+		sort( array, doubleBuffer( array.length ) );
+	}
+
+	/**
+	 * Sorts array with scratch as merge buffer.
+	 *
+	 * @param scratch at least as long as array, its content is overwritten
+	 */
+	public void sort( double[] array, double[] scratch )
+	{
+		checkScratch( array.length, scratch.length );
+
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		internalSort( array, scratch, 0, end - 1 );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	@Override
+	public void sort( float[] array )
+	{
+		sort( array, floatBuffer( array.length ) );
+	}
+
+	/**
+	 * Sorts array with scratch as merge buffer.
+	 *
+	 * @param scratch at least as long as array, its content is overwritten
+	 */
+	public void sort( float[] array, float[] scratch )
+	{
+		checkScratch( array.length, scratch.length );
+
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		internalSort( array, scratch, 0, end - 1 );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	static void internalSort( long[] array, long[] tmpArray, int left, int right )
+	{
+		if( left < right )
+		{
+			int center = ( left + right ) >>> 1;
+
+			internalSort( array, tmpArray, left, center );
+			internalSort( array, tmpArray, center + 1, right );
+
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+		}
+	}
+
+	static void merge( long[] leftArray, int leftPos, int leftEnd, long[] rightArray, int rightPos, int rightEnd, long[] target, int tmpPos )
+	{
+		while( leftPos <= leftEnd && rightPos <= rightEnd )
+		{
+			if( leftArray[ leftPos ] <= rightArray[ rightPos ] )
+			{
+				target[ tmpPos++ ] = leftArray[ leftPos++ ];
+			}
+			else
+			{
+				target[ tmpPos++ ] = rightArray[ rightPos++ ];
+			}
+		}
+
+		while( leftPos <= leftEnd )
+		{
+			target[ tmpPos++ ] = leftArray[ leftPos++ ];
+		}
+
+		while( rightPos <= rightEnd )
+		{
+			target[ tmpPos++ ] = rightArray[ rightPos++ ];
+		}
+	}
+
+	static void internalSort( double[] array, double[] tmpArray, int left, int right )
+	{
+		if( left < right )
+		{
+			int center = ( left + right ) >>> 1;
+
+			internalSort( array, tmpArray, left, center );
+			internalSort( array, tmpArray, center + 1, right );
+
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+		}
+	}
+
+	static void merge( double[] leftArray, int leftPos, int leftEnd, double[] rightArray, int rightPos, int rightEnd, double[] target, int tmpPos )
+	{
+		while( leftPos <= leftEnd && rightPos <= rightEnd )
+		{
+			if( leftArray[ leftPos ] <= rightArray[ rightPos ] )
+			{
+				target[ tmpPos++ ] = leftArray[ leftPos++ ];
+			}
+			else
+			{
+				target[ tmpPos++ ] = rightArray[ rightPos++ ];
+			}
+		}
+
+		while( leftPos <= leftEnd )
+		{
+			target[ tmpPos++ ] = leftArray[ leftPos++ ];
+		}
+
+		while( rightPos <= rightEnd )
+		{
+			target[ tmpPos++ ] = rightArray[ rightPos++ ];
+		}
 	}
 
-	private void internalSort( int[] array, int[] tmpArray, int left, int right )
+	static void internalSort( float[] array, float[] tmpArray, int left, int right )
 	{
 		if( left < right )
 		{
-			int center = ( left + right ) / 2;
+			int center = ( left + right ) >>> 1;
 
 			internalSort( array, tmpArray, left, center );
 			internalSort( array, tmpArray, center + 1, right );
 
+			merge( array, left, center, array, center + 1, right, tmpArray, left );
+
+			System.arraycopy( tmpArray, left, array, left, right - left + 1 );
+		}
+	}
+
+	static void merge( float[] leftArray, int leftPos, int leftEnd, float[] rightArray, int rightPos, int rightEnd, float[] target, int tmpPos )
+	{
+		while( leftPos <= leftEnd && rightPos <= rightEnd )
+		{
+			if( leftArray[ leftPos ] <= rightArray[ rightPos ] )
+			{
+				target[ tmpPos++ ] = leftArray[ leftPos++ ];
+			}
+			else
+			{
+				target[ tmpPos++ ] = rightArray[ rightPos++ ];
+			}
+		}
+
+		while( leftPos <= leftEnd )
+		{
+			target[ tmpPos++ ] = leftArray[ leftPos++ ];
+		}
+
+		while( rightPos <= rightEnd )
+		{
+			target[ tmpPos++ ] = rightArray[ rightPos++ ];
+		}
+	}
+
+	/**
+	 * Sorts keys and applies the same permutation to values. Stable.
+	 */
+	@Override
+	public void sort( int[] keys, long[] values )
+	{
+		sort( keys, values, intBuffer( keys.length ), longBuffer( values.length ) );
+	}
+
+	/**
+	 * Sorts keys and applies the same permutation to values, with scratchKeys and scratchValues
+	 * as merge buffers. Stable.
+	 *
+	 * @param scratchKeys   at least as long as keys, its content is overwritten
+	 * @param scratchValues at least as long as values, its content is overwritten
+	 */
+	public void sort( int[] keys, long[] values, int[] scratchKeys, long[] scratchValues )
+	{
+		if( keys.length != values.length )
+		{
+			throw new IllegalArgumentException( "keys and values differ in length" );
+		}
+
+		checkScratch( keys.length, scratchKeys.length );
+		checkScratch( values.length, scratchValues.length );
+
+		internalSort( keys, values, scratchKeys, scratchValues, 0, keys.length - 1 );
+	}
+
+	static void internalSort( int[] keys, long[] values, int[] tmpKeys, long[] tmpValues, int left, int right )
+	{
+		if( left < right )
+		{
+			int center = ( left + right ) >>> 1;
+
+			internalSort( keys, values, tmpKeys, tmpValues, left, center );
+			internalSort( keys, values, tmpKeys, tmpValues, center + 1, right );
+
 			int leftPos = left;
 			int rightPos = center + 1;
-			int rightEnd = right;
+			int tmpPos = left;
 
-			int leftEnd = rightPos - 1;
-			int tmpPos = leftPos;
-			int numElements = rightEnd - leftPos + 1;
-
-			// Main merge loop
-			while( leftPos <= leftEnd && rightPos <= rightEnd )
+			while( leftPos <= center && rightPos <= right )
 			{
-				if( array[ leftPos ] <= array[ rightPos ] )
+				if( keys[ leftPos ] <= keys[ rightPos ] )
 				{
-					tmpArray[ tmpPos++ ] = array[ leftPos++ ];
+					tmpValues[ tmpPos ] = values[ leftPos ];
+					tmpKeys[ tmpPos++ ] = keys[ leftPos++ ];
 				}
 				else
 				{
-					tmpArray[ tmpPos++ ] = array[ rightPos++ ];
+					tmpValues[ tmpPos ] = values[ rightPos ];
+					tmpKeys[ tmpPos++ ] = keys[ rightPos++ ];
 				}
 			}
 
-			while( leftPos <= leftEnd )
-			// Copy rest of first half
+			while( leftPos <= center )
 			{
-				tmpArray[ tmpPos++ ] = array[ leftPos++ ];
+				tmpValues[ tmpPos ] = values[ leftPos ];
+				tmpKeys[ tmpPos++ ] = keys[ leftPos++ ];
 			}
 
-			while( rightPos <= rightEnd )
-			// Copy rest of right half
+			while( rightPos <= right )
 			{
-				tmpArray[ tmpPos++ ] = array[ rightPos++ ];
+				tmpValues[ tmpPos ] = values[ rightPos ];
+				tmpKeys[ tmpPos++ ] = keys[ rightPos++ ];
 			}
 
-			// Copy tmpArray back
-			for( int i = 0; i < numElements; i++, rightEnd-- )
+			System.arraycopy( tmpKeys, left, keys, left, right - left + 1 );
+			System.arraycopy( tmpValues, left, values, left, right - left + 1 );
+		}
+	}
+
+	private static void checkScratch( int n, int scratchLength )
+	{
+		if( scratchLength < n )
+		{
+			throw new IllegalArgumentException( "scratch is shorter than the array: " + scratchLength + " < " + n );
+		}
+	}
+
+	private int[] intBuffer( int n )
+	{
+		if( !_reuseBuffers || _intBuffer.length < n )
+		{
+			if( SortProbe.ENABLED )
 			{
-				array[ rightEnd ] = tmpArray[ rightEnd ];
+				SortProbe.allocated( 4L * n );
 			}
+
+			if( !_reuseBuffers )
+			{
+				return new int[ n ];
+			}
+
+			_intBuffer = new int[ n ];
 		}
+
+		return _intBuffer;
+	}
+
+	private long[] longBuffer( int n )
+	{
+		if( !_reuseBuffers || _longBuffer.length < n )
+		{
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.allocated( 8L * n );
+			}
+
+			if( !_reuseBuffers )
+			{
+				return new long[ n ];
+			}
+
+			_longBuffer = new long[ n ];
+		}
+
+		return _longBuffer;
+	}
+
+	private double[] doubleBuffer( int n )
+	{
+		if( !_reuseBuffers || _doubleBuffer.length < n )
+		{
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.allocated( 8L * n );
+			}
+
+			if( !_reuseBuffers )
+			{
+				return new double[ n ];
+			}
+
+			_doubleBuffer = new double[ n ];
+		}
+
+		return _doubleBuffer;
+	}
+
+	private float[] floatBuffer( int n )
+	{
+		if( !_reuseBuffers || _floatBuffer.length < n )
+		{
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.allocated( 4L * n );
+			}
+
+			if( !_reuseBuffers )
+			{
+				return new float[ n ];
+			}
+
+			_floatBuffer = new float[ n ];
+		}
+
+		return _floatBuffer;
 	}
 
 	@Override
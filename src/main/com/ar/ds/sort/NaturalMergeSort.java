@@ -0,0 +1,513 @@
+package com.ar.ds.sort;
+
+/**
+ * Natural Merge Sort:
+ * An adaptive, stable merge sort ( best Θ(n), average, worst Θ(n log(n)) ).
+ * Instead of splitting the input blindly in halves it merges the runs that are already in the data.
+ *
+ * 1. Find the next run. A strictly descending run is reversed in place, which keeps the sort stable.
+ * 2. Runs shorter than MIN_RUN are extended with binary insertion sort.
+ * 3. The boundary between two neighbouring runs gets a power, the depth at which the midpoints of
+ * both runs fall into different halves when [lo, hi) is halved again and again. Runs wait on a stack
+ * whose powers strictly increase. A new boundary first merges every run above it that has a higher
+ * power, so the merges follow a nearly balanced tree over the runs (powersort).
+ * 4. A merge first skips the elements of both runs that are already in place. Only the smaller
+ * of the two runs is then copied into the scratch buffer and merged back, from the front if it is
+ * the left run and from the back otherwise. After GALLOP_THRESHOLD wins in a row from one side the
+ * merge gallops: an exponential and then binary search finds how many more elements that side wins
+ * and moves them with a single arraycopy.
+ *
+ * Presorted, reversed and append-mostly inputs finish in close to linear time.
+ *
+ * The scratch buffer only has to be as large as the smaller run of a merge. It and the run stack are
+ * kept between calls and only grow, so instances are not thread safe.
+ *
+ * http://en.wikipedia.org/wiki/Merge_sort#Natural_merge_sort
+ * http://arxiv.org/abs/1805.04154
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class NaturalMergeSort implements ISort
+{
+	/**
+	 * Shortest run, shorter runs are extended by binary insertion sort.
+	 */
+	public static final int MIN_RUN = 32;
+
+	/**
+	 * Wins in a row from one side after which a merge starts to gallop.
+	 */
+	public static final int GALLOP_THRESHOLD = 7;
+
+	/**
+	 * Powers on the stack strictly increase and never exceed 33 for an int length.
+	 */
+	private static final int MAX_STACK_SIZE = 40;
+
+	private final int[] _runBase = new int[ MAX_STACK_SIZE ];
+	private final int[] _runLength = new int[ MAX_STACK_SIZE ];
+	private final int[] _runPower = new int[ MAX_STACK_SIZE ];
+
+	private int[] _tmpArray = new int[ 0 ];
+
+	public NaturalMergeSort()
+	{
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		sort( array, 0, array.length );
+	}
+
+	/**
+	 * Sorts the range [lo, hi).
+	 */
+	public void sort( int[] array, int lo, int hi )
+	{
+		int n = hi - lo;
+
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int stackSize = 0;
+		int base = lo;
+		int length = nextRun( array, lo, hi );
+
+		while( base + length < hi )
+		{
+			int nextBase = base + length;
+			int nextLength = nextRun( array, nextBase, hi );
+			int power = power( base - lo, length, nextLength, n );
+
+			// Runs left of a boundary with a higher power sit deeper in the merge tree, they are merged first
+			while( stackSize > 0 && _runPower[ stackSize - 1 ] > power )
+			{
+				stackSize--;
+
+				merge( array, _runBase[ stackSize ], _runLength[ stackSize ], length );
+
+				base = _runBase[ stackSize ];
+				length += _runLength[ stackSize ];
+			}
+
+			_runBase[ stackSize ] = base;
+			_runLength[ stackSize ] = length;
+			_runPower[ stackSize ] = power;
+			stackSize++;
+
+			base = nextBase;
+			length = nextLength;
+		}
+
+		while( stackSize > 0 )
+		{
+			stackSize--;
+
+			merge( array, _runBase[ stackSize ], _runLength[ stackSize ], length );
+
+			length += _runLength[ stackSize ];
+		}
+	}
+
+	/**
+	 * Finds the run starting at lo, makes it ascending and extends it to MIN_RUN elements if it is
+	 * shorter and the range allows. Returns its length.
+	 */
+	private static int nextRun( int[] array, int lo, int hi )
+	{
+		int end = lo + 1;
+
+		if( end < hi )
+		{
+			if( array[ end++ ] < array[ lo ] )
+			{
+				// Only strictly descending, reversing equal elements would break stability
+				while( end < hi && array[ end ] < array[ end - 1 ] )
+				{
+					end++;
+				}
+
+				reverse( array, lo, end );
+			}
+			else
+			{
+				while( end < hi && array[ end ] >= array[ end - 1 ] )
+				{
+					end++;
+				}
+			}
+		}
+
+		if( end - lo < MIN_RUN )
+		{
+			int extended = Math.min( hi, lo + MIN_RUN );
+
+			binaryInsertionSort( array, lo, extended, end );
+			end = extended;
+		}
+
+		return end - lo;
+	}
+
+	private static void reverse( int[] array, int lo, int hi )
+	{
+		for( int i = lo, j = hi - 1; i < j; i++, j-- )
+		{
+			int tmp = array[ i ];
+			array[ i ] = array[ j ];
+			array[ j ] = tmp;
+		}
+	}
+
+	/**
+	 * Sorts [lo, hi) of which [lo, sorted) is sorted already. Each element is inserted behind the
+	 * elements equal to it, which keeps the sort stable.
+	 */
+	private static void binaryInsertionSort( int[] array, int lo, int hi, int sorted )
+	{
+		for( int i = sorted; i < hi; i++ )
+		{
+			int value = array[ i ];
+			int left = lo;
+			int right = i;
+
+			while( left < right )
+			{
+				int middle = ( left + right ) >>> 1;
+
+				if( array[ middle ] <= value )
+				{
+					left = middle + 1;
+				}
+				else
+				{
+					right = middle;
+				}
+			}
+
+			System.arraycopy( array, left, array, left + 1, i - left );
+			array[ left ] = value;
+		}
+	}
+
+	/**
+	 * Power of the boundary between the run of length1 at offset start and the run of length2 behind it,
+	 * in a range of n elements: the first bit in which the binary fractions midpoint / n of both runs
+	 * differ. The midpoints are kept doubled, so all arithmetic stays exact.
+	 */
+	static int power( int start, int length1, int length2, int n )
+	{
+		long twoN = 2L * n;
+		long a = 2L * start + length1;
+		long b = a + length1 + length2;
+		int power = 0;
+
+		while( true )
+		{
+			power++;
+			a <<= 1;
+			b <<= 1;
+
+			boolean upperA = a >= twoN;
+			boolean upperB = b >= twoN;
+
+			if( upperA != upperB )
+			{
+				return power;
+			}
+
+			if( upperA )
+			{
+				a -= twoN;
+				b -= twoN;
+			}
+		}
+	}
+
+	/**
+	 * Merges the sorted neighbouring runs [base1, base1 + length1) and [base1 + length1, base1 + length1 + length2).
+	 */
+	private void merge( int[] array, int base1, int length1, int length2 )
+	{
+		int base2 = base1 + length1;
+
+		// Left elements not greater than the first right element are in place already
+		int skip = countLeading( array, base1, base2, array[ base2 ], true );
+
+		base1 += skip;
+		length1 -= skip;
+
+		if( length1 == 0 )
+		{
+			return;
+		}
+
+		// Right elements not less than the last left element as well
+		length2 -= countTrailing( array, base2, base2 + length2, array[ base2 - 1 ], true );
+
+		if( length1 <= length2 )
+		{
+			mergeFromFront( array, base1, length1, base2, length2 );
+		}
+		else
+		{
+			mergeFromBack( array, base1, length1, base2, length2 );
+		}
+	}
+
+	/**
+	 * Merge with the left run in the scratch buffer, written from the front. On ties the left element wins.
+	 * Both runs hold at least one element that the other run has to pass, so neither runs out on its first step.
+	 */
+	private void mergeFromFront( int[] array, int base1, int length1, int base2, int length2 )
+	{
+		int[] tmpArray = buffer( length1 );
+
+		System.arraycopy( array, base1, tmpArray, 0, length1 );
+
+		int left = 0;
+		int right = base2;
+		int rightEnd = base2 + length2;
+		int target = base1;
+		int leftWins = 0;
+		int rightWins = 0;
+
+		while( true )
+		{
+			if( tmpArray[ left ] <= array[ right ] )
+			{
+				array[ target++ ] = tmpArray[ left++ ];
+
+				if( left == length1 )
+				{
+					break;
+				}
+
+				rightWins = 0;
+
+				if( ++leftWins == GALLOP_THRESHOLD )
+				{
+					int count = countLeading( tmpArray, left, length1, array[ right ], true );
+
+					System.arraycopy( tmpArray, left, array, target, count );
+					left += count;
+					target += count;
+					leftWins = 0;
+
+					if( left == length1 )
+					{
+						break;
+					}
+				}
+			}
+			else
+			{
+				array[ target++ ] = array[ right++ ];
+
+				if( right == rightEnd )
+				{
+					break;
+				}
+
+				leftWins = 0;
+
+				if( ++rightWins == GALLOP_THRESHOLD )
+				{
+					int count = countLeading( array, right, rightEnd, tmpArray[ left ], false );
+
+					// target stays behind right, arraycopy handles the overlap
+					System.arraycopy( array, right, array, target, count );
+					right += count;
+					target += count;
+					rightWins = 0;
+
+					if( right == rightEnd )
+					{
+						break;
+					}
+				}
+			}
+		}
+
+		// The rest of the right run is in place already
+		System.arraycopy( tmpArray, left, array, target, length1 - left );
+	}
+
+	/**
+	 * Merge with the right run in the scratch buffer, written from the back. On ties the right element
+	 * goes behind, as it came after the left one.
+	 */
+	private void mergeFromBack( int[] array, int base1, int length1, int base2, int length2 )
+	{
+		int[] tmpArray = buffer( length2 );
+
+		System.arraycopy( array, base2, tmpArray, 0, length2 );
+
+		int left = base2 - 1;
+		int right = length2 - 1;
+		int target = base2 + length2 - 1;
+		int leftWins = 0;
+		int rightWins = 0;
+
+		while( true )
+		{
+			if( tmpArray[ right ] >= array[ left ] )
+			{
+				array[ target-- ] = tmpArray[ right-- ];
+
+				if( right < 0 )
+				{
+					break;
+				}
+
+				leftWins = 0;
+
+				if( ++rightWins == GALLOP_THRESHOLD )
+				{
+					int count = countTrailing( tmpArray, 0, right + 1, array[ left ], true );
+
+					System.arraycopy( tmpArray, right - count + 1, array, target - count + 1, count );
+					right -= count;
+					target -= count;
+					rightWins = 0;
+
+					if( right < 0 )
+					{
+						break;
+					}
+				}
+			}
+			else
+			{
+				array[ target-- ] = array[ left-- ];
+
+				if( left < base1 )
+				{
+					break;
+				}
+
+				rightWins = 0;
+
+				if( ++leftWins == GALLOP_THRESHOLD )
+				{
+					int count = countTrailing( array, base1, left + 1, tmpArray[ right ], false );
+
+					// target stays ahead of left, arraycopy handles the overlap
+					System.arraycopy( array, left - count + 1, array, target - count + 1, count );
+					left -= count;
+					target -= count;
+					leftWins = 0;
+
+					if( left < base1 )
+					{
+						break;
+					}
+				}
+			}
+		}
+
+		// The rest of the left run is in place already
+		System.arraycopy( tmpArray, 0, array, base1, right + 1 );
+	}
+
+	/**
+	 * Number of elements at the start of the sorted range [from, to) that are less than key,
+	 * or less than or equal to it if inclusive. Probes 1, 2, 4, ... elements in and then searches
+	 * binary between the last two probes, so the cost grows with the result, not with the range.
+	 */
+	static int countLeading( int[] array, int from, int to, int key, boolean inclusive )
+	{
+		int n = to - from;
+		int known = 0;
+		int probe = 1;
+
+		while( probe <= n && precedes( array[ from + probe - 1 ], key, inclusive ) )
+		{
+			known = probe;
+			probe = probe <= n >>> 1 ? probe << 1 : n + 1;
+		}
+
+		int low = known;
+		int high = Math.min( probe - 1, n );
+
+		while( low < high )
+		{
+			int middle = ( low + high + 1 ) >>> 1;
+
+			if( precedes( array[ from + middle - 1 ], key, inclusive ) )
+			{
+				low = middle;
+			}
+			else
+			{
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Number of elements at the end of the sorted range [from, to) that are greater than key,
+	 * or greater than or equal to it if inclusive. Gallops from the end, see countLeading.
+	 */
+	static int countTrailing( int[] array, int from, int to, int key, boolean inclusive )
+	{
+		int n = to - from;
+		int known = 0;
+		int probe = 1;
+
+		while( probe <= n && precedes( key, array[ to - probe ], inclusive ) )
+		{
+			known = probe;
+			probe = probe <= n >>> 1 ? probe << 1 : n + 1;
+		}
+
+		int low = known;
+		int high = Math.min( probe - 1, n );
+
+		while( low < high )
+		{
+			int middle = ( low + high + 1 ) >>> 1;
+
+			if( precedes( key, array[ to - middle ], inclusive ) )
+			{
+				low = middle;
+			}
+			else
+			{
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * value < key, or value <= key if inclusive.
+	 */
+	private static boolean precedes( int value, int key, boolean inclusive )
+	{
+		return inclusive ? value <= key : value < key;
+	}
+
+	private int[] buffer( int length )
+	{
+		if( _tmpArray.length < length )
+		{
+			_tmpArray = new int[ length ];
+		}
+
+		return _tmpArray;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[NaturalMergeSort]";
+	}
+}
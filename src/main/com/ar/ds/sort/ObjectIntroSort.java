@@ -0,0 +1,198 @@
+package com.ar.ds.sort;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Introsort of objects, not stable in comparator mode ( best, average, worst Θ(n log(n)) ).
+ *
+ * 1. Ranges of up to INSERTION_SORT_THRESHOLD elements are finished with insertion sort.
+ * 2. The median of the first, middle and last element is moved to the middle and the range
+ * is split by a Hoare partition around it.
+ * 3. Once more than 2 * log2(n) partitioning steps were needed the remaining range is heap sorted.
+ *
+ * Only the smaller part is sorted recursively, so the stack depth never exceeds O(log n).
+ * Needs no buffer in comparator mode. The key extractor modes are shared with ObjectMergeSort
+ * and therefore stable as well.
+ *
+ * http://en.wikipedia.org/wiki/Introsort
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ObjectIntroSort<T> implements IObjectSort<T>
+{
+	public static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private final SchwartzianTransform _transform = new SchwartzianTransform();
+
+	public ObjectIntroSort()
+	{
+	}
+
+	@Override
+	public void sort( T[] array, Comparator<? super T> comparator )
+	{
+		introsort( array, 0, array.length - 1, 2 * IntroSort.log2( Math.max( 1, array.length ) ), comparator );
+	}
+
+	@Override
+	public void sortByIntKey( T[] array, ToIntFunction<? super T> key )
+	{
+		_transform.sortByIntKey( array, key );
+	}
+
+	@Override
+	public void sortByLongKey( T[] array, ToLongFunction<? super T> key )
+	{
+		_transform.sortByLongKey( array, key );
+	}
+
+	private static <T> void introsort( T[] array, int left, int right, int depthLimit, Comparator<? super T> comparator )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				heapSort( array, left, right, comparator );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort3( array, left, middle, right, comparator );
+
+			int split = partition( array, left, right, comparator );
+
+			if( split - left < right - split )
+			{
+				introsort( array, left, split, depthLimit, comparator );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( array, split + 1, right, depthLimit, comparator );
+				right = split;
+			}
+		}
+
+		ObjectMergeSort.insertionSort( array, left, right, comparator );
+	}
+
+	/**
+	 * Hoare partition around the middle element, see QuickSort.partition.
+	 */
+	private static <T> int partition( T[] array, int left, int right, Comparator<? super T> comparator )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		T pivot = array[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( comparator.compare( array[ i ], pivot ) < 0 );
+
+			do
+			{
+				j--;
+			}
+			while( comparator.compare( array[ j ], pivot ) > 0 );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( array, i, j );
+		}
+	}
+
+	/**
+	 * Sorts array[ a ], array[ b ], array[ c ], which leaves their median at b.
+	 */
+	private static <T> void sort3( T[] array, int a, int b, int c, Comparator<? super T> comparator )
+	{
+		if( comparator.compare( array[ b ], array[ a ] ) < 0 )
+		{
+			swap( array, a, b );
+		}
+
+		if( comparator.compare( array[ c ], array[ b ] ) < 0 )
+		{
+			swap( array, b, c );
+
+			if( comparator.compare( array[ b ], array[ a ] ) < 0 )
+			{
+				swap( array, a, b );
+			}
+		}
+	}
+
+	private static <T> void heapSort( T[] array, int left, int right, Comparator<? super T> comparator )
+	{
+		int n = right - left + 1;
+
+		for( int i = n / 2 - 1; i >= 0; i-- )
+		{
+			siftDown( array, left, i, n, comparator );
+		}
+
+		for( int end = n - 1; end > 0; end-- )
+		{
+			swap( array, left, left + end );
+			siftDown( array, left, 0, end, comparator );
+		}
+	}
+
+	/**
+	 * Sifts node i of the max heap array[ offset, offset + n ) down to its place.
+	 */
+	private static <T> void siftDown( T[] array, int offset, int i, int n, Comparator<? super T> comparator )
+	{
+		T value = array[ offset + i ];
+
+		while( true )
+		{
+			int child = 2 * i + 1;
+
+			if( child >= n )
+			{
+				break;
+			}
+
+			if( child + 1 < n && comparator.compare( array[ offset + child + 1 ], array[ offset + child ] ) > 0 )
+			{
+				child++;
+			}
+
+			if( comparator.compare( array[ offset + child ], value ) <= 0 )
+			{
+				break;
+			}
+
+			array[ offset + i ] = array[ offset + child ];
+			i = child;
+		}
+
+		array[ offset + i ] = value;
+	}
+
+	private static void swap( Object[] array, int i, int j )
+	{
+		Object tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ObjectIntroSort]";
+	}
+}
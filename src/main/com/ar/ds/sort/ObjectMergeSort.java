@@ -0,0 +1,136 @@
+package com.ar.ds.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Stable merge sort of objects ( best Θ(n), average, worst Θ(n log(n)) ).
+ *
+ * Ranges of up to INSERTION_SORT_THRESHOLD elements are insertion sorted. Two sorted halves
+ * whose boundary is already in order are not merged at all, so sorted input costs n - 1 comparisons.
+ * Equal elements keep their order in comparator as well as in key extractor mode.
+ *
+ * The buffers are kept between calls and only grow, so instances are not thread safe.
+ *
+ * http://en.wikipedia.org/wiki/Merge_sort
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ObjectMergeSort<T> implements IObjectSort<T>
+{
+	public static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private final SchwartzianTransform _transform = new SchwartzianTransform();
+
+	private Object[] _buffer = new Object[ 0 ];
+
+	public ObjectMergeSort()
+	{
+	}
+
+	@Override
+	public void sort( T[] array, Comparator<? super T> comparator )
+	{
+		int n = array.length;
+		Object[] buffer = buffer( n );
+
+		internalSort( array, buffer, 0, n - 1, comparator );
+
+		// Do not keep the elements alive
+		Arrays.fill( buffer, 0, n, null );
+	}
+
+	@Override
+	public void sortByIntKey( T[] array, ToIntFunction<? super T> key )
+	{
+		_transform.sortByIntKey( array, key );
+	}
+
+	@Override
+	public void sortByLongKey( T[] array, ToLongFunction<? super T> key )
+	{
+		_transform.sortByLongKey( array, key );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static <T> void internalSort( T[] array, Object[] tmpArray, int left, int right, Comparator<? super T> comparator )
+	{
+		if( right - left + 1 <= INSERTION_SORT_THRESHOLD )
+		{
+			insertionSort( array, left, right, comparator );
+			return;
+		}
+
+		int center = ( left + right ) >>> 1;
+
+		internalSort( array, tmpArray, left, center, comparator );
+		internalSort( array, tmpArray, center + 1, right, comparator );
+
+		if( comparator.compare( array[ center ], array[ center + 1 ] ) <= 0 )
+		{
+			return;
+		}
+
+		int leftPos = left;
+		int rightPos = center + 1;
+		int tmpPos = left;
+
+		while( leftPos <= center && rightPos <= right )
+		{
+			if( comparator.compare( array[ leftPos ], array[ rightPos ] ) <= 0 )
+			{
+				tmpArray[ tmpPos++ ] = array[ leftPos++ ];
+			}
+			else
+			{
+				tmpArray[ tmpPos++ ] = array[ rightPos++ ];
+			}
+		}
+
+		while( leftPos <= center )
+		{
+			tmpArray[ tmpPos++ ] = array[ leftPos++ ];
+		}
+
+		// The rest of the right half is already in place
+		for( int i = left; i < tmpPos; i++ )
+		{
+			array[ i ] = ( T ) tmpArray[ i ];
+		}
+	}
+
+	static <T> void insertionSort( T[] array, int left, int right, Comparator<? super T> comparator )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			T key = array[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && comparator.compare( array[ i ], key ) > 0; i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			array[ i + 1 ] = key;
+		}
+	}
+
+	private Object[] buffer( int n )
+	{
+		if( _buffer.length < n )
+		{
+			_buffer = new Object[ n ];
+		}
+
+		return _buffer;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ObjectMergeSort]";
+	}
+}
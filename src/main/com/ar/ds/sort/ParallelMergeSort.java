@@ -0,0 +1,242 @@
+package com.ar.ds.sort;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel Merge Sort:
+ * Sorts both halves in parallel fork-join tasks and merges them with a parallel merge.
+ * The merge splits the larger run at its middle element, binary searches the split
+ * point in the smaller run and merges both pairs of pieces concurrently.
+ *
+ * A single scratch buffer of the size of the input is allocated per call and shared
+ * by all tasks. Each level of the recursion alternates between the input array and the
+ * scratch buffer, so no task ever copies its result back.
+ *
+ * Ranges smaller than the sequential cutoff are sorted with the plain MergeSort, and
+ * arrays below the cutoff never touch the pool. The sort is stable.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class ParallelMergeSort implements ISort
+{
+	public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+	private final ForkJoinPool _pool;
+	private final int _sequentialCutoff;
+
+	public ParallelMergeSort()
+	{
+		this( ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF );
+	}
+
+	public ParallelMergeSort( int sequentialCutoff )
+	{
+		this( ForkJoinPool.commonPool(), sequentialCutoff );
+	}
+
+	public ParallelMergeSort( ForkJoinPool pool, int sequentialCutoff )
+	{
+		if( pool == null )
+		{
+			throw new IllegalArgumentException( "pool must not be null" );
+		}
+
+		if( sequentialCutoff < 2 )
+		{
+			throw new IllegalArgumentException( "sequentialCutoff must be at least 2" );
+		}
+
+		_pool = pool;
+		_sequentialCutoff = sequentialCutoff;
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		int[] tmpArray = new int[ array.length ];
+
+		if( array.length < _sequentialCutoff )
+		{
+			MergeSort.internalSort( array, tmpArray, 0, array.length - 1 );
+		}
+		else
+		{
+			_pool.invoke( new SortTask( array, tmpArray, 0, array.length - 1, false, _sequentialCutoff ) );
+		}
+	}
+
+	public int getSequentialCutoff()
+	{
+		return _sequentialCutoff;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ParallelMergeSort]";
+	}
+
+	/**
+	 * Sorts [left, right] of array. The result ends up in array, or in the same range
+	 * of tmpArray if intoTmp is set. The other array is used as scratch space.
+	 */
+	private static final class SortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int[] _tmpArray;
+		private final int _left;
+		private final int _right;
+		private final boolean _intoTmp;
+		private final int _cutoff;
+
+		SortTask( int[] array, int[] tmpArray, int left, int right, boolean intoTmp, int cutoff )
+		{
+			_array = array;
+			_tmpArray = tmpArray;
+			_left = left;
+			_right = right;
+			_intoTmp = intoTmp;
+			_cutoff = cutoff;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if( _right - _left + 1 < _cutoff )
+			{
+				MergeSort.internalSort( _array, _tmpArray, _left, _right );
+
+				if( _intoTmp )
+				{
+					System.arraycopy( _array, _left, _tmpArray, _left, _right - _left + 1 );
+				}
+
+				return;
+			}
+
+			int center = ( _left + _right ) >>> 1;
+
+			// Sort both halves into the buffer we are not merging into
+			invokeAll( new SortTask( _array, _tmpArray, _left, center, !_intoTmp, _cutoff ),
+					new SortTask( _array, _tmpArray, center + 1, _right, !_intoTmp, _cutoff ) );
+
+			int[] source = _intoTmp ? _array : _tmpArray;
+			int[] target = _intoTmp ? _tmpArray : _array;
+
+			new MergeTask( source, _left, center, center + 1, _right, target, _left, _cutoff ).compute();
+		}
+	}
+
+	/**
+	 * Merges the sorted runs [leftPos, leftEnd] and [rightPos, rightEnd] of source into
+	 * target at targetPos. Bounds are inclusive.
+	 */
+	private static final class MergeTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _source;
+		private final int _leftPos;
+		private final int _leftEnd;
+		private final int _rightPos;
+		private final int _rightEnd;
+		private final int[] _target;
+		private final int _targetPos;
+		private final int _cutoff;
+
+		MergeTask( int[] source, int leftPos, int leftEnd, int rightPos, int rightEnd, int[] target, int targetPos, int cutoff )
+		{
+			_source = source;
+			_leftPos = leftPos;
+			_leftEnd = leftEnd;
+			_rightPos = rightPos;
+			_rightEnd = rightEnd;
+			_target = target;
+			_targetPos = targetPos;
+			_cutoff = cutoff;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int leftLength = _leftEnd - _leftPos + 1;
+			int rightLength = _rightEnd - _rightPos + 1;
+
+			if( leftLength + rightLength < _cutoff || leftLength == 0 || rightLength == 0 || leftLength + rightLength == 2 )
+			{
+				MergeSort.merge( _source, _leftPos, _leftEnd, _source, _rightPos, _rightEnd, _target, _targetPos );
+				return;
+			}
+
+			int leftSplit;
+			int rightSplit;
+
+			// Split the longer run in the middle and find the matching split in the shorter one,
+			// so that [leftPos, leftSplit] and [rightPos, rightSplit) merge in front of the rest.
+			// Elements equal to a split value stay behind their left partners to keep stability.
+			if( leftLength >= rightLength )
+			{
+				leftSplit = ( _leftPos + _leftEnd ) >>> 1;
+				rightSplit = lowerBound( _source, _rightPos, _rightEnd + 1, _source[ leftSplit ] );
+			}
+			else
+			{
+				rightSplit = ( _rightPos + _rightEnd + 1 ) >>> 1;
+				leftSplit = upperBound( _source, _leftPos, _leftEnd + 1, _source[ rightSplit ] ) - 1;
+			}
+
+			int targetSplit = _targetPos + ( leftSplit - _leftPos + 1 ) + ( rightSplit - _rightPos );
+
+			invokeAll( new MergeTask( _source, _leftPos, leftSplit, _rightPos, rightSplit - 1, _target, _targetPos, _cutoff ),
+					new MergeTask( _source, leftSplit + 1, _leftEnd, rightSplit, _rightEnd, _target, targetSplit, _cutoff ) );
+		}
+
+		/**
+		 * First index in [from, to) whose value is not less than key.
+		 */
+		private static int lowerBound( int[] array, int from, int to, int key )
+		{
+			while( from < to )
+			{
+				int mid = ( from + to ) >>> 1;
+
+				if( array[ mid ] < key )
+				{
+					from = mid + 1;
+				}
+				else
+				{
+					to = mid;
+				}
+			}
+
+			return from;
+		}
+
+		/**
+		 * First index in [from, to) whose value is greater than key.
+		 */
+		private static int upperBound( int[] array, int from, int to, int key )
+		{
+			while( from < to )
+			{
+				int mid = ( from + to ) >>> 1;
+
+				if( array[ mid ] <= key )
+				{
+					from = mid + 1;
+				}
+				else
+				{
+					to = mid;
+				}
+			}
+
+			return from;
+		}
+	}
+}
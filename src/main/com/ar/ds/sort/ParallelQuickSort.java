@@ -0,0 +1,196 @@
+package com.ar.ds.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel Quicksort:
+ * Partitions with the same Hoare partition as QuickSort and hands the sub-lists to a fork-join pool.
+ *
+ * 1. The pivot is the median of three, or for ranges of NINTHER_THRESHOLD elements and more the
+ * median of three medians of three ( ninther ), spread over the range.
+ * 2. The smaller part is forked, the task goes on with the larger part itself, so a task that runs
+ * a forked part while joining needs at most log2(n) nested frames.
+ * 3. Once more than 2 * log2(n) partitioning steps were needed on the way to a range, as IntroSort
+ * counts them, the pivots are bad and the range is sorted by heapsort.
+ * 4. Ranges smaller than the sequential cutoff are sorted in the calling task by IntroSort.
+ *
+ * The work is O(n log n) for every input, organ pipes and other inputs that defeat a fixed pivot
+ * included. Arrays below the cutoff never touch the pool, so small inputs cost the same as IntroSort.
+ * Quicksort sorts in place, no scratch buffer is needed.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class ParallelQuickSort implements ISort
+{
+	public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+	public static final int NINTHER_THRESHOLD = 128;
+
+	private final ForkJoinPool _pool;
+	private final int _sequentialCutoff;
+
+	public ParallelQuickSort()
+	{
+		this( ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF );
+	}
+
+	public ParallelQuickSort( int sequentialCutoff )
+	{
+		this( ForkJoinPool.commonPool(), sequentialCutoff );
+	}
+
+	public ParallelQuickSort( ForkJoinPool pool, int sequentialCutoff )
+	{
+		if( pool == null )
+		{
+			throw new IllegalArgumentException( "pool must not be null" );
+		}
+
+		if( sequentialCutoff < 2 )
+		{
+			throw new IllegalArgumentException( "sequentialCutoff must be at least 2" );
+		}
+
+		_pool = pool;
+		_sequentialCutoff = sequentialCutoff;
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		if( array.length < _sequentialCutoff )
+		{
+			IntroSort.sort( array, 0, array.length - 1 );
+		}
+		else
+		{
+			_pool.invoke( new SortTask( array, 0, array.length - 1, 2 * IntroSort.log2( array.length ), _sequentialCutoff ) );
+		}
+	}
+
+	public int getSequentialCutoff()
+	{
+		return _sequentialCutoff;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ParallelQuickSort]";
+	}
+
+	/**
+	 * Moves the pivot of [left, right] to the middle, where QuickSort.partition takes it from.
+	 */
+	private static void movePivotToMiddle( int[] array, int left, int right )
+	{
+		int middle = ( left + right ) >>> 1;
+		int pivot;
+
+		if( right - left + 1 >= NINTHER_THRESHOLD )
+		{
+			int step = ( right - left + 1 ) / 8;
+
+			pivot = median( array,
+					median( array, left, left + step, left + 2 * step ),
+					median( array, middle - step, middle, middle + step ),
+					median( array, right - 2 * step, right - step, right ) );
+		}
+		else
+		{
+			pivot = median( array, left, middle, right );
+		}
+
+		QuickSort.swap( array, pivot, middle );
+	}
+
+	/**
+	 * Index of the median of the elements at a, b and c.
+	 */
+	private static int median( int[] array, int a, int b, int c )
+	{
+		int x = array[ a ];
+		int y = array[ b ];
+		int z = array[ c ];
+
+		if( x < y )
+		{
+			return y < z ? b : x < z ? c : a;
+		}
+
+		return x < z ? a : y < z ? c : b;
+	}
+
+	private static final class SortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int _left;
+		private final int _right;
+		private final int _depthLimit;
+		private final int _cutoff;
+
+		SortTask( int[] array, int left, int right, int depthLimit, int cutoff )
+		{
+			_array = array;
+			_left = left;
+			_right = right;
+			_depthLimit = depthLimit;
+			_cutoff = cutoff;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int[] array = _array;
+			int left = _left;
+			int right = _right;
+			int depthLimit = _depthLimit;
+			List<SortTask> forked = new ArrayList<SortTask>();
+
+			while( true )
+			{
+				if( right - left + 1 < _cutoff )
+				{
+					IntroSort.sort( array, left, right );
+					break;
+				}
+
+				if( depthLimit-- == 0 )
+				{
+					HeapSort.sort( array, left, right );
+					break;
+				}
+
+				movePivotToMiddle( array, left, right );
+
+				// Both parts are non empty, the split is in [left, right - 1]
+				int split = QuickSort.partition( array, left, right );
+				SortTask task;
+
+				if( split - left < right - split )
+				{
+					task = new SortTask( array, left, split, depthLimit, _cutoff );
+					left = split + 1;
+				}
+				else
+				{
+					task = new SortTask( array, split + 1, right, depthLimit, _cutoff );
+					right = split;
+				}
+
+				task.fork();
+				forked.add( task );
+			}
+
+			for( int i = forked.size() - 1; i >= 0; i-- )
+			{
+				forked.get( i ).join();
+			}
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package com.ar.ds.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel Sample Sort:
+ * Splits the input into k buckets by k - 1 splitters taken from a sorted random sample, moves every
+ * element into its bucket and sorts all buckets concurrently ( average Θ(n log(n) / p) for p threads ).
+ * Unlike parallel quicksort there is no serial partition at the top, every pass over the data is parallel.
+ *
+ * 1. OVERSAMPLING * k random elements are sorted, every OVERSAMPLING-th becomes a splitter,
+ * which keeps the buckets close to n / k elements.
+ * 2. The splitters are stored as an implicit binary search tree ( Eytzinger layout ). An element
+ * descends log2(k) levels with j = 2j + ( element > tree[ j ] ), which has no branch to mispredict.
+ * 3. The input is cut into chunks, one task per chunk counts how many of its elements fall into each bucket.
+ * 4. Prefix sums over buckets and chunks give each chunk its own slots in every bucket.
+ * 5. The chunks classify their elements again and scatter them into a single scratch buffer,
+ * recomputing the bucket costs less than storing it would cost in memory traffic.
+ * 6. Each bucket is sorted by IntroSort in the scratch buffer and copied back by its own task.
+ *
+ * A value that fills more than about n / k elements shows up more than once among the splitters.
+ * Then every bucket gets an equality bucket next to it, for the elements equal to its splitter.
+ * Those are sorted already and are copied back in pieces by several tasks, so an input dominated
+ * by a few values still sorts in parallel instead of leaving one bucket of almost n elements.
+ *
+ * Inputs below the sequential cutoff are sorted by IntroSort directly.
+ *
+ * http://en.wikipedia.org/wiki/Samplesort
+ * Sanders, Winkel: Super Scalar Sample Sort
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class ParallelSampleSort implements ISort
+{
+	public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 16;
+	public static final int OVERSAMPLING = 16;
+	public static final int MAX_BUCKET_COUNT = 256;
+	public static final int MIN_CHUNK_SIZE = 1 << 14;
+
+	private final ForkJoinPool _pool;
+	private final int _sequentialCutoff;
+
+	public ParallelSampleSort()
+	{
+		this( ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_CUTOFF );
+	}
+
+	public ParallelSampleSort( int sequentialCutoff )
+	{
+		this( ForkJoinPool.commonPool(), sequentialCutoff );
+	}
+
+	public ParallelSampleSort( ForkJoinPool pool, int sequentialCutoff )
+	{
+		if( pool == null )
+		{
+			throw new IllegalArgumentException( "pool must not be null" );
+		}
+
+		if( sequentialCutoff < 2 )
+		{
+			throw new IllegalArgumentException( "sequentialCutoff must be at least 2" );
+		}
+
+		_pool = pool;
+		_sequentialCutoff = sequentialCutoff;
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		int n = array.length;
+
+		if( n < _sequentialCutoff )
+		{
+			IntroSort.sort( array, 0, n - 1 );
+			return;
+		}
+
+		int parallelism = _pool.getParallelism();
+
+		// About 8 buckets per thread for load balance, but no bucket below the cutoff on average
+		int bucketCount = Integer.highestOneBit( Math.max( 2, Math.min( 8 * parallelism, n / ( _sequentialCutoff / 4 ) ) ) );
+		bucketCount = Math.max( 2, Math.min( bucketCount, MAX_BUCKET_COUNT ) );
+
+		int chunkCount = Math.max( 1, Math.min( 4 * parallelism, n / MIN_CHUNK_SIZE ) );
+
+		_pool.invoke( new SampleSortTask( array, bucketCount, chunkCount ) );
+	}
+
+	/**
+	 * Sorted splitters from a random sample of array, bucketCount - 1 of them.
+	 */
+	static int[] splitters( int[] array, int bucketCount )
+	{
+		int n = array.length;
+		int[] sample = new int[ OVERSAMPLING * bucketCount ];
+
+		// xorshift, the sample only has to be spread, not unpredictable
+		long state = 0x9E3779B97F4A7C15L ^ n;
+
+		for( int i = 0; i < sample.length; i++ )
+		{
+			state ^= state << 13;
+			state ^= state >>> 7;
+			state ^= state << 17;
+
+			sample[ i ] = array[ ( int ) ( ( state >>> 1 ) % n ) ];
+		}
+
+		IntroSort.sort( sample, 0, sample.length - 1 );
+
+		int[] splitters = new int[ bucketCount - 1 ];
+
+		for( int i = 0; i < splitters.length; i++ )
+		{
+			splitters[ i ] = sample[ ( i + 1 ) * OVERSAMPLING - 1 ];
+		}
+
+		return splitters;
+	}
+
+	/**
+	 * Lays the sorted splitters out as an implicit search tree, the children of node j are 2j and 2j + 1,
+	 * the root is 1. An in-order walk of the tree visits the splitters in sorted order.
+	 */
+	static int[] tree( int[] splitters )
+	{
+		int[] tree = new int[ splitters.length + 1 ];
+
+		fill( tree, splitters, 1, 0 );
+
+		return tree;
+	}
+
+	private static int fill( int[] tree, int[] splitters, int node, int next )
+	{
+		if( node < tree.length )
+		{
+			next = fill( tree, splitters, 2 * node, next );
+			tree[ node ] = splitters[ next++ ];
+			next = fill( tree, splitters, 2 * node + 1, next );
+		}
+
+		return next;
+	}
+
+	/**
+	 * Whether a splitter repeats, which means equality buckets pay off.
+	 */
+	static boolean hasDuplicates( int[] splitters )
+	{
+		for( int i = 1; i < splitters.length; i++ )
+		{
+			if( splitters[ i ] == splitters[ i - 1 ] )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Bucket of value, elements equal to a splitter go to the bucket below it.
+	 */
+	static int classify( int[] tree, int levels, int value )
+	{
+		int j = 1;
+
+		for( int level = 0; level < levels; level++ )
+		{
+			j = ( j << 1 ) | ( value > tree[ j ] ? 1 : 0 );
+		}
+
+		return j - tree.length;
+	}
+
+	public int getSequentialCutoff()
+	{
+		return _sequentialCutoff;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ParallelSampleSort]";
+	}
+
+	private static final class SampleSortTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int _bucketCount;
+		private final int _chunkCount;
+
+		SampleSortTask( int[] array, int bucketCount, int chunkCount )
+		{
+			_array = array;
+			_bucketCount = bucketCount;
+			_chunkCount = chunkCount;
+		}
+
+		@Override
+		protected void compute()
+		{
+			int[] array = _array;
+			int n = array.length;
+			int k = _bucketCount;
+			int levels = Integer.numberOfTrailingZeros( k );
+			int[] splitters = splitters( array, k );
+			int[] tree = tree( splitters );
+
+			// With equality buckets bucket 2b holds the elements of bucket b below its splitter, 2b + 1 those equal to it
+			int[] equal = hasDuplicates( splitters ) ? splitters : null;
+			int bucketCount = equal != null ? 2 * k : k;
+
+			// Histograms, one row per chunk
+			int[][] counts = new int[ _chunkCount ][ bucketCount ];
+			ChunkTask[] chunks = new ChunkTask[ _chunkCount ];
+
+			for( int c = 0; c < _chunkCount; c++ )
+			{
+				int from = ( int ) ( ( long ) n * c / _chunkCount );
+				int to = ( int ) ( ( long ) n * ( c + 1 ) / _chunkCount );
+
+				chunks[ c ] = new ChunkTask( array, null, from, to, tree, levels, equal, counts[ c ] );
+			}
+
+			invokeAll( chunks );
+
+			// Bucket major prefix sums, counts[ c ][ b ] becomes the first slot of chunk c in bucket b
+			int[] bucketStarts = new int[ bucketCount + 1 ];
+			int offset = 0;
+
+			for( int b = 0; b < bucketCount; b++ )
+			{
+				bucketStarts[ b ] = offset;
+
+				for( int c = 0; c < _chunkCount; c++ )
+				{
+					int count = counts[ c ][ b ];
+					counts[ c ][ b ] = offset;
+					offset += count;
+				}
+			}
+
+			bucketStarts[ bucketCount ] = n;
+
+			int[] buffer = new int[ n ];
+
+			for( int c = 0; c < _chunkCount; c++ )
+			{
+				ChunkTask chunk = chunks[ c ];
+
+				chunks[ c ] = new ChunkTask( array, buffer, chunk._from, chunk._to, tree, levels, equal, counts[ c ] );
+			}
+
+			invokeAll( chunks );
+
+			List<BucketTask> buckets = new ArrayList<BucketTask>();
+			int piece = Math.max( MIN_CHUNK_SIZE, n / _chunkCount );
+
+			for( int b = 0; b < bucketCount; b++ )
+			{
+				int from = bucketStarts[ b ];
+				int to = bucketStarts[ b + 1 ];
+
+				if( equal != null && ( b & 1 ) == 1 )
+				{
+					for( ; from < to; from += piece )
+					{
+						buckets.add( new BucketTask( buffer, array, from, Math.min( from + piece, to ), false ) );
+					}
+				}
+				else if( from < to )
+				{
+					buckets.add( new BucketTask( buffer, array, from, to, true ) );
+				}
+			}
+
+			invokeAll( buckets );
+		}
+	}
+
+	/**
+	 * Counts the elements of a chunk per bucket, or, with a target, scatters them
+	 * to the slots given by counts, which then end up past the chunk's last element per bucket.
+	 */
+	private static final class ChunkTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _array;
+		private final int[] _target;
+		private final int _from;
+		private final int _to;
+		private final int[] _tree;
+		private final int _levels;
+		private final int[] _equal;
+		private final int[] _counts;
+
+		/**
+		 * @param equal the sorted splitters if there are equality buckets, else null
+		 */
+		ChunkTask( int[] array, int[] target, int from, int to, int[] tree, int levels, int[] equal, int[] counts )
+		{
+			_array = array;
+			_target = target;
+			_from = from;
+			_to = to;
+			_tree = tree;
+			_levels = levels;
+			_equal = equal;
+			_counts = counts;
+		}
+
+		private int bucket( int value )
+		{
+			int b = classify( _tree, _levels, value );
+
+			if( _equal == null )
+			{
+				return b;
+			}
+
+			return 2 * b + ( b < _equal.length && value == _equal[ b ] ? 1 : 0 );
+		}
+
+		@Override
+		protected void compute()
+		{
+			int[] array = _array;
+			int[] counts = _counts;
+
+			if( _target == null )
+			{
+				for( int i = _from; i < _to; i++ )
+				{
+					counts[ bucket( array[ i ] ) ]++;
+				}
+			}
+			else
+			{
+				int[] target = _target;
+
+				for( int i = _from; i < _to; i++ )
+				{
+					int value = array[ i ];
+
+					target[ counts[ bucket( value ) ]++ ] = value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sorts bucket [from, to) of the scratch buffer, unless it holds equal elements only,
+	 * and copies it back to the array.
+	 */
+	private static final class BucketTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] _buffer;
+		private final int[] _array;
+		private final int _from;
+		private final int _to;
+		private final boolean _sort;
+
+		BucketTask( int[] buffer, int[] array, int from, int to, boolean sort )
+		{
+			_buffer = buffer;
+			_array = array;
+			_from = from;
+			_to = to;
+			_sort = sort;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if( _sort )
+			{
+				IntroSort.sort( _buffer, _from, _to - 1 );
+			}
+
+			System.arraycopy( _buffer, _from, _array, _from, _to - _from );
+		}
+	}
+}
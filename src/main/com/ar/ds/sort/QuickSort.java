@@ -23,68 +23,186 @@ package com.ar.ds.sort;
  * - Consistently poor choices of pivots can result in drastically slower O(n²) performance,
  * but if at each step we choose the median as the pivot then it works in O(n log n).
  *
+ * With a sort kernel, int ranges of up to SortKernels.BASE_CASE_THRESHOLD elements are left to the kernel
+ * and the rest is split by the kernel's partition around the median of the first, middle and last element.
+ * Kernels like VectorSortKernel keep scratch space between calls, so an instance with a kernel is not
+ * thread safe, and neither are sorts sharing one kernel instance. Without a kernel instances can be shared.
+ *
+ * The long, double, float and key value sorts follow the scheme of IntroSort: the median of the first,
+ * middle and last element is the pivot, only the smaller part is sorted recursively and once more than
+ * 2 * log2(n) partitioning steps were needed the remaining range is heap sorted. Ranges of up to
+ * INSERTION_SORT_THRESHOLD elements are insertion sorted. Organ pipes and other inputs that defeat the
+ * pivot therefore take Θ(n log(n)) time and O(log n) stack.
+ *
  * http://en.wikipedia.org/wiki/Quicksort
  *
  * @author Alan Ross
  * @version 0.1
  */
-public class QuickSort implements ISort
+public class QuickSort implements ISort, ILongSort, IDoubleSort, IFloatSort, IKeyValueSort
 {
+	public static final int INSERTION_SORT_THRESHOLD = 24;
+
+	private final ISortKernel _kernel;
+
 	public QuickSort()
 	{
+		this( null );
+	}
 
+	/**
+	 * @param kernel base case and partitioning of int arrays, null for plain quicksort, with a kernel
+	 *               the instance is not thread safe, give every thread its own, e.g. from SortKernels.preferred()
+	 */
+	public QuickSort( ISortKernel kernel )
+	{
+		_kernel = kernel;
 	}
 
 	@Override
 	public void sort( int[] array )
 	{
-		quicksort( array, 0, array.length - 1 );
+		if( _kernel == null )
+		{
+			quicksort( array, 0, array.length - 1 );
+		}
+		else
+		{
+			quicksort( array, 0, array.length - 1, _kernel );
+		}
+	}
+
+	static void quicksort( int[] array, int left, int right, ISortKernel kernel )
+	{
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.enter();
+		}
+
+		while( right - left + 1 > SortKernels.BASE_CASE_THRESHOLD )
+		{
+			int pivot = median( array[ left ], array[ ( left + right ) >>> 1 ], array[ right ] );
+			int split = kernel.partition( array, left, right, pivot );
+
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.compared( right - left + 4 );
+				SortProbe.moved( right - left + 1 );
+			}
+
+			if( split == left )
+			{
+				// Nothing is less than the pivot, so it is the minimum of the range
+				if( pivot == Integer.MAX_VALUE )
+				{
+					// All elements are equal
+					left = right + 1;
+					continue;
+				}
+
+				// Split off all copies of the pivot, they are done
+				left = kernel.partition( array, left, right, pivot + 1 );
+				continue;
+			}
+
+			// Recurse into the smaller part, loop on the larger one
+			if( split - left < right - split + 1 )
+			{
+				quicksort( array, left, split - 1, kernel );
+				left = split;
+			}
+			else
+			{
+				quicksort( array, split, right, kernel );
+				right = split - 1;
+			}
+		}
+
+		kernel.sort( array, left, right );
+
+		if( SortProbe.ENABLED )
+		{
+			SortProbe.exit();
+		}
+	}
+
+	private static int median( int a, int b, int c )
+	{
+		return Math.max( Math.min( a, b ), Math.min( Math.max( a, b ), c ) );
 	}
 
-	private void quicksort( int[] array, int left, int right )
+	static void quicksort( int[] array, int left, int right )
 	{
-		int i = left;
-		int j = right;
+		if( left < right )
+		{
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.enter();
+			}
+
+			int split = partition( array, left, right );
+
+			quicksort( array, left, split );
+			quicksort( array, split + 1, right );
+
+			if( SortProbe.ENABLED )
+			{
+				SortProbe.exit();
+			}
+		}
+	}
+
+	/**
+	 * Hoare partition around the middle element of [left, right].
+	 * Returns the index split, so that every element of [left, split] is less than or
+	 * equal to every element of [split + 1, right]. Requires left < right, the result
+	 * is always in [left, right - 1].
+	 */
+	static int partition( int[] array, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		int swaps = 0;
 
 		// Get the pivot element from the middle of the list
-		int pivot = array[ left + ( right - left ) / 2 ];
+		int pivot = array[ ( left + right ) >>> 1 ];
 
-		// Divide into two lists
-		while( i <= j )
+		while( true )
 		{
 			// If the current value from the left list is smaller then the pivot
 			// element then get the next element from the left list
-			while( array[ i ] < pivot )
+			do
 			{
 				i++;
 			}
+			while( array[ i ] < pivot );
+
 			// If the current value from the right list is larger then the pivot
 			// element then get the next element from the right list
-			while( array[ j ] > pivot )
+			do
 			{
 				j--;
 			}
+			while( array[ j ] > pivot );
 
-			// If we have found a values in the left list which is larger then
-			// the pivot element and if we have found a value in the right list
-			// which is smaller then the pivot element then we exchange the
-			// values.
-			// As we are done we can increase i and j
-			if( i <= j )
+			if( i >= j )
 			{
-				swap( array, i, j );
-				i++;
-				j--;
+				if( SortProbe.ENABLED )
+				{
+					// Every step of i and j was one comparison
+					SortProbe.compared( ( i - left + 1 ) + ( right + 1 - j ) );
+					SortProbe.moved( 2L * swaps );
+				}
+
+				return j;
 			}
-		}
 
-		if( left < j )
-		{
-			quicksort( array, left, j );
-		}
-		if( i < right )
-		{
-			quicksort( array, i, right );
+			// We have found a value in the left list which is larger then
+			// the pivot element and a value in the right list which is
+			// smaller then the pivot element, so we exchange the values.
+			swap( array, i, j );
+			swaps++;
 		}
 	}
 
@@ -125,7 +243,7 @@ public class QuickSort implements ISort
 		}
 	}
 
-	private void swap( int[] array, int i, int j )
+	static void swap( int[] array, int i, int j )
 	{
 		int tmp = array[ i ];
 		array[ i ] = array[ j ];
@@ -133,6 +251,428 @@ public class QuickSort implements ISort
 	}
 
 
+	@Override
+	public void sort( long[] array )
+	{
+		introsort( array, 0, array.length - 1, depthLimit( array.length ) );
+	}
+
+	@Override
+	public void sort( double[] array )
+	{
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		introsort( array, 0, end - 1, depthLimit( end ) );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	@Override
+	public void sort( float[] array )
+	{
+		int end = FloatingPointOrder.moveNaNsToEnd( array );
+
+		introsort( array, 0, end - 1, depthLimit( end ) );
+
+		FloatingPointOrder.orderZeros( array, end );
+	}
+
+	/**
+	 * Partitioning steps before the long, double, float and key value sorts switch to heap sort.
+	 */
+	private static int depthLimit( int n )
+	{
+		return 2 * IntroSort.log2( Math.max( 1, n ) );
+	}
+
+	static void introsort( long[] array, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				HeapSort.sort( array, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( array, left, middle );
+			sort2( array, middle, right );
+			sort2( array, left, middle );
+
+			int split = partition( array, left, right );
+
+			if( split - left < right - split )
+			{
+				introsort( array, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( array, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( array, left, right );
+	}
+
+	static int partition( long[] array, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		long pivot = array[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( array[ i ] < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( array[ j ] > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( array, i, j );
+		}
+	}
+
+	private static void insertionSort( long[] array, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			long key = array[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && array[ i ] > key; i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			array[ i + 1 ] = key;
+		}
+	}
+
+	private static void sort2( long[] array, int i, int j )
+	{
+		if( array[ j ] < array[ i ] )
+		{
+			swap( array, i, j );
+		}
+	}
+
+	static void swap( long[] array, int i, int j )
+	{
+		long tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	static void introsort( double[] array, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				HeapSort.sort( array, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( array, left, middle );
+			sort2( array, middle, right );
+			sort2( array, left, middle );
+
+			int split = partition( array, left, right );
+
+			if( split - left < right - split )
+			{
+				introsort( array, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( array, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( array, left, right );
+	}
+
+	static int partition( double[] array, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		double pivot = array[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( array[ i ] < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( array[ j ] > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( array, i, j );
+		}
+	}
+
+	private static void insertionSort( double[] array, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			double key = array[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && array[ i ] > key; i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			array[ i + 1 ] = key;
+		}
+	}
+
+	private static void sort2( double[] array, int i, int j )
+	{
+		if( array[ j ] < array[ i ] )
+		{
+			swap( array, i, j );
+		}
+	}
+
+	static void swap( double[] array, int i, int j )
+	{
+		double tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	static void introsort( float[] array, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				HeapSort.sort( array, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( array, left, middle );
+			sort2( array, middle, right );
+			sort2( array, left, middle );
+
+			int split = partition( array, left, right );
+
+			if( split - left < right - split )
+			{
+				introsort( array, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( array, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( array, left, right );
+	}
+
+	static int partition( float[] array, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		float pivot = array[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( array[ i ] < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( array[ j ] > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( array, i, j );
+		}
+	}
+
+	private static void insertionSort( float[] array, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			float key = array[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && array[ i ] > key; i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			array[ i + 1 ] = key;
+		}
+	}
+
+	private static void sort2( float[] array, int i, int j )
+	{
+		if( array[ j ] < array[ i ] )
+		{
+			swap( array, i, j );
+		}
+	}
+
+	static void swap( float[] array, int i, int j )
+	{
+		float tmp = array[ i ];
+		array[ i ] = array[ j ];
+		array[ j ] = tmp;
+	}
+
+	/**
+	 * Sorts keys and applies the same permutation to values. Not stable.
+	 */
+	@Override
+	public void sort( int[] keys, long[] values )
+	{
+		if( keys.length != values.length )
+		{
+			throw new IllegalArgumentException( "keys and values differ in length" );
+		}
+
+		introsort( keys, values, 0, keys.length - 1, depthLimit( keys.length ) );
+	}
+
+	static void introsort( int[] keys, long[] values, int left, int right, int depthLimit )
+	{
+		while( right - left + 1 > INSERTION_SORT_THRESHOLD )
+		{
+			if( depthLimit-- == 0 )
+			{
+				HeapSort.sort( keys, values, left, right );
+				return;
+			}
+
+			int middle = ( left + right ) >>> 1;
+
+			sort2( keys, values, left, middle );
+			sort2( keys, values, middle, right );
+			sort2( keys, values, left, middle );
+
+			int split = partition( keys, values, left, right );
+
+			if( split - left < right - split )
+			{
+				introsort( keys, values, left, split, depthLimit );
+				left = split + 1;
+			}
+			else
+			{
+				introsort( keys, values, split + 1, right, depthLimit );
+				right = split;
+			}
+		}
+
+		insertionSort( keys, values, left, right );
+	}
+
+	static int partition( int[] keys, long[] values, int left, int right )
+	{
+		int i = left - 1;
+		int j = right + 1;
+
+		int pivot = keys[ ( left + right ) >>> 1 ];
+
+		while( true )
+		{
+			do
+			{
+				i++;
+			}
+			while( keys[ i ] < pivot );
+
+			do
+			{
+				j--;
+			}
+			while( keys[ j ] > pivot );
+
+			if( i >= j )
+			{
+				return j;
+			}
+
+			swap( keys, i, j );
+			swap( values, i, j );
+		}
+	}
+
+	private static void insertionSort( int[] keys, long[] values, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			int key = keys[ j ];
+			long value = values[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && keys[ i ] > key; i-- )
+			{
+				keys[ i + 1 ] = keys[ i ];
+				values[ i + 1 ] = values[ i ];
+			}
+
+			keys[ i + 1 ] = key;
+			values[ i + 1 ] = value;
+		}
+	}
+
+	private static void sort2( int[] keys, long[] values, int i, int j )
+	{
+		if( keys[ j ] < keys[ i ] )
+		{
+			swap( keys, i, j );
+			swap( values, i, j );
+		}
+	}
+
 	@Override
 	public String toString()
 	{
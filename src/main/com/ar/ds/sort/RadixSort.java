@@ -0,0 +1,627 @@
+package com.ar.ds.sort;
+
+/**
+ * Radix Sort:
+ * Sorts 32 and 64 bit keys byte by byte with counting sort ( Θ(n * w) for w bytes per key ).
+ * Memory use only depends on n, never on the value range of the keys.
+ * Signed keys are handled by flipping the sign bit of the most significant byte,
+ * so negative numbers sort in front of positive ones.
+ *
+ * A first pass builds the histograms of all bytes at once. Bytes that are equal in all
+ * keys are skipped, so e.g. small non negative ints only need one or two passes.
+ *
+ * LSD (least significant digit first) is used when the keys are spread evenly over
+ * the most significant varying byte. It is stable and streams through the array once per byte.
+ *
+ * MSD (most significant digit first) is used when that byte is skewed, i.e. a single
+ * bucket holds more than half of the keys. Each bucket is then sorted on the next byte,
+ * and buckets of up to INSERTION_SORT_THRESHOLD keys are finished with insertion sort.
+ *
+ * Floats and doubles are sorted as keys made from their bits, in the order of Float.compare
+ * and Double.compare. Key/value pairs are always sorted LSD, which keeps them stable.
+ *
+ * The auxiliary buffers are kept between calls and only grow, so instances are not thread safe.
+ *
+ * http://en.wikipedia.org/wiki/Radix_sort
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class RadixSort implements ISort, ILongSort, IDoubleSort, IFloatSort, IKeyValueSort
+{
+	public static final int INSERTION_SORT_THRESHOLD = 64;
+
+	private static final int RADIX = 256;
+	private static final int MASK = RADIX - 1;
+
+	private final int[][] _counts = new int[ 8 ][ RADIX + 1 ];
+
+	private int[] _intBuffer = new int[ 0 ];
+	private long[] _longBuffer = new long[ 0 ];
+	private int[] _intKeyBuffer = new int[ 0 ];
+	private long[] _longKeyBuffer = new long[ 0 ];
+
+	public RadixSort()
+	{
+	}
+
+	@Override
+	public void sort( int[] array )
+	{
+		sortKeys( array, array.length );
+	}
+
+	@Override
+	public void sort( long[] array )
+	{
+		sortKeys( array, array.length );
+	}
+
+	/**
+	 * The bits of each value are mapped to an int key that sorts in the order of Float.compare.
+	 * All NaNs come out as the canonical NaN.
+	 */
+	@Override
+	public void sort( float[] array )
+	{
+		int n = array.length;
+		int[] keys = intKeyBuffer( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			keys[ i ] = sortableBits( Float.floatToIntBits( array[ i ] ) );
+		}
+
+		sortKeys( keys, n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			array[ i ] = Float.intBitsToFloat( sortableBits( keys[ i ] ) );
+		}
+	}
+
+	/**
+	 * The bits of each value are mapped to a long key that sorts in the order of Double.compare.
+	 * All NaNs come out as the canonical NaN.
+	 */
+	@Override
+	public void sort( double[] array )
+	{
+		int n = array.length;
+		long[] keys = longKeyBuffer( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			keys[ i ] = sortableBits( Double.doubleToLongBits( array[ i ] ) );
+		}
+
+		sortKeys( keys, n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			array[ i ] = Double.longBitsToDouble( sortableBits( keys[ i ] ) );
+		}
+	}
+
+	/**
+	 * Sorts keys and applies the same permutation to values. Always LSD, which keeps it stable.
+	 */
+	@Override
+	public void sort( int[] keys, long[] values )
+	{
+		if( keys.length != values.length )
+		{
+			throw new IllegalArgumentException( "keys and values differ in length" );
+		}
+
+		int n = keys.length;
+
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int[][] counts = _counts;
+
+		clear( counts, 4 );
+
+		for( int i = 0; i < n; i++ )
+		{
+			int value = keys[ i ];
+
+			counts[ 0 ][ intDigit( value, 0 ) ]++;
+			counts[ 1 ][ intDigit( value, 1 ) ]++;
+			counts[ 2 ][ intDigit( value, 2 ) ]++;
+			counts[ 3 ][ intDigit( value, 3 ) ]++;
+		}
+
+		int top = topVaryingDigit( counts, 4, n );
+
+		int[] sourceKeys = keys;
+		long[] sourceValues = values;
+		int[] targetKeys = intBuffer( n );
+		long[] targetValues = longBuffer( n );
+
+		for( int digit = 0; digit <= top; digit++ )
+		{
+			int[] count = counts[ digit ];
+
+			if( count[ intDigit( sourceKeys[ 0 ], digit ) ] == n )
+			{
+				continue; // same byte in every key
+			}
+
+			toOffsets( count );
+
+			for( int i = 0; i < n; i++ )
+			{
+				int key = sourceKeys[ i ];
+				int position = count[ intDigit( key, digit ) ]++;
+
+				targetKeys[ position ] = key;
+				targetValues[ position ] = sourceValues[ i ];
+			}
+
+			int[] tmpKeys = sourceKeys;
+			sourceKeys = targetKeys;
+			targetKeys = tmpKeys;
+
+			long[] tmpValues = sourceValues;
+			sourceValues = targetValues;
+			targetValues = tmpValues;
+		}
+
+		if( sourceKeys != keys )
+		{
+			System.arraycopy( sourceKeys, 0, keys, 0, n );
+			System.arraycopy( sourceValues, 0, values, 0, n );
+		}
+	}
+
+	/**
+	 * Sorts the first n elements of array.
+	 */
+	void sortKeys( int[] array, int n )
+	{
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int[][] counts = _counts;
+
+		clear( counts, 4 );
+
+		for( int i = 0; i < n; i++ )
+		{
+			int value = array[ i ];
+
+			counts[ 0 ][ intDigit( value, 0 ) ]++;
+			counts[ 1 ][ intDigit( value, 1 ) ]++;
+			counts[ 2 ][ intDigit( value, 2 ) ]++;
+			counts[ 3 ][ intDigit( value, 3 ) ]++;
+		}
+
+		int top = topVaryingDigit( counts, 4, n );
+
+		if( top < 0 )
+		{
+			return; // all keys are equal
+		}
+
+		int[] buffer = intBuffer( n );
+
+		if( isSkewed( counts[ top ], n ) )
+		{
+			msd( array, buffer, 0, n, top, true );
+		}
+		else
+		{
+			lsd( array, buffer, n, top );
+		}
+	}
+
+	/**
+	 * Sorts the first n elements of array.
+	 */
+	void sortKeys( long[] array, int n )
+	{
+		if( n < 2 )
+		{
+			return;
+		}
+
+		int[][] counts = _counts;
+
+		clear( counts, 8 );
+
+		for( int i = 0; i < n; i++ )
+		{
+			long value = array[ i ];
+
+			for( int digit = 0; digit < 8; digit++ )
+			{
+				counts[ digit ][ longDigit( value, digit ) ]++;
+			}
+		}
+
+		int top = topVaryingDigit( counts, 8, n );
+
+		if( top < 0 )
+		{
+			return; // all keys are equal
+		}
+
+		long[] buffer = longBuffer( n );
+
+		if( isSkewed( counts[ top ], n ) )
+		{
+			msd( array, buffer, 0, n, top, true );
+		}
+		else
+		{
+			lsd( array, buffer, n, top );
+		}
+	}
+
+	private void lsd( int[] array, int[] buffer, int n, int top )
+	{
+		int[] source = array;
+		int[] target = buffer;
+
+		for( int digit = 0; digit <= top; digit++ )
+		{
+			int[] count = _counts[ digit ];
+
+			if( count[ intDigit( source[ 0 ], digit ) ] == n )
+			{
+				continue; // same byte in every key
+			}
+
+			toOffsets( count );
+
+			for( int i = 0; i < n; i++ )
+			{
+				int value = source[ i ];
+				target[ count[ intDigit( value, digit ) ]++ ] = value;
+			}
+
+			int[] tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != array )
+		{
+			System.arraycopy( source, 0, array, 0, n );
+		}
+	}
+
+	private void lsd( long[] array, long[] buffer, int n, int top )
+	{
+		long[] source = array;
+		long[] target = buffer;
+
+		for( int digit = 0; digit <= top; digit++ )
+		{
+			int[] count = _counts[ digit ];
+
+			if( count[ longDigit( source[ 0 ], digit ) ] == n )
+			{
+				continue; // same byte in every key
+			}
+
+			toOffsets( count );
+
+			for( int i = 0; i < n; i++ )
+			{
+				long value = source[ i ];
+				target[ count[ longDigit( value, digit ) ]++ ] = value;
+			}
+
+			long[] tmp = source;
+			source = target;
+			target = tmp;
+		}
+
+		if( source != array )
+		{
+			System.arraycopy( source, 0, array, 0, n );
+		}
+	}
+
+	/**
+	 * Sorts [from, to) on the given digit and recurses into each bucket with the next lower digit.
+	 * The histogram of the top level has already been built by the caller.
+	 */
+	private void msd( int[] array, int[] buffer, int from, int to, int digit, boolean counted )
+	{
+		int[] count = _counts[ digit ];
+
+		if( !counted )
+		{
+			clear( count );
+
+			for( int i = from; i < to; i++ )
+			{
+				count[ intDigit( array[ i ], digit ) ]++;
+			}
+		}
+
+		if( count[ intDigit( array[ from ], digit ) ] != to - from )
+		{
+			toOffsets( count );
+
+			for( int i = from; i < to; i++ )
+			{
+				int value = array[ i ];
+				buffer[ from + count[ intDigit( value, digit ) ]++ ] = value;
+			}
+
+			System.arraycopy( buffer, from, array, from, to - from );
+		}
+		else
+		{
+			toOffsets( count );
+			count[ intDigit( array[ from ], digit ) ] = to - from;
+		}
+
+		if( digit == 0 )
+		{
+			return;
+		}
+
+		// count[ b ] now is the end of bucket b
+		int start = from;
+
+		for( int b = 0; b < RADIX; b++ )
+		{
+			int end = from + count[ b ];
+			int size = end - start;
+
+			if( size > INSERTION_SORT_THRESHOLD )
+			{
+				msd( array, buffer, start, end, digit - 1, false );
+			}
+			else if( size > 1 )
+			{
+				InsertionSort.sort( array, start, end - 1 );
+			}
+
+			start = end;
+		}
+	}
+
+	/**
+	 * Sorts [from, to) on the given digit and recurses into each bucket with the next lower digit.
+	 * The histogram of the top level has already been built by the caller.
+	 */
+	private void msd( long[] array, long[] buffer, int from, int to, int digit, boolean counted )
+	{
+		int[] count = _counts[ digit ];
+
+		if( !counted )
+		{
+			clear( count );
+
+			for( int i = from; i < to; i++ )
+			{
+				count[ longDigit( array[ i ], digit ) ]++;
+			}
+		}
+
+		if( count[ longDigit( array[ from ], digit ) ] != to - from )
+		{
+			toOffsets( count );
+
+			for( int i = from; i < to; i++ )
+			{
+				long value = array[ i ];
+				buffer[ from + count[ longDigit( value, digit ) ]++ ] = value;
+			}
+
+			System.arraycopy( buffer, from, array, from, to - from );
+		}
+		else
+		{
+			toOffsets( count );
+			count[ longDigit( array[ from ], digit ) ] = to - from;
+		}
+
+		if( digit == 0 )
+		{
+			return;
+		}
+
+		// count[ b ] now is the end of bucket b
+		int start = from;
+
+		for( int b = 0; b < RADIX; b++ )
+		{
+			int end = from + count[ b ];
+			int size = end - start;
+
+			if( size > INSERTION_SORT_THRESHOLD )
+			{
+				msd( array, buffer, start, end, digit - 1, false );
+			}
+			else if( size > 1 )
+			{
+				insertionSort( array, start, end - 1 );
+			}
+
+			start = end;
+		}
+	}
+
+	/**
+	 * Byte number digit of value, 0 is the least significant one.
+	 * The sign bit is flipped so that negative values come first.
+	 */
+	static int intDigit( int value, int digit )
+	{
+		return ( ( value ^ Integer.MIN_VALUE ) >>> ( digit << 3 ) ) & MASK;
+	}
+
+	/**
+	 * Byte number digit of value, 0 is the least significant one.
+	 * The sign bit is flipped so that negative values come first.
+	 */
+	static int longDigit( long value, int digit )
+	{
+		return ( int ) ( ( value ^ Long.MIN_VALUE ) >>> ( digit << 3 ) ) & MASK;
+	}
+
+	/**
+	 * Flips all but the sign bit of negative values. Maps the bits of a float to an int
+	 * in the same order as Float.compare and back again.
+	 */
+	static int sortableBits( int bits )
+	{
+		return bits ^ ( ( bits >> 31 ) & Integer.MAX_VALUE );
+	}
+
+	/**
+	 * Flips all but the sign bit of negative values. Maps the bits of a double to a long
+	 * in the same order as Double.compare and back again.
+	 */
+	static long sortableBits( long bits )
+	{
+		return bits ^ ( ( bits >> 63 ) & Long.MAX_VALUE );
+	}
+
+	/**
+	 * The most significant digit that is not the same in all n keys, -1 if all keys are equal.
+	 */
+	private static int topVaryingDigit( int[][] counts, int digits, int n )
+	{
+		for( int digit = digits - 1; digit >= 0; digit-- )
+		{
+			int[] count = counts[ digit ];
+
+			for( int b = 0; b < RADIX; b++ )
+			{
+				if( count[ b ] != 0 )
+				{
+					if( count[ b ] != n )
+					{
+						return digit;
+					}
+
+					break;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * True if a single bucket holds more than half of the keys.
+	 */
+	private static boolean isSkewed( int[] count, int n )
+	{
+		for( int b = 0; b < RADIX; b++ )
+		{
+			if( count[ b ] > n / 2 )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Turns the histogram into the start offset of each bucket.
+	 */
+	private static void toOffsets( int[] count )
+	{
+		int sum = 0;
+
+		for( int b = 0; b < RADIX; b++ )
+		{
+			int c = count[ b ];
+			count[ b ] = sum;
+			sum += c;
+		}
+	}
+
+	private static void clear( int[][] counts, int digits )
+	{
+		for( int digit = 0; digit < digits; digit++ )
+		{
+			clear( counts[ digit ] );
+		}
+	}
+
+	private static void clear( int[] count )
+	{
+		for( int b = 0; b < RADIX; b++ )
+		{
+			count[ b ] = 0;
+		}
+	}
+
+	private static void insertionSort( long[] array, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			long key = array[ j ];
+			int i;
+
+			for( i = j - 1; ( i >= left ) && ( array[ i ] > key ); i-- )
+			{
+				array[ i + 1 ] = array[ i ];
+			}
+
+			array[ i + 1 ] = key;
+		}
+	}
+
+	private int[] intBuffer( int n )
+	{
+		if( _intBuffer.length < n )
+		{
+			_intBuffer = new int[ n ];
+		}
+
+		return _intBuffer;
+	}
+
+	private long[] longBuffer( int n )
+	{
+		if( _longBuffer.length < n )
+		{
+			_longBuffer = new long[ n ];
+		}
+
+		return _longBuffer;
+	}
+
+	private int[] intKeyBuffer( int n )
+	{
+		if( _intKeyBuffer.length < n )
+		{
+			_intKeyBuffer = new int[ n ];
+		}
+
+		return _intKeyBuffer;
+	}
+
+	private long[] longKeyBuffer( int n )
+	{
+		if( _longKeyBuffer.length < n )
+		{
+			_longKeyBuffer = new long[ n ];
+		}
+
+		return _longKeyBuffer;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[RadixSort]";
+	}
+}
@@ -0,0 +1,46 @@
+package com.ar.ds.sort;
+
+/**
+ * Sort kernel without any vector instructions, used where the Vector API is not available.
+ * Small ranges are insertion sorted, partitioning is a Lomuto scan that swaps unconditionally
+ * and only advances the store index on a match, which leaves no branch for the predictor to miss.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class ScalarSortKernel implements ISortKernel
+{
+	public ScalarSortKernel()
+	{
+	}
+
+	@Override
+	public void sort( int[] array, int left, int right )
+	{
+		InsertionSort.sort( array, left, right );
+	}
+
+	@Override
+	public int partition( int[] array, int left, int right, int pivot )
+	{
+		int store = left;
+
+		for( int i = left; i <= right; i++ )
+		{
+			int value = array[ i ];
+
+			array[ i ] = array[ store ];
+			array[ store ] = value;
+
+			store += ( value < pivot ) ? 1 : 0;
+		}
+
+		return store;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[ScalarSortKernel]";
+	}
+}
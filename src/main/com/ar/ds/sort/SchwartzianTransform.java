@@ -0,0 +1,220 @@
+package com.ar.ds.sort;
+
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Key extractor mode of the object sorts. Every key is computed once into a primitive array
+ * and sorted along with the index of its element, the elements are then permuted in one pass.
+ *
+ * Int keys and their indexes are packed into one long, key in the upper half, so a plain
+ * radix sort of the longs orders by key and, for equal keys, by index. Long keys do not
+ * leave room for the index and are merge sorted together with a separate index array.
+ * Both ways are stable.
+ *
+ * The buffers are kept between calls and only grow, so instances are not thread safe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class SchwartzianTransform
+{
+	public static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private final RadixSort _radixSort = new RadixSort();
+
+	private Object[] _elements = new Object[ 0 ];
+	private long[] _keys = new long[ 0 ];
+	private long[] _keyBuffer = new long[ 0 ];
+	private int[] _indexes = new int[ 0 ];
+	private int[] _indexBuffer = new int[ 0 ];
+
+	SchwartzianTransform()
+	{
+	}
+
+	<T> void sortByIntKey( T[] array, ToIntFunction<? super T> key )
+	{
+		int n = array.length;
+		long[] packed = keys( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			packed[ i ] = ( ( long ) key.applyAsInt( array[ i ] ) << 32 ) | i;
+		}
+
+		_radixSort.sortKeys( packed, n );
+
+		Object[] elements = elements( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			elements[ i ] = array[ ( int ) packed[ i ] ];
+		}
+
+		copyBack( elements, array, n );
+	}
+
+	<T> void sortByLongKey( T[] array, ToLongFunction<? super T> key )
+	{
+		int n = array.length;
+		long[] keys = keys( n );
+		int[] indexes = indexes( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			keys[ i ] = key.applyAsLong( array[ i ] );
+			indexes[ i ] = i;
+		}
+
+		mergeSort( keys, indexes, keyBuffer( n ), indexBuffer( n ), 0, n - 1 );
+
+		Object[] elements = elements( n );
+
+		for( int i = 0; i < n; i++ )
+		{
+			elements[ i ] = array[ indexes[ i ] ];
+		}
+
+		copyBack( elements, array, n );
+	}
+
+	/**
+	 * Stable merge sort of keys[ left, right ], indexes are moved along.
+	 */
+	private static void mergeSort( long[] keys, int[] indexes, long[] keyBuffer, int[] indexBuffer, int left, int right )
+	{
+		if( right - left + 1 <= INSERTION_SORT_THRESHOLD )
+		{
+			insertionSort( keys, indexes, left, right );
+			return;
+		}
+
+		int center = ( left + right ) >>> 1;
+
+		mergeSort( keys, indexes, keyBuffer, indexBuffer, left, center );
+		mergeSort( keys, indexes, keyBuffer, indexBuffer, center + 1, right );
+
+		if( keys[ center ] <= keys[ center + 1 ] )
+		{
+			return;
+		}
+
+		int leftPos = left;
+		int rightPos = center + 1;
+		int tmpPos = left;
+
+		while( leftPos <= center && rightPos <= right )
+		{
+			if( keys[ leftPos ] <= keys[ rightPos ] )
+			{
+				keyBuffer[ tmpPos ] = keys[ leftPos ];
+				indexBuffer[ tmpPos++ ] = indexes[ leftPos++ ];
+			}
+			else
+			{
+				keyBuffer[ tmpPos ] = keys[ rightPos ];
+				indexBuffer[ tmpPos++ ] = indexes[ rightPos++ ];
+			}
+		}
+
+		// The rest of the right half is already in place
+		int rest = center - leftPos + 1;
+
+		System.arraycopy( keys, leftPos, keyBuffer, tmpPos, rest );
+		System.arraycopy( indexes, leftPos, indexBuffer, tmpPos, rest );
+
+		int length = tmpPos + rest - left;
+
+		System.arraycopy( keyBuffer, left, keys, left, length );
+		System.arraycopy( indexBuffer, left, indexes, left, length );
+	}
+
+	private static void insertionSort( long[] keys, int[] indexes, int left, int right )
+	{
+		for( int j = left + 1; j <= right; j++ )
+		{
+			long key = keys[ j ];
+			int index = indexes[ j ];
+			int i;
+
+			for( i = j - 1; i >= left && keys[ i ] > key; i-- )
+			{
+				keys[ i + 1 ] = keys[ i ];
+				indexes[ i + 1 ] = indexes[ i ];
+			}
+
+			keys[ i + 1 ] = key;
+			indexes[ i + 1 ] = index;
+		}
+	}
+
+	/**
+	 * Copies the permuted elements back and clears the references the buffer holds.
+	 */
+	@SuppressWarnings( "unchecked" )
+	private static <T> void copyBack( Object[] elements, T[] array, int n )
+	{
+		for( int i = 0; i < n; i++ )
+		{
+			array[ i ] = ( T ) elements[ i ];
+			elements[ i ] = null;
+		}
+	}
+
+	private Object[] elements( int n )
+	{
+		if( _elements.length < n )
+		{
+			_elements = new Object[ n ];
+		}
+
+		return _elements;
+	}
+
+	private long[] keys( int n )
+	{
+		if( _keys.length < n )
+		{
+			_keys = new long[ n ];
+		}
+
+		return _keys;
+	}
+
+	private long[] keyBuffer( int n )
+	{
+		if( _keyBuffer.length < n )
+		{
+			_keyBuffer = new long[ n ];
+		}
+
+		return _keyBuffer;
+	}
+
+	private int[] indexes( int n )
+	{
+		if( _indexes.length < n )
+		{
+			_indexes = new int[ n ];
+		}
+
+		return _indexes;
+	}
+
+	private int[] indexBuffer( int n )
+	{
+		if( _indexBuffer.length < n )
+		{
+			_indexBuffer = new int[ n ];
+		}
+
+		return _indexBuffer;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SchwartzianTransform]";
+	}
+}
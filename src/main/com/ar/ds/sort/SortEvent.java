@@ -0,0 +1,51 @@
+package com.ar.ds.sort;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one InstrumentedSort call. Only costs anything while a recording
+ * has it enabled, e.g. -XX:StartFlightRecording with com.ar.ds.sort.Sort#enabled=true.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+@Name( "com.ar.ds.sort.Sort" )
+@Label( "Sort" )
+@Category( { "Data Structures", "Sort" } )
+@Description( "One call of an instrumented sort" )
+final class SortEvent extends Event
+{
+	@Label( "Algorithm" )
+	String algorithm;
+
+	@Label( "Length" )
+	int length;
+
+	@Label( "Comparisons" )
+	long comparisons;
+
+	@Label( "Moves" )
+	long moves;
+
+	@Label( "Max Recursion Depth" )
+	int maxDepth;
+
+	@Label( "Scratch Allocated" )
+	@DataAmount
+	long scratchBytes;
+
+	SortEvent()
+	{
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortEvent]";
+	}
+}
@@ -0,0 +1,92 @@
+package com.ar.ds.sort;
+
+/**
+ * Picks the sort kernel for the running JVM.
+ * The vector kernel is only loaded by name, so this class and everything using it still
+ * links when the jdk.incubator.vector module is missing ( run with --add-modules jdk.incubator.vector ).
+ * Without the module, or on hardware without 256 bit vectors, the scalar kernel is used.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class SortKernels
+{
+	/**
+	 * Ranges up to this length are left to the kernel by the sorts that take one.
+	 */
+	public static final int BASE_CASE_THRESHOLD = 32;
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_KERNEL = "com.ar.ds.sort.VectorSortKernel";
+
+	private static final boolean VECTOR_AVAILABLE = probe();
+
+	private SortKernels()
+	{
+	}
+
+	/**
+	 * @return true if preferred() hands out vector kernels
+	 */
+	public static boolean isVectorAvailable()
+	{
+		return VECTOR_AVAILABLE;
+	}
+
+	/**
+	 * @return a new instance of the fastest kernel available
+	 */
+	public static ISortKernel preferred()
+	{
+		if( VECTOR_AVAILABLE )
+		{
+			try
+			{
+				return createVectorKernel();
+			}
+			catch( ReflectiveOperationException e )
+			{
+				throw new IllegalStateException( e );
+			}
+		}
+
+		return scalar();
+	}
+
+	/**
+	 * @return a new scalar kernel
+	 */
+	public static ISortKernel scalar()
+	{
+		return new ScalarSortKernel();
+	}
+
+	private static boolean probe()
+	{
+		if( !ModuleLayer.boot().findModule( VECTOR_MODULE ).isPresent() )
+		{
+			return false;
+		}
+
+		try
+		{
+			createVectorKernel();
+			return true;
+		}
+		catch( ReflectiveOperationException | LinkageError e )
+		{
+			return false;
+		}
+	}
+
+	private static ISortKernel createVectorKernel() throws ReflectiveOperationException
+	{
+		return ( ISortKernel ) Class.forName( VECTOR_KERNEL ).getDeclaredConstructor().newInstance();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortKernels]";
+	}
+}
@@ -0,0 +1,137 @@
+package com.ar.ds.sort;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Totals over all calls of one or more InstrumentedSorts. Counters are LongAdders, so many threads
+ * can record at once without contending on a single cache line.
+ *
+ * Calls and elements are always recorded, wall time unless the metrics were created untimed, which
+ * saves the two nanoTime calls per sort. Comparisons, moves, recursion depth and scratch bytes come from
+ * the hooks inside QuickSort, MergeSort and HeapSort and stay 0 unless the JVM runs with
+ * -Dcom.ar.ds.sort.probe=true. Other sorts have no hooks. Moves count element writes, a swap is two.
+ * The hooks only count on the thread that called the InstrumentedSort, see SortProbe.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class SortMetrics
+{
+	private final LongAdder _calls = new LongAdder();
+	private final LongAdder _elements = new LongAdder();
+	private final LongAdder _nanos = new LongAdder();
+	private final LongAdder _comparisons = new LongAdder();
+	private final LongAdder _moves = new LongAdder();
+	private final LongAdder _scratchBytes = new LongAdder();
+	private final LongAccumulator _maxDepth = new LongAccumulator( new LongBinaryOperator()
+	{
+		@Override
+		public long applyAsLong( long left, long right )
+		{
+			return Math.max( left, right );
+		}
+	}, 0 );
+
+	private final boolean _timed;
+
+	public SortMetrics()
+	{
+		this( true );
+	}
+
+	/**
+	 * @param timed measure the wall time of every call, getNanos stays 0 otherwise
+	 */
+	public SortMetrics( boolean timed )
+	{
+		_timed = timed;
+	}
+
+	public boolean isTimed()
+	{
+		return _timed;
+	}
+
+	/**
+	 * @param nanos wall time of the call, ignored unless timed
+	 * @param probe counts of the call, null if the probes are disabled
+	 */
+	void record( int length, long nanos, SortProbe probe )
+	{
+		_calls.increment();
+		_elements.add( length );
+
+		if( _timed )
+		{
+			_nanos.add( nanos );
+		}
+
+		if( probe != null )
+		{
+			_comparisons.add( probe.comparisons );
+			_moves.add( probe.moves );
+			_scratchBytes.add( probe.scratchBytes );
+			_maxDepth.accumulate( probe.maxDepth );
+		}
+	}
+
+	public long getCalls()
+	{
+		return _calls.sum();
+	}
+
+	public long getElements()
+	{
+		return _elements.sum();
+	}
+
+	public long getNanos()
+	{
+		return _nanos.sum();
+	}
+
+	public long getComparisons()
+	{
+		return _comparisons.sum();
+	}
+
+	public long getMoves()
+	{
+		return _moves.sum();
+	}
+
+	public long getScratchBytes()
+	{
+		return _scratchBytes.sum();
+	}
+
+	/**
+	 * Deepest recursion of any single call.
+	 */
+	public long getMaxDepth()
+	{
+		return _maxDepth.get();
+	}
+
+	/**
+	 * Sets all counters back to 0. Calls recorded at the same time may be partly lost.
+	 */
+	public void reset()
+	{
+		_calls.reset();
+		_elements.reset();
+		_nanos.reset();
+		_comparisons.reset();
+		_moves.reset();
+		_scratchBytes.reset();
+		_maxDepth.reset();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortMetrics]";
+	}
+}
@@ -0,0 +1,128 @@
+package com.ar.ds.sort;
+
+/**
+ * Counters filled by the hooks inside QuickSort, MergeSort and HeapSort while an
+ * InstrumentedSort call is running on the same thread.
+ *
+ * Every hook is guarded by ENABLED, which is read once from the system property
+ * com.ar.ds.sort.probe. It is a static final, so with the property unset the JIT folds the
+ * guards to false and removes the hooks together with the local counters that only feed them.
+ * The instrumented sorts then compile to the same code as without any hooks.
+ *
+ * Hooks add up their counts locally and report them once per partition, merge or sift,
+ * so even when enabled the thread local is not looked up per comparison.
+ *
+ * The probe is thread local, so only work done on the calling thread is counted. Hooks that fire in the
+ * fork join workers of ParallelQuickSort and ParallelMergeSort find no probe and are dropped, the counters
+ * of those sorts only cover the part the calling thread ran itself and often read close to 0.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+final class SortProbe
+{
+	static final boolean ENABLED = Boolean.getBoolean( "com.ar.ds.sort.probe" );
+
+	private static final ThreadLocal<SortProbe> CURRENT = new ThreadLocal<SortProbe>();
+
+	long comparisons;
+	long moves;
+	long scratchBytes;
+	int maxDepth;
+
+	private int _depth;
+	private SortProbe _outer;
+
+	private SortProbe()
+	{
+	}
+
+	/**
+	 * Starts collecting on this thread. Probes nest, the outer one also receives the counts of the inner one.
+	 */
+	static SortProbe begin()
+	{
+		SortProbe probe = new SortProbe();
+
+		probe._outer = CURRENT.get();
+
+		CURRENT.set( probe );
+
+		return probe;
+	}
+
+	/**
+	 * Stops collecting and restores the outer probe, if any.
+	 */
+	void end()
+	{
+		CURRENT.set( _outer );
+
+		if( _outer != null )
+		{
+			_outer.comparisons += comparisons;
+			_outer.moves += moves;
+			_outer.scratchBytes += scratchBytes;
+			_outer.maxDepth = Math.max( _outer.maxDepth, _outer._depth + maxDepth );
+		}
+	}
+
+	static void compared( long count )
+	{
+		SortProbe probe = CURRENT.get();
+
+		if( probe != null )
+		{
+			probe.comparisons += count;
+		}
+	}
+
+	static void moved( long count )
+	{
+		SortProbe probe = CURRENT.get();
+
+		if( probe != null )
+		{
+			probe.moves += count;
+		}
+	}
+
+	static void allocated( long bytes )
+	{
+		SortProbe probe = CURRENT.get();
+
+		if( probe != null )
+		{
+			probe.scratchBytes += bytes;
+		}
+	}
+
+	/**
+	 * Called when a recursive call starts working on a range.
+	 */
+	static void enter()
+	{
+		SortProbe probe = CURRENT.get();
+
+		if( probe != null && ++probe._depth > probe.maxDepth )
+		{
+			probe.maxDepth = probe._depth;
+		}
+	}
+
+	static void exit()
+	{
+		SortProbe probe = CURRENT.get();
+
+		if( probe != null )
+		{
+			probe._depth--;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[SortProbe]";
+	}
+}
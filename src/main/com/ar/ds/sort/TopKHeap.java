@@ -0,0 +1,143 @@
+package com.ar.ds.sort;
+
+/**
+ * Keeps the k largest of a stream of ints in O(k) memory, each offer costs O(log k).
+ *
+ * The kept values are stored bitwise inverted in a max heap, ~x reverses the order of ints
+ * without overflowing. The root then holds the smallest kept value, which is the threshold
+ * a new value has to beat. This lets HeapSort's sift routine maintain the heap.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class TopKHeap
+{
+	private final int[] _heap;
+	private int _size;
+
+	public TopKHeap( int k )
+	{
+		if( k < 0 )
+		{
+			throw new IllegalArgumentException( "k must not be negative" );
+		}
+
+		_heap = new int[ k ];
+	}
+
+	/**
+	 * Adds value if it is among the k largest seen so far.
+	 */
+	public void offer( int value )
+	{
+		_size = offer( _heap, _size, _heap.length, value );
+	}
+
+	/**
+	 * Number of values kept, at most k.
+	 */
+	public int size()
+	{
+		return _size;
+	}
+
+	/**
+	 * The smallest kept value. Requires size() > 0.
+	 */
+	public int min()
+	{
+		if( _size == 0 )
+		{
+			throw new IllegalStateException( "TopKHeap is empty" );
+		}
+
+		return ~_heap[ 0 ];
+	}
+
+	/**
+	 * Writes the kept values to out, sorted descending, and empties the heap. Returns their number.
+	 */
+	public int drainTo( int[] out )
+	{
+		int size = _size;
+
+		System.arraycopy( _heap, 0, out, 0, size );
+		drain( out, size );
+
+		_size = 0;
+
+		return size;
+	}
+
+	public void clear()
+	{
+		_size = 0;
+	}
+
+	/**
+	 * Offers value to the heap of size elements in heap[ 0, k ). Returns the new size.
+	 */
+	static int offer( int[] heap, int size, int k, int value )
+	{
+		int inverted = ~value;
+
+		if( size < k )
+		{
+			// sift up
+			int i = size;
+
+			while( i > 0 )
+			{
+				int parent = ( i - 1 ) >>> 1;
+
+				if( heap[ parent ] >= inverted )
+				{
+					break;
+				}
+
+				heap[ i ] = heap[ parent ];
+				i = parent;
+			}
+
+			heap[ i ] = inverted;
+
+			return size + 1;
+		}
+
+		if( k > 0 && inverted < heap[ 0 ] )
+		{
+			// beats the smallest kept value, which is dropped
+			heap[ 0 ] = inverted;
+			HeapSort.burry( heap, 0, 0, size );
+		}
+
+		return size;
+	}
+
+	/**
+	 * Turns the heap of size elements in heap[ 0, size ) into the kept values, sorted descending.
+	 */
+	static void drain( int[] heap, int size )
+	{
+		// ascending inverted values are descending values
+		for( int i = size - 1; i > 0; i-- )
+		{
+			int tmp = heap[ i ];
+			heap[ i ] = heap[ 0 ];
+			heap[ 0 ] = tmp;
+
+			HeapSort.burry( heap, 0, 0, i );
+		}
+
+		for( int i = 0; i < size; i++ )
+		{
+			heap[ i ] = ~heap[ i ];
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[TopKHeap]";
+	}
+}
@@ -0,0 +1,353 @@
+package com.ar.ds.sort;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Sort kernel built on the incubating Vector API, 8 int lanes per 256 bit register.
+ *
+ * Sorting:
+ * Ranges of up to 32 elements are sorted completely in registers by bitonic sorting networks.
+ * Each compare-exchange stage swaps every lane with its partner lane, takes the minimum and
+ * the maximum of both and blends them, so the 8 lanes pass through the 6 stages of an 8-sorter
+ * without a single branch. 16 elements are two sorted vectors, the second one reversed,
+ * merged by one vertical min / max and a 3 stage bitonic merge of each half, 32 elements
+ * are two such runs of 16 merged the same way.
+ * Short blocks are padded with Integer.MAX_VALUE, which ends up in the lanes that are not stored.
+ * Longer ranges are cut into blocks of 32, which are then merged bottom up.
+ *
+ * Partitioning:
+ * Compares 8 elements against the pivot at once, the comparison mask selects a row of
+ * a table of 256 shuffles that packs the smaller lanes to the front and the others behind them.
+ * The packed vector is written twice: in place, where only the smaller lanes count,
+ * and into a scratch buffer that fills from the top down, where only the others count.
+ * Writing in place is safe because the store index never passes the read index.
+ * In the end the buffer is appended behind the smaller elements.
+ * The scratch buffer is kept between calls and only grows, so instances are not thread safe.
+ *
+ * Only load this class through SortKernels, it fails to link without the jdk.incubator.vector module.
+ *
+ * http://en.wikipedia.org/wiki/Bitonic_sorter
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public final class VectorSortKernel implements ISortKernel
+{
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_256;
+	private static final int LANES = 8;
+	private static final int BLOCK = 4 * LANES;
+
+	private static final VectorShuffle<Integer> PARTNER_1 = partner( 1 );
+	private static final VectorShuffle<Integer> PARTNER_2 = partner( 2 );
+	private static final VectorShuffle<Integer> PARTNER_4 = partner( 4 );
+	private static final VectorShuffle<Integer> REVERSE = partner( LANES - 1 );
+
+	private static final VectorMask<Integer> MAX_2_1 = takeMax( 2, 1 );
+	private static final VectorMask<Integer> MAX_4_2 = takeMax( 4, 2 );
+	private static final VectorMask<Integer> MAX_4_1 = takeMax( 4, 1 );
+	private static final VectorMask<Integer> MAX_8_4 = takeMax( 8, 4 );
+	private static final VectorMask<Integer> MAX_8_2 = takeMax( 8, 2 );
+	private static final VectorMask<Integer> MAX_8_1 = takeMax( 8, 1 );
+
+	private static final IntVector ZERO = IntVector.zero( SPECIES );
+	private static final IntVector LANE_BITS = IntVector.fromArray( SPECIES, new int[]{ 1, 2, 4, 8, 16, 32, 64, 128 }, 0 );
+	private static final int[] COMPRESS = compressTable();
+
+	private int[] _buffer = new int[ 0 ];
+
+	/**
+	 * @throws UnsupportedOperationException if the hardware has no 256 bit int vectors,
+	 * the Vector API would fall back to emulating them, which is far slower than scalar code
+	 */
+	public VectorSortKernel()
+	{
+		if( IntVector.SPECIES_PREFERRED.vectorBitSize() < SPECIES.vectorBitSize() )
+		{
+			throw new UnsupportedOperationException( "no 256 bit vector support" );
+		}
+	}
+
+	@Override
+	public void sort( int[] array, int left, int right )
+	{
+		int n = right - left + 1;
+
+		if( n <= LANES )
+		{
+			if( n > 1 )
+			{
+				sort8( array, left, n );
+			}
+
+			return;
+		}
+
+		if( n <= 2 * LANES )
+		{
+			sort16( array, left, n );
+			return;
+		}
+
+		if( n <= BLOCK )
+		{
+			sort32( array, left, n );
+			return;
+		}
+
+		for( int block = left; block <= right; block += BLOCK )
+		{
+			sort( array, block, Math.min( block + BLOCK - 1, right ) );
+		}
+
+		int[] buffer = buffer( n );
+
+		for( int width = BLOCK; width < n; width <<= 1 )
+		{
+			for( int lo = left; lo + width <= right; lo += 2 * width )
+			{
+				int mid = lo + width - 1;
+				int hi = Math.min( mid + width, right );
+
+				MergeSort.merge( array, lo, mid, array, mid + 1, hi, buffer, 0 );
+				System.arraycopy( buffer, 0, array, lo, hi - lo + 1 );
+			}
+		}
+	}
+
+	@Override
+	public int partition( int[] array, int left, int right, int pivot )
+	{
+		int[] buffer = buffer( right - left + 1 + LANES );
+		IntVector pivots = IntVector.broadcast( SPECIES, pivot );
+
+		int store = left;
+		int top = buffer.length;
+		int i = left;
+
+		for( int end = right + 1 - LANES; i <= end; i += LANES )
+		{
+			IntVector v = IntVector.fromArray( SPECIES, array, i );
+			int less = ZERO.blend( LANE_BITS, v.compare( VectorOperators.LT, pivots ) ).reduceLanes( VectorOperators.OR );
+			int count = Integer.bitCount( less );
+
+			// Smaller lanes first, the others behind them
+			IntVector packed = v.rearrange( IntVector.fromArray( SPECIES, COMPRESS, less * LANES ).toShuffle() );
+
+			// The smaller lanes go in place, the others end at top in the buffer, which fills downwards
+			packed.intoArray( array, store );
+			packed.intoArray( buffer, top - LANES );
+
+			store += count;
+			top -= LANES - count;
+		}
+
+		for( ; i <= right; i++ )
+		{
+			int value = array[ i ];
+
+			if( value < pivot )
+			{
+				array[ store++ ] = value;
+			}
+			else
+			{
+				buffer[ --top ] = value;
+			}
+		}
+
+		System.arraycopy( buffer, top, array, store, buffer.length - top );
+
+		return store;
+	}
+
+	/**
+	 * Sorts 2 to 8 elements starting at offset.
+	 */
+	private static void sort8( int[] array, int offset, int n )
+	{
+		VectorMask<Integer> mask = SPECIES.indexInRange( 0, n );
+
+		IntVector v = load( array, offset, mask );
+
+		sort8( v ).intoArray( array, offset, mask );
+	}
+
+	/**
+	 * Sorts 9 to 16 elements starting at offset.
+	 */
+	private static void sort16( int[] array, int offset, int n )
+	{
+		VectorMask<Integer> mask = SPECIES.indexInRange( 0, n - LANES );
+
+		IntVector a = sort8( IntVector.fromArray( SPECIES, array, offset ) );
+		IntVector b = sort8( load( array, offset + LANES, mask ) ).rearrange( REVERSE );
+
+		// a ascending followed by b descending is bitonic, split it into the lower and upper half
+		IntVector lower = a.min( b );
+		IntVector upper = a.max( b );
+
+		merge8( lower ).intoArray( array, offset );
+		merge8( upper ).intoArray( array, offset + LANES, mask );
+	}
+
+	/**
+	 * Sorts 17 to 32 elements starting at offset.
+	 */
+	private static void sort32( int[] array, int offset, int n )
+	{
+		VectorMask<Integer> mask3 = SPECIES.indexInRange( 0, n - 2 * LANES );
+		VectorMask<Integer> mask4 = SPECIES.indexInRange( 0, n - 3 * LANES );
+
+		IntVector a = sort8( IntVector.fromArray( SPECIES, array, offset ) );
+		IntVector b = sort8( IntVector.fromArray( SPECIES, array, offset + LANES ) ).rearrange( REVERSE );
+		IntVector c = sort8( load( array, offset + 2 * LANES, mask3 ) );
+		IntVector d = sort8( load( array, offset + 3 * LANES, mask4 ) ).rearrange( REVERSE );
+
+		// Two sorted runs of 16, a b and c d
+		IntVector ab = a.min( b );
+		b = merge8( a.max( b ) );
+		a = merge8( ab );
+
+		IntVector cd = c.min( d );
+		d = merge8( c.max( d ) );
+		c = merge8( cd );
+
+		// a b followed by c d reversed is bitonic, split it into the lower and upper 16
+		IntVector reversedD = d.rearrange( REVERSE );
+		IntVector reversedC = c.rearrange( REVERSE );
+
+		IntVector lower1 = a.min( reversedD );
+		IntVector lower2 = b.min( reversedC );
+		IntVector upper1 = a.max( reversedD );
+		IntVector upper2 = b.max( reversedC );
+
+		merge8( lower1.min( lower2 ) ).intoArray( array, offset );
+		merge8( lower1.max( lower2 ) ).intoArray( array, offset + LANES );
+		merge8( upper1.min( upper2 ) ).intoArray( array, offset + 2 * LANES, mask3 );
+		merge8( upper1.max( upper2 ) ).intoArray( array, offset + 3 * LANES, mask4 );
+	}
+
+	/**
+	 * Loads the lanes of mask, the others are set to Integer.MAX_VALUE.
+	 */
+	private static IntVector load( int[] array, int offset, VectorMask<Integer> mask )
+	{
+		return IntVector.broadcast( SPECIES, Integer.MAX_VALUE ).blend( IntVector.fromArray( SPECIES, array, offset, mask ), mask );
+	}
+
+	private static IntVector sort8( IntVector v )
+	{
+		v = exchange( v, PARTNER_1, MAX_2_1 );
+		v = exchange( v, PARTNER_2, MAX_4_2 );
+		v = exchange( v, PARTNER_1, MAX_4_1 );
+
+		return merge8( v );
+	}
+
+	/**
+	 * Sorts a bitonic vector.
+	 */
+	private static IntVector merge8( IntVector v )
+	{
+		v = exchange( v, PARTNER_4, MAX_8_4 );
+		v = exchange( v, PARTNER_2, MAX_8_2 );
+
+		return exchange( v, PARTNER_1, MAX_8_1 );
+	}
+
+	/**
+	 * One compare-exchange stage, lanes in takeMax receive the larger value of their pair.
+	 */
+	private static IntVector exchange( IntVector v, VectorShuffle<Integer> partner, VectorMask<Integer> takeMax )
+	{
+		IntVector w = v.rearrange( partner );
+
+		return v.min( w ).blend( v.max( w ), takeMax );
+	}
+
+	/**
+	 * Shuffle that pairs lane i with lane i ^ bits, bits = LANES - 1 reverses the vector.
+	 */
+	private static VectorShuffle<Integer> partner( int bits )
+	{
+		int[] indexes = new int[ LANES ];
+
+		for( int i = 0; i < LANES; i++ )
+		{
+			indexes[ i ] = i ^ bits;
+		}
+
+		return VectorShuffle.fromArray( SPECIES, indexes, 0 );
+	}
+
+	/**
+	 * Lanes that keep the maximum in the stage of the bitonic network that compares
+	 * at the given distance while building sorted sequences of the given size.
+	 */
+	private static VectorMask<Integer> takeMax( int size, int distance )
+	{
+		boolean[] bits = new boolean[ LANES ];
+
+		for( int i = 0; i < LANES; i++ )
+		{
+			boolean ascending = ( i & size ) == 0;
+			boolean lower = ( i & distance ) == 0;
+
+			bits[ i ] = ascending != lower;
+		}
+
+		return VectorMask.fromArray( SPECIES, bits, 0 );
+	}
+
+	/**
+	 * For every 8 bit mask the lane indexes that move the set lanes to the front, keeping their order,
+	 * followed by the others. Row bits starts at bits * LANES.
+	 */
+	private static int[] compressTable()
+	{
+		int[] table = new int[ ( 1 << LANES ) * LANES ];
+
+		for( int bits = 0; bits < 1 << LANES; bits++ )
+		{
+			int next = bits * LANES;
+
+			for( int i = 0; i < LANES; i++ )
+			{
+				if( ( bits & ( 1 << i ) ) != 0 )
+				{
+					table[ next++ ] = i;
+				}
+			}
+
+			for( int i = 0; i < LANES; i++ )
+			{
+				if( ( bits & ( 1 << i ) ) == 0 )
+				{
+					table[ next++ ] = i;
+				}
+			}
+		}
+
+		return table;
+	}
+
+	private int[] buffer( int length )
+	{
+		if( _buffer.length < length )
+		{
+			_buffer = new int[ length ];
+		}
+
+		return _buffer;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "[VectorSortKernel]";
+	}
+}
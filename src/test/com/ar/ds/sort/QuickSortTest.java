@@ -0,0 +1,195 @@
+package com.ar.ds.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Organ pipes and sorted arrays through every QuickSort overload. The sorts run on a thread with
+ * a small stack, so recursion that grows with n fails with a StackOverflowError.
+ *
+ * @author Alan Ross
+ * @version 0.1
+ */
+public class QuickSortTest
+{
+	private static final int SIZE = 200000;
+	private static final long STACK_SIZE = 1 << 19;
+
+	@Test
+	public void sortsLongs() throws Throwable
+	{
+		for( final int[] input : inputs() )
+		{
+			final long[] array = new long[ SIZE ];
+			long[] expected = new long[ SIZE ];
+
+			for( int i = 0; i < SIZE; i++ )
+			{
+				array[ i ] = expected[ i ] = 1700000000000L + input[ i ];
+			}
+
+			Arrays.sort( expected );
+
+			runWithSmallStack( new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					new QuickSort().sort( array );
+				}
+			} );
+
+			assertArrayEquals( expected, array );
+		}
+	}
+
+	@Test
+	public void sortsDoubles() throws Throwable
+	{
+		for( final int[] input : inputs() )
+		{
+			final double[] array = new double[ SIZE ];
+			double[] expected = new double[ SIZE ];
+
+			for( int i = 0; i < SIZE; i++ )
+			{
+				array[ i ] = expected[ i ] = input[ i ] * 0.5;
+			}
+
+			Arrays.sort( expected );
+
+			runWithSmallStack( new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					new QuickSort().sort( array );
+				}
+			} );
+
+			assertArrayEquals( expected, array );
+		}
+	}
+
+	@Test
+	public void sortsFloats() throws Throwable
+	{
+		for( final int[] input : inputs() )
+		{
+			final float[] array = new float[ SIZE ];
+			float[] expected = new float[ SIZE ];
+
+			for( int i = 0; i < SIZE; i++ )
+			{
+				array[ i ] = expected[ i ] = input[ i ];
+			}
+
+			Arrays.sort( expected );
+
+			runWithSmallStack( new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					new QuickSort().sort( array );
+				}
+			} );
+
+			assertArrayEquals( expected, array );
+		}
+	}
+
+	@Test
+	public void sortsKeysAndValues() throws Throwable
+	{
+		for( final int[] input : inputs() )
+		{
+			final int[] keys = input.clone();
+			final long[] values = new long[ SIZE ];
+			int[] expected = input.clone();
+
+			// Every value carries its key and its original index
+			for( int i = 0; i < SIZE; i++ )
+			{
+				values[ i ] = ( ( long ) keys[ i ] << 32 ) | i;
+			}
+
+			Arrays.sort( expected );
+
+			runWithSmallStack( new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					new QuickSort().sort( keys, values );
+				}
+			} );
+
+			assertArrayEquals( expected, keys );
+
+			boolean[] seen = new boolean[ SIZE ];
+
+			for( int i = 0; i < SIZE; i++ )
+			{
+				assertEquals( keys[ i ], ( int ) ( values[ i ] >> 32 ) );
+
+				seen[ ( int ) values[ i ] ] = true;
+			}
+
+			for( boolean index : seen )
+			{
+				assertEquals( true, index );
+			}
+		}
+	}
+
+	/**
+	 * An organ pipe and a sorted array of SIZE elements.
+	 */
+	private static int[][] inputs()
+	{
+		int[] organPipe = new int[ SIZE ];
+		int[] sorted = new int[ SIZE ];
+
+		for( int i = 0; i < SIZE; i++ )
+		{
+			organPipe[ i ] = i < SIZE / 2 ? i : SIZE - i;
+			sorted[ i ] = i;
+		}
+
+		return new int[][]{ organPipe, sorted };
+	}
+
+	private static void runWithSmallStack( Runnable sort ) throws Throwable
+	{
+		final Throwable[] failure = new Throwable[ 1 ];
+
+		Thread thread = new Thread( null, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					sort.run();
+				}
+				catch( Throwable e )
+				{
+					failure[ 0 ] = e;
+				}
+			}
+		}, "QuickSortTest", STACK_SIZE );
+
+		thread.start();
+		thread.join();
+
+		if( failure[ 0 ] != null )
+		{
+			throw failure[ 0 ];
+		}
+	}
+}